@@ -17,37 +17,64 @@
 package com.github.api;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.UnaryOperator;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.MappingIterator;
+import io.spring.api.http.ApiClient;
+import io.spring.api.http.ContentEncoding;
+import io.spring.api.http.HttpClients;
+import io.spring.api.http.Interceptor;
+import io.spring.api.http.Json;
 
 /**
  * @author Steve Riesenberg
  */
-public class GitHubApi {
+public class GitHubApi extends ApiClient {
 
 	private static final Logger LOGGER = Logger.getLogger(GitHubApi.class.getName());
 
-	private final HttpClient httpClient;
+	private static final Pattern LINK_PATTERN = Pattern.compile("<([^>]+)>;\\s*rel=\"([^\"]+)\"");
 
-	private final ObjectMapper objectMapper;
+	private static final Pattern PAGE_PATTERN = Pattern.compile("([?&]page=)(\\d+)");
 
-	private final String baseUrl;
+	private static final Pattern REPOSITORY_PATH_PATTERN = Pattern.compile("^/repos/[^/]+/[^/]+");
+
+	private static final Pattern NUMBER_PATH_PATTERN = Pattern.compile("/\\d+(?=/|$)");
+
+	private static final int DEFAULT_MAX_CONCURRENT_PAGES = 4;
 
 	private final String accessToken;
 
+	private final RateLimiter rateLimiter = new RateLimiter();
+
+	private final Map<Repository, CompletableFuture<MilestoneIndex>> milestoneIndexes = new ConcurrentHashMap<>();
+
+	private int maxConcurrentPages = DEFAULT_MAX_CONCURRENT_PAGES;
+
+	private HttpResponseCache responseCache;
+
 	/**
 	 * @param accessToken The optional access token for the GitHub API
 	 */
@@ -60,19 +87,52 @@ public class GitHubApi {
 	 * @param accessToken The optional access token for the GitHub API
 	 */
 	public GitHubApi(String baseUrl, String accessToken) {
-		this.httpClient = HttpClient.newHttpClient();
-		this.objectMapper = getObjectMapper();
-		this.baseUrl = baseUrl;
+		this(HttpClients.shared(), baseUrl, accessToken);
+	}
+
+	/**
+	 * @param httpClient The HTTP client used to send requests (see
+	 * {@link HttpClients#shared(HttpClients.Settings)})
+	 * @param baseUrl The base URL of the GitHub API
+	 * @param accessToken The optional access token for the GitHub API
+	 */
+	public GitHubApi(HttpClient httpClient, String baseUrl, String accessToken) {
+		super(httpClient, "GitHub", baseUrl);
 		this.accessToken = accessToken;
 	}
 
-	private static ObjectMapper getObjectMapper() {
-		var objectMapper = new ObjectMapper();
-		objectMapper.setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL);
-		objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		objectMapper.registerModule(new JavaTimeModule());
+	/**
+	 * Set the maximum number of pages of a collection that are requested at the same time
+	 * when all pages are fetched at once (defaults to 4).
+	 * @param maxConcurrentPages The maximum number of concurrent page requests
+	 */
+	public void setMaxConcurrentPages(int maxConcurrentPages) {
+		if (maxConcurrentPages < 1) {
+			throw new IllegalArgumentException("maxConcurrentPages must be greater than 0");
+		}
+		this.maxConcurrentPages = maxConcurrentPages;
+	}
 
-		return objectMapper;
+	/**
+	 * Set a cache used to revalidate GET requests with {@code If-None-Match}. Responses
+	 * that have not been modified ({@code 304 Not Modified}) are served from the cache
+	 * and do not count against the GitHub rate limit.
+	 * @param responseCache The cache of GET responses, or null to disable caching
+	 */
+	public void setResponseCache(HttpResponseCache responseCache) {
+		this.responseCache = responseCache;
+		invalidateTransport();
+	}
+
+	/**
+	 * Return the GitHub rate limit reported by the most recent response. Requests are
+	 * paced to stay within this budget, and wait for it to reset once it is used up
+	 * instead of failing. The remaining rate limit is also recorded as the
+	 * {@code github.rateLimit.remaining} gauge.
+	 * @return The current rate limit, or null if no response has reported it yet
+	 */
+	public RateLimit getRateLimit() {
+		return this.rateLimiter.getRateLimit();
 	}
 
 	/**
@@ -80,8 +140,17 @@ public class GitHubApi {
 	 * @return A GitHub User
 	 */
 	public User getUser() {
+		return await(getUserAsync());
+	}
+
+	/**
+	 * Retrieve a user by their personal access token without blocking.
+	 * @return A future that completes with the GitHub User
+	 * @see #getUser()
+	 */
+	public CompletableFuture<User> getUserAsync() {
 		var httpRequest = requestBuilder("/user").GET().build();
-		return performRequest(httpRequest, User.class);
+		return performRequestAsync(httpRequest, User.class);
 	}
 
 	/**
@@ -90,14 +159,25 @@ public class GitHubApi {
 	 * @param release The contents of the release
 	 */
 	public void createRelease(Repository repository, Release release) {
+		await(createReleaseAsync(repository, release));
+	}
+
+	/**
+	 * Create a release with no binary attachments without blocking.
+	 * @param repository The repository owner/name
+	 * @param release The contents of the release
+	 * @return A future that completes when the release is created
+	 * @see #createRelease(Repository, Release)
+	 */
+	public CompletableFuture<Void> createReleaseAsync(Repository repository, Release release) {
 		var uri = "/repos/%s/%s/releases".formatted(repository.owner(), repository.name());
 		// @formatter:off
 		var httpRequest = requestBuilder(uri)
 			.header("Content-Type", "application/json")
-			.POST(bodyValue(release))
+			.POST(Json.bodyPublisher(release))
 			.build();
 		// @formatter:on
-		performRequest(httpRequest, Void.class);
+		return performRequestAsync(httpRequest, Void.class);
 	}
 
 	/**
@@ -106,55 +186,104 @@ public class GitHubApi {
 	 * @param milestone The milestone containing a title and due date
 	 */
 	public Milestone createMilestone(Repository repository, Milestone milestone) {
+		return await(createMilestoneAsync(repository, milestone));
+	}
+
+	/**
+	 * Create a milestone without blocking.
+	 * @param repository The repository owner/name
+	 * @param milestone The milestone containing a title and due date
+	 * @return A future that completes with the created milestone, or null if the
+	 * milestone could not be created
+	 * @see #createMilestone(Repository, Milestone)
+	 */
+	public CompletableFuture<Milestone> createMilestoneAsync(Repository repository, Milestone milestone) {
 		var uri = "/repos/%s/%s/milestones".formatted(repository.owner(), repository.name());
 		// @formatter:off
 		var httpRequest = requestBuilder(uri)
 			.header("Content-Type", "application/json")
-			.POST(bodyValue(milestone))
+			.POST(Json.bodyPublisher(milestone))
 			.build();
 		// @formatter:on
-		try {
-			return performRequest(httpRequest, Milestone.class);
-		}
-		catch (HttpClientException ex) {
-			if (ex.getStatusCode() == 422) {
-				LOGGER.warning("Unable to create milestone %s: response=%s".formatted(milestone.title(),
-						ex.getResponseBody()));
-				return null;
-			}
-			else {
-				throw ex;
-			}
-		}
+		return warnIfUnprocessable(performRequestAsync(httpRequest, Milestone.class), milestone)
+			.thenApply((created) -> {
+				if (created != null) {
+					updateMilestoneIndex(repository, (milestoneIndex) -> milestoneIndex.add(created));
+				}
+				return created;
+			});
 	}
 
 	/**
-	 * Get the first 100 open milestones of a repository.
+	 * Get all open milestones of a repository.
+	 * <p>
+	 * The milestones of a repository are fetched once and then kept in an index by this
+	 * instance, which is updated as milestones are created and closed through it. When
+	 * the first page of milestones links to the last page, the remaining pages are
+	 * fetched concurrently (see {@link #setMaxConcurrentPages(int)}) and merged in order.
 	 * @param repository The repository owner/name
-	 * @return A list of the first 100 milestones for the repository
+	 * @return A list of all open milestones for the repository, sorted by due date
 	 */
 	public List<Milestone> getMilestones(Repository repository) {
+		return await(getMilestonesAsync(repository));
+	}
+
+	/**
+	 * Get all open milestones of a repository without blocking.
+	 * @param repository The repository owner/name
+	 * @return A future that completes with a list of all open milestones for the
+	 * repository, sorted by due date
+	 * @see #getMilestones(Repository)
+	 */
+	public CompletableFuture<List<Milestone>> getMilestonesAsync(Repository repository) {
+		return milestoneIndex(repository).thenApply((milestoneIndex) -> new ArrayList<>(milestoneIndex.milestones()));
+	}
+
+	/**
+	 * Stream all open milestones of a repository, sorted by due date (milestones without
+	 * a due date are last).
+	 * <p>
+	 * Pages of 100 milestones are fetched lazily by following the {@code Link} header of
+	 * each response, and the next page is requested in the background while the current
+	 * page is being consumed. A short-circuiting operation such as
+	 * {@link Stream#findFirst()} therefore stops fetching pages once a match is found.
+	 * The stream should be closed to cancel any page that is still being prefetched. Once
+	 * the milestones of the repository have been indexed (see
+	 * {@link #getMilestones(Repository)}), they are streamed from the index instead.
+	 * @param repository The repository owner/name
+	 * @return A lazily populated stream of open milestones for the repository
+	 */
+	public Stream<Milestone> streamMilestones(Repository repository) {
+		var milestoneIndex = this.milestoneIndexes.get(repository);
+		if (milestoneIndex != null && milestoneIndex.isDone() && !milestoneIndex.isCompletedExceptionally()) {
+			return milestoneIndex.join().milestones().stream();
+		}
 		var uri = "/repos/%s/%s/milestones?per_page=100".formatted(repository.owner(), repository.name());
-		var httpRequest = requestBuilder(uri).GET().build();
-		return new ArrayList<>(Arrays.asList(performRequest(httpRequest, Milestone[].class)));
+		var pages = new PageIterator<>(requestBuilder(uri).GET().build(), Milestone.class);
+		var spliterator = Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(pages::cancel);
 	}
 
 	/**
-	 * Find an open milestone by milestone title.
+	 * Find an open milestone by milestone title. The milestone is looked up in the index
+	 * of milestones of the repository (see {@link #getMilestones(Repository)}).
 	 * @param repository The repository owner/name
 	 * @param title The milestone title
-	 * @return The milestone, or null if not found within the first 100 milestones
+	 * @return The milestone, or null if not found
 	 */
 	public Milestone getMilestone(Repository repository, String title) {
-		var uri = "/repos/%s/%s/milestones?per_page=100".formatted(repository.owner(), repository.name());
-		var httpRequest = requestBuilder(uri).GET().build();
-		var milestones = performRequest(httpRequest, Milestone[].class);
-		for (var m : milestones) {
-			if (m.title().equals(title)) {
-				return m;
-			}
-		}
-		return null;
+		return await(getMilestoneAsync(repository, title));
+	}
+
+	/**
+	 * Find an open milestone by milestone title without blocking.
+	 * @param repository The repository owner/name
+	 * @param title The milestone title
+	 * @return A future that completes with the milestone, or null if not found
+	 * @see #getMilestone(Repository, String)
+	 */
+	public CompletableFuture<Milestone> getMilestoneAsync(Repository repository, String title) {
+		return milestoneIndex(repository).thenApply((milestoneIndex) -> milestoneIndex.byTitle(title));
 	}
 
 	/**
@@ -163,10 +292,22 @@ public class GitHubApi {
 	 * @param milestone The milestone number
 	 */
 	public void closeMilestone(Repository repository, Long milestone) {
+		await(closeMilestoneAsync(repository, milestone));
+	}
+
+	/**
+	 * Close a milestone without blocking.
+	 * @param repository The repository owner/name
+	 * @param milestone The milestone number
+	 * @return A future that completes when the milestone is closed
+	 * @see #closeMilestone(Repository, Long)
+	 */
+	public CompletableFuture<Void> closeMilestoneAsync(Repository repository, Long milestone) {
 		var uri = "/repos/%s/%s/milestones/%s".formatted(repository.owner(), repository.name(), milestone);
 		var request = Map.of("state", "closed");
-		var httpRequest = requestBuilder(uri).method("PATCH", bodyValue(request)).build();
-		performRequest(httpRequest, Void.class);
+		var httpRequest = requestBuilder(uri).method("PATCH", Json.bodyPublisher(request)).build();
+		return performRequestAsync(httpRequest, Void.class)
+			.thenRun(() -> updateMilestoneIndex(repository, (milestoneIndex) -> milestoneIndex.remove(milestone)));
 	}
 
 	/**
@@ -176,38 +317,99 @@ public class GitHubApi {
 	 * @return true if the milestone has open issues, false otherwise
 	 */
 	public boolean hasOpenIssues(Repository repository, Long milestone) {
+		return await(hasOpenIssuesAsync(repository, milestone));
+	}
+
+	/**
+	 * Determine if a milestone has open issues without blocking.
+	 * @param repository The repository owner/name
+	 * @param milestone The milestone number
+	 * @return A future that completes with true if the milestone has open issues, false
+	 * otherwise
+	 * @see #hasOpenIssues(Repository, Long)
+	 */
+	public CompletableFuture<Boolean> hasOpenIssuesAsync(Repository repository, Long milestone) {
+		var milestoneIndex = this.milestoneIndexes.get(repository);
+		if (milestoneIndex != null && milestoneIndex.isDone() && !milestoneIndex.isCompletedExceptionally()) {
+			var openIssues = milestoneIndex.join().openIssues(milestone);
+			if (openIssues != null) {
+				return CompletableFuture.completedFuture(openIssues > 0);
+			}
+		}
 		var uri = "/repos/%s/%s/issues?per_page=1&milestone=%s".formatted(repository.owner(), repository.name(),
 				milestone);
 		var httpRequest = requestBuilder(uri).GET().build();
-		var issues = performRequest(httpRequest, Issue[].class);
-		return (issues.length > 0);
+		return performRequestAsync(httpRequest, Issue[].class).thenApply((issues) -> issues.length > 0);
 	}
 
 	public Issue createReleaseIssue(Repository repository, Milestone milestone) {
+		return await(createReleaseIssueAsync(repository, milestone));
+	}
+
+	public CompletableFuture<Issue> createReleaseIssueAsync(Repository repository, Milestone milestone) {
 		var uri = "/repos/%s/%s/issues".formatted(repository.owner(), repository.name());
 		Map<String, Object> releaseIssue = Map.of("title", "Release " + milestone.title(), "milestone",
 				milestone.number(), "labels", List.of("in: build", "type: dependency-upgrade"));
-		var httpRequest = requestBuilder(uri).POST(bodyValue(releaseIssue)).build();
-		try {
-			return performRequest(httpRequest, Issue.class);
-		}
-		catch (HttpClientException ex) {
-			if (ex.getStatusCode() == 422) {
+		var httpRequest = requestBuilder(uri).POST(Json.bodyPublisher(releaseIssue)).build();
+		return warnIfUnprocessable(performRequestAsync(httpRequest, Issue.class), milestone).thenApply((issue) -> {
+			if (issue != null) {
+				updateMilestoneIndex(repository, (milestoneIndex) -> milestoneIndex.addOpenIssue(milestone.number()));
+			}
+			return issue;
+		});
+	}
+
+	/**
+	 * Return the index of the open milestones of a repository, loading it on first use.
+	 */
+	CompletableFuture<MilestoneIndex> milestoneIndex(Repository repository) {
+		var milestoneIndex = this.milestoneIndexes.computeIfAbsent(repository, this::loadMilestoneIndex);
+		// Forget a failed load so that it is retried
+		milestoneIndex.whenComplete((result, ex) -> {
+			if (ex != null) {
+				this.milestoneIndexes.remove(repository, milestoneIndex);
+			}
+		});
+		return milestoneIndex;
+	}
+
+	/**
+	 * Load the index of the open milestones of a repository.
+	 */
+	CompletableFuture<MilestoneIndex> loadMilestoneIndex(Repository repository) {
+		var uri = "/repos/%s/%s/milestones?per_page=100".formatted(repository.owner(), repository.name());
+		return getAllPagesAsync(requestBuilder(uri).GET().build(), Milestone.class)
+			.thenApply((milestones) -> new MilestoneIndex(milestones, Map.of()));
+	}
+
+	private void updateMilestoneIndex(Repository repository, UnaryOperator<MilestoneIndex> update) {
+		this.milestoneIndexes.computeIfPresent(repository, (key, milestoneIndex) -> milestoneIndex.thenApply(update));
+	}
+
+	private static <T> CompletableFuture<T> warnIfUnprocessable(CompletableFuture<T> future, Milestone milestone) {
+		return future.exceptionally((ex) -> {
+			var cause = (ex instanceof CompletionException) ? ex.getCause() : ex;
+			if (cause instanceof HttpClientException httpClientException
+					&& httpClientException.getStatusCode() == 422) {
 				LOGGER.warning("Unable to create milestone %s: response=%s".formatted(milestone.title(),
-						ex.getResponseBody()));
+						httpClientException.getResponseBody()));
 				return null;
 			}
-			else {
-				throw ex;
-			}
-		}
+			throw (ex instanceof CompletionException completionException) ? completionException
+					: new CompletionException(ex);
+		});
+	}
+
+	HttpRequest.Builder requestBuilder(String uri) {
+		return requestBuilder(URI.create(getBaseUrl() + uri).normalize());
 	}
 
-	private HttpRequest.Builder requestBuilder(String uri) {
+	HttpRequest.Builder requestBuilder(URI uri) {
 		// @formatter:off
 		HttpRequest.Builder builder = HttpRequest.newBuilder()
-			.uri(URI.create(this.baseUrl + uri).normalize())
+			.uri(uri)
 			.header("Accept", "application/json")
+			.header("Accept-Encoding", ContentEncoding.ACCEPT_ENCODING)
 			.header("X-GitHub-Api-Version", "2022-11-28");
 		// @formatter:on
 		if (this.accessToken != null) {
@@ -216,52 +418,263 @@ public class GitHubApi {
 		return builder;
 	}
 
-	private <T> T performRequest(HttpRequest httpRequest, Class<T> responseType) {
-		try {
-			var httpResponse = this.httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-			if (httpResponse.statusCode() >= 300) {
-				throw new HttpClientException(httpResponse.statusCode(), httpResponse.body());
+	<T> T performRequest(HttpRequest httpRequest, Class<T> responseType) {
+		return await(performRequestAsync(httpRequest, responseType));
+	}
+
+	private <T> CompletableFuture<List<T>> getAllPagesAsync(HttpRequest firstPage, Class<T> elementType) {
+		return sendAsync(firstPage).thenComposeAsync((httpResponse) -> {
+			var results = readPage(httpResponse, elementType);
+			var lastUri = findLink(httpResponse, "last");
+			if (lastUri == null) {
+				// Page count is unknown, so fall back to following each next link
+				var nextUri = findLink(httpResponse, "next");
+				return (nextUri != null) ? followNextAsync(nextUri, elementType, results)
+						: CompletableFuture.completedFuture(results);
 			}
-			String responseBody = Void.class.isAssignableFrom(responseType) ? "null" : httpResponse.body();
-			return this.objectMapper.readValue(responseBody, responseType);
+
+			// Requests share a single HTTP/2 connection, limited to a number of
+			// in-flight pages to stay clear of secondary rate limits
+			var firstPageNumber = pageNumber(firstPage.uri());
+			var pages = new AtomicReferenceArray<List<T>>(pageNumber(lastUri) - firstPageNumber);
+			var nextPage = new AtomicInteger(firstPageNumber + 1);
+			var workers = new CompletableFuture<?>[Math.min(this.maxConcurrentPages, pages.length())];
+			for (var i = 0; i < workers.length; i++) {
+				workers[i] = fetchPagesAsync(lastUri, elementType, nextPage, firstPageNumber, pages);
+			}
+			return CompletableFuture.allOf(workers).thenApply((done) -> {
+				for (var i = 0; i < pages.length(); i++) {
+					results.addAll(pages.get(i));
+				}
+				return results;
+			});
+		}, getParseExecutor());
+	}
+
+	/**
+	 * Fetch pages one at a time until all pages up to the last page have been claimed.
+	 * Several of these run at the same time to bound the number of in-flight requests.
+	 */
+	private <T> CompletableFuture<Void> fetchPagesAsync(URI lastUri, Class<T> elementType, AtomicInteger nextPage,
+			int firstPageNumber, AtomicReferenceArray<List<T>> pages) {
+		var page = nextPage.getAndIncrement();
+		if (page - firstPageNumber > pages.length()) {
+			return CompletableFuture.completedFuture(null);
 		}
-		catch (IOException | InterruptedException ex) {
-			throw new RuntimeException("Unable to perform request:", ex);
+		var httpRequest = requestBuilder(withPageNumber(lastUri, page)).GET().build();
+		return sendAsync(httpRequest).thenComposeAsync((httpResponse) -> {
+			pages.set(page - firstPageNumber - 1, readPage(httpResponse, elementType));
+			return fetchPagesAsync(lastUri, elementType, nextPage, firstPageNumber, pages);
+		}, getParseExecutor());
+	}
+
+	private <T> CompletableFuture<List<T>> followNextAsync(URI uri, Class<T> elementType, List<T> results) {
+		return sendAsync(requestBuilder(uri).GET().build()).thenComposeAsync((httpResponse) -> {
+			results.addAll(readPage(httpResponse, elementType));
+			var nextUri = findLink(httpResponse, "next");
+			return (nextUri != null) ? followNextAsync(nextUri, elementType, results)
+					: CompletableFuture.completedFuture(results);
+		}, getParseExecutor());
+	}
+
+	@Override
+	protected void addInterceptors(List<Interceptor> interceptors) {
+		if (this.responseCache != null) {
+			interceptors.add(new ResponseCacheInterceptor(this.responseCache));
 		}
+		interceptors.add(new RateLimitInterceptor(this.rateLimiter, getMetrics()));
 	}
 
-	private <T> HttpRequest.BodyPublisher bodyValue(T body) {
-		try {
-			return HttpRequest.BodyPublishers.ofString(this.objectMapper.writeValueAsString(body));
+	/**
+	 * Return the URI template of the endpoint of a request, e.g.
+	 * {@code /repos/{owner}/{repo}/milestones/{number}}.
+	 */
+	@Override
+	protected String endpoint(HttpRequest httpRequest) {
+		var path = httpRequest.uri().getPath();
+		var basePath = URI.create(getBaseUrl()).getPath().replaceAll("/$", "");
+		if (!basePath.isEmpty() && path.startsWith(basePath)) {
+			path = path.substring(basePath.length());
 		}
-		catch (JsonProcessingException ex) {
-			throw new RuntimeException("Unable to serialize json:", ex);
+		path = REPOSITORY_PATH_PATTERN.matcher(path).replaceFirst("/repos/{owner}/{repo}");
+		return NUMBER_PATH_PATTERN.matcher(path).replaceAll("/{number}");
+	}
+
+	@Override
+	protected HttpClientException createException(int statusCode, String responseBody) {
+		return new HttpClientException(statusCode, responseBody);
+	}
+
+	/**
+	 * Parse the elements of a JSON array response one at a time, without buffering the
+	 * response body.
+	 */
+	private <T> List<T> readPage(HttpResponse<InputStream> httpResponse, Class<T> elementType) {
+		try (var body = body(httpResponse)) {
+			var page = new ArrayList<T>();
+			try (MappingIterator<T> elements = Json.reader(elementType).readValues(body)) {
+				while (elements.hasNextValue()) {
+					page.add(elements.nextValue());
+				}
+			}
+			body.transferTo(OutputStream.nullOutputStream());
+			return page;
+		}
+		catch (IOException ex) {
+			throw new RuntimeException("Unable to perform request:", ex);
 		}
 	}
 
-	public static class HttpClientException extends RuntimeException {
+	/**
+	 * Close the body of a prefetched page when it arrives, reading the rest of it first
+	 * so that its connection can be reused. The page is not cancelled, since cancelling
+	 * a dependent stage does not abort the exchange and would skip closing the body.
+	 */
+	private void discard(CompletableFuture<HttpResponse<InputStream>> page) {
+		if (page != null) {
+			page.whenCompleteAsync((httpResponse, failure) -> {
+				if (httpResponse != null) {
+					try (var body = httpResponse.body()) {
+						body.transferTo(OutputStream.nullOutputStream());
+					}
+					catch (IOException ex) {
+						// Ignore, the connection is not reused
+					}
+				}
+			}, getParseExecutor());
+		}
+	}
 
-		private final int statusCode;
+	private static int pageNumber(URI uri) {
+		var matcher = PAGE_PATTERN.matcher(uri.toString());
+		return matcher.find() ? Integer.parseInt(matcher.group(2)) : 1;
+	}
 
-		private final String responseBody;
+	private static URI withPageNumber(URI uri, int page) {
+		var matcher = PAGE_PATTERN.matcher(uri.toString());
+		return URI.create(matcher.replaceFirst("$1" + page));
+	}
 
-		private HttpClientException(int statusCode, String responseBody) {
-			super(statusCode + "[" + responseBody + "]");
-			this.statusCode = statusCode;
-			this.responseBody = responseBody;
+	private static URI findLink(HttpResponse<?> httpResponse, String rel) {
+		for (var link : httpResponse.headers().allValues("Link")) {
+			var matcher = LINK_PATTERN.matcher(link);
+			while (matcher.find()) {
+				if (matcher.group(2).equals(rel)) {
+					return URI.create(matcher.group(1));
+				}
+			}
 		}
+		return null;
+	}
+
+	/**
+	 * Iterates over the elements of a paginated resource, following the
+	 * {@code rel="next"} link of each page and prefetching the next page while the
+	 * current page is consumed. Elements are parsed one at a time as the response body is
+	 * read.
+	 *
+	 * @param <T> The element type
+	 */
+	private final class PageIterator<T> implements Iterator<T> {
 
-		public int getStatusCode() {
-			return this.statusCode;
+		private final Class<T> elementType;
+
+		private HttpRequest firstPage;
+
+		private CompletableFuture<HttpResponse<InputStream>> nextPage;
+
+		private InputStream body;
+
+		private MappingIterator<T> elements;
+
+		private PageIterator(HttpRequest firstPage, Class<T> elementType) {
+			this.firstPage = firstPage;
+			this.elementType = elementType;
 		}
 
-		public String getResponseBody() {
-			return this.responseBody;
+		@Override
+		public boolean hasNext() {
+			try {
+				while (this.elements == null || !this.elements.hasNextValue()) {
+					if (this.body != null) {
+						this.body.transferTo(OutputStream.nullOutputStream());
+						closePage();
+					}
+					if (this.firstPage != null) {
+						this.nextPage = sendAsync(this.firstPage);
+						this.firstPage = null;
+					}
+					if (this.nextPage == null) {
+						return false;
+					}
+					var httpResponse = awaitNextPage();
+					var nextUri = (httpResponse.statusCode() < 300) ? findLink(httpResponse, "next") : null;
+					this.nextPage = (nextUri != null) ? sendAsync(requestBuilder(nextUri).GET().build()) : null;
+					this.body = body(httpResponse);
+					this.elements = Json.reader(this.elementType).readValues(this.body);
+				}
+				return true;
+			}
+			catch (IOException ex) {
+				cancel();
+				throw new RuntimeException("Unable to perform request:", ex);
+			}
 		}
 
 		@Override
-		public String toString() {
-			return this.statusCode + "[" + this.responseBody + "]";
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			try {
+				return this.elements.nextValue();
+			}
+			catch (IOException ex) {
+				cancel();
+				throw new RuntimeException("Unable to perform request:", ex);
+			}
+		}
+
+		private void cancel() {
+			this.firstPage = null;
+			discard(this.nextPage);
+			this.nextPage = null;
+			closePage();
+		}
+
+		private void closePage() {
+			if (this.elements != null) {
+				closeQuietly(this.elements);
+				this.elements = null;
+			}
+			if (this.body != null) {
+				closeQuietly(this.body);
+				this.body = null;
+			}
+		}
+
+		private CompletableFuture<HttpResponse<InputStream>> sendAsync(HttpRequest httpRequest) {
+			return GitHubApi.this.sendAsync(httpRequest);
+		}
+
+		private HttpResponse<InputStream> awaitNextPage() {
+			try {
+				return await(this.nextPage);
+			}
+			finally {
+				this.nextPage = null;
+			}
+		}
+
+	}
+
+	/**
+	 * Thrown when the GitHub API responds with an error status.
+	 */
+	public static class HttpClientException extends io.spring.api.http.HttpClientException {
+
+		private HttpClientException(int statusCode, String responseBody) {
+			super(statusCode, responseBody);
 		}
 
 	}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.spring.api.http.HttpClients;
+import io.spring.api.http.Json;
+import io.spring.api.http.RetryPolicy;
+
+/**
+ * A {@link GitHubApi} that reads the open milestones of a repository, including their due
+ * dates and open issue counts, with a single GraphQL query.
+ * <p>
+ * The result of the query is kept for the lifetime of this instance, so answering several
+ * questions about the milestones of a repository (e.g. the next release milestone,
+ * whether it has open issues and whether it is due today) costs one round trip.
+ * Milestones created or closed through this instance are reflected in the retained
+ * result, but changes made by others are not, so an instance should not outlive the
+ * task or build that uses it. All other operations use the REST API. The GraphQL API
+ * requires an access token.
+ * <p>
+ * The GraphQL endpoint is derived from the base URL of the REST API:
+ * {@code https://api.github.com/graphql} for GitHub.com, and
+ * {@code https://[hostname]/api/graphql} for a GitHub Enterprise Server whose REST API
+ * is at {@code https://[hostname]/api/v3}. The queries are read-only, so they are sent
+ * with an {@value RetryPolicy#IDEMPOTENCY_KEY_HEADER} header and retried like
+ * {@code GET} requests.
+ *
+ * @see <a href="https://docs.github.com/en/graphql">GitHub GraphQL API</a>
+ */
+public class GitHubGraphQlApi extends GitHubApi {
+
+	// @formatter:off
+	private static final String MILESTONES_QUERY = """
+			query($owner: String!, $name: String!, $cursor: String) {
+				repository(owner: $owner, name: $name) {
+					milestones(first: 100, after: $cursor, states: OPEN, orderBy: {field: DUE_DATE, direction: ASC}) {
+						nodes {
+							number
+							title
+							dueOn
+							openIssues: issues(states: OPEN) { totalCount }
+							openPullRequests: pullRequests(states: OPEN) { totalCount }
+						}
+						pageInfo { hasNextPage endCursor }
+					}
+				}
+			}
+			""";
+	// @formatter:on
+
+	private static final Comparator<Milestone> DUE_ON_COMPARATOR = Comparator.comparing(Milestone::dueOn,
+			Comparator.nullsLast(Comparator.naturalOrder()));
+
+	private static final String ENTERPRISE_REST_PATH = "/api/v3";
+
+	private final URI graphQlUrl;
+
+	/**
+	 * @param accessToken The access token for the GitHub API
+	 */
+	public GitHubGraphQlApi(String accessToken) {
+		this("https://api.github.com", accessToken);
+	}
+
+	/**
+	 * @param baseUrl The base URL of the GitHub API (for testing)
+	 * @param accessToken The access token for the GitHub API
+	 */
+	public GitHubGraphQlApi(String baseUrl, String accessToken) {
+		this(HttpClients.shared(), baseUrl, accessToken);
+	}
+
+	/**
+	 * @param httpClient The HTTP client used to send requests
+	 * @param baseUrl The base URL of the GitHub API
+	 * @param accessToken The access token for the GitHub API
+	 */
+	public GitHubGraphQlApi(HttpClient httpClient, String baseUrl, String accessToken) {
+		this(httpClient, baseUrl, graphQlUrl(baseUrl), accessToken);
+	}
+
+	/**
+	 * @param httpClient The HTTP client used to send requests
+	 * @param baseUrl The base URL of the GitHub REST API
+	 * @param graphQlUrl The URL of the GitHub GraphQL API
+	 * @param accessToken The access token for the GitHub API
+	 */
+	public GitHubGraphQlApi(HttpClient httpClient, String baseUrl, String graphQlUrl, String accessToken) {
+		super(httpClient, baseUrl, accessToken);
+		this.graphQlUrl = URI.create(graphQlUrl);
+	}
+
+	/**
+	 * Derive the URL of the GraphQL API from the base URL of the REST API.
+	 * @param baseUrl The base URL of the GitHub REST API
+	 * @return The URL of the GitHub GraphQL API
+	 */
+	static String graphQlUrl(String baseUrl) {
+		var url = baseUrl.replaceAll("/+$", "");
+		if (url.endsWith(ENTERPRISE_REST_PATH)) {
+			return url.substring(0, url.length() - ENTERPRISE_REST_PATH.length()) + "/api/graphql";
+		}
+		return url + "/graphql";
+	}
+
+	@Override
+	public Stream<Milestone> streamMilestones(Repository repository) {
+		return await(milestoneIndex(repository)).milestones().stream();
+	}
+
+	@Override
+	public CompletableFuture<Boolean> hasOpenIssuesAsync(Repository repository, Long milestone) {
+		// Answered from the open issue counts of the milestone index once it is loaded
+		return milestoneIndex(repository)
+			.thenCompose((milestoneIndex) -> super.hasOpenIssuesAsync(repository, milestone));
+	}
+
+	@Override
+	CompletableFuture<MilestoneIndex> loadMilestoneIndex(Repository repository) {
+		return queryMilestones(repository, null, new ArrayList<>(), new HashMap<>());
+	}
+
+	@Override
+	protected String endpoint(HttpRequest httpRequest) {
+		// Report queries under one endpoint, wherever the GraphQL API is hosted
+		return httpRequest.uri().equals(this.graphQlUrl) ? "/graphql" : super.endpoint(httpRequest);
+	}
+
+	private CompletableFuture<MilestoneIndex> queryMilestones(Repository repository, String cursor,
+			List<Milestone> milestones, Map<Long, Integer> openIssues) {
+		var variables = new HashMap<String, Object>();
+		variables.put("owner", repository.owner());
+		variables.put("name", repository.name());
+		variables.put("cursor", cursor);
+		// @formatter:off
+		var httpRequest = requestBuilder(this.graphQlUrl)
+			.header("Content-Type", "application/json")
+			.header(RetryPolicy.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+			.POST(Json.bodyPublisher(new GraphQlRequest(MILESTONES_QUERY, variables)))
+			.build();
+		// @formatter:on
+		return performRequestAsync(httpRequest, GraphQlResponse.class).thenCompose((response) -> {
+			if (response.errors() != null && !response.errors().isEmpty()) {
+				var messages = response.errors().stream().map(GraphQlError::message).collect(Collectors.joining(", "));
+				throw new IllegalStateException("Unable to query milestones of %s/%s: %s".formatted(repository.owner(),
+						repository.name(), messages));
+			}
+			var connection = response.data().repository().milestones();
+			for (var node : connection.nodes()) {
+				milestones.add(new Milestone(node.title(), node.number(), node.dueOn()));
+				openIssues.put(node.number(), node.openIssues().totalCount() + node.openPullRequests().totalCount());
+			}
+			if (connection.pageInfo().hasNextPage()) {
+				return queryMilestones(repository, connection.pageInfo().endCursor(), milestones, openIssues);
+			}
+			milestones.sort(DUE_ON_COMPARATOR);
+			return CompletableFuture.completedFuture(new MilestoneIndex(milestones, openIssues));
+		});
+	}
+
+	private record GraphQlRequest(String query, Map<String, Object> variables) {
+	}
+
+	private record GraphQlResponse(Data data, List<GraphQlError> errors) {
+	}
+
+	private record GraphQlError(String message) {
+	}
+
+	private record Data(RepositoryNode repository) {
+	}
+
+	private record RepositoryNode(MilestoneConnection milestones) {
+	}
+
+	private record MilestoneConnection(List<MilestoneNode> nodes, PageInfo pageInfo) {
+	}
+
+	private record MilestoneNode(Long number, String title, Instant dueOn, Count openIssues, Count openPullRequests) {
+	}
+
+	private record Count(int totalCount) {
+	}
+
+	private record PageInfo(boolean hasNextPage, String endCursor) {
+	}
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * A size-bounded cache of GET responses used to revalidate requests with
+ * {@code If-None-Match}. Entries are kept in memory and, when a directory is provided,
+ * also written to disk so they survive between instances (e.g. separate Gradle tasks in
+ * the same build directory).
+ */
+public class HttpResponseCache {
+
+	private static final Logger LOGGER = Logger.getLogger(HttpResponseCache.class.getName());
+
+	private static final long DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Path directory;
+
+	private final long maxSize;
+
+	private long size;
+
+	/**
+	 * Create an in-memory cache.
+	 * @param maxSize The maximum size (in bytes) of all cached response bodies
+	 */
+	public HttpResponseCache(long maxSize) {
+		this(null, maxSize);
+	}
+
+	/**
+	 * Create a cache backed by a directory with a default maximum size of 16MB.
+	 * @param directory The directory used to store cached responses
+	 */
+	public HttpResponseCache(Path directory) {
+		this(directory, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Create a cache backed by a directory.
+	 * @param directory The directory used to store cached responses, or null to keep
+	 * responses in memory only
+	 * @param maxSize The maximum size (in bytes) of all cached response bodies, both in
+	 * memory and on disk
+	 */
+	public HttpResponseCache(Path directory, long maxSize) {
+		this.directory = directory;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Find a cached response.
+	 * @param key The cache key
+	 * @return The cached response, or null if not found
+	 */
+	public synchronized Entry get(String key) {
+		var entry = this.entries.get(key);
+		if (entry == null && this.directory != null) {
+			entry = read(this.directory.resolve(key));
+			if (entry != null) {
+				putInMemory(key, entry);
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Store a response, evicting the least recently used responses if the cache is full.
+	 * @param key The cache key
+	 * @param entry The response to cache
+	 */
+	public synchronized void put(String key, Entry entry) {
+		if (entry.size() > this.maxSize) {
+			return;
+		}
+		putInMemory(key, entry);
+		if (this.directory != null) {
+			write(this.directory.resolve(key), entry);
+		}
+	}
+
+	private void putInMemory(String key, Entry entry) {
+		var previous = this.entries.put(key, entry);
+		this.size += entry.size() - ((previous != null) ? previous.size() : 0);
+		var iterator = this.entries.values().iterator();
+		while (this.size > this.maxSize && iterator.hasNext()) {
+			this.size -= iterator.next().size();
+			iterator.remove();
+		}
+	}
+
+	private static Entry read(Path file) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try {
+			var contents = Files.readString(file);
+			var etagEnd = contents.indexOf('\n');
+			var linkEnd = contents.indexOf('\n', etagEnd + 1);
+			if (etagEnd < 0 || linkEnd < 0) {
+				return null;
+			}
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			var etag = contents.substring(0, etagEnd);
+			var link = contents.substring(etagEnd + 1, linkEnd);
+			var body = contents.substring(linkEnd + 1);
+			return new Entry(etag, link.isEmpty() ? null : link, body);
+		}
+		catch (IOException ex) {
+			LOGGER.warning("Unable to read cached response %s: %s".formatted(file, ex.getMessage()));
+			return null;
+		}
+	}
+
+	private void write(Path file, Entry entry) {
+		var link = (entry.link() != null) ? entry.link() : "";
+		var contents = "%s\n%s\n%s".formatted(entry.etag(), link, entry.body());
+		try {
+			Files.createDirectories(this.directory);
+			var tempFile = Files.createTempFile(this.directory, "response", ".tmp");
+			Files.writeString(tempFile, contents, StandardCharsets.UTF_8);
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			evictFiles();
+		}
+		catch (IOException ex) {
+			LOGGER.warning("Unable to write cached response %s: %s".formatted(file, ex.getMessage()));
+		}
+	}
+
+	private void evictFiles() throws IOException {
+		try (var files = Files.list(this.directory)) {
+			// Skip other caches kept in subdirectories, such as the logins of access
+			// tokens
+			var cachedFiles = files.filter(Files::isRegularFile)
+				.filter((file) -> !file.getFileName().toString().endsWith(".tmp"))
+				.sorted(Comparator.comparing(HttpResponseCache::lastModified).reversed())
+				.toList();
+			var totalSize = 0L;
+			for (var file : cachedFiles) {
+				totalSize += Files.size(file);
+				if (totalSize > this.maxSize) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+	}
+
+	private static FileTime lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		}
+		catch (IOException ex) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	/**
+	 * A cached response.
+	 *
+	 * @param etag The value of the {@code ETag} header
+	 * @param link The value of the {@code Link} header, or null if not present
+	 * @param body The response body
+	 */
+	public record Entry(String etag, String link, String body) {
+
+		long size() {
+			return this.body.getBytes(StandardCharsets.UTF_8).length;
+		}
+
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * A cache of the GitHub login of access tokens, written to disk so the user of a token is
+ * looked up once instead of by every instance (e.g. each Gradle task of a build). Logins
+ * are stored in files named after a SHA-256 hash of the token, so the token itself is
+ * never written.
+ */
+public class LoginCache {
+
+	private static final Logger LOGGER = Logger.getLogger(LoginCache.class.getName());
+
+	private final Path directory;
+
+	/**
+	 * @param directory The directory used to store logins
+	 */
+	public LoginCache(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Return the login of the user of an access token, retrieving it from GitHub if it is
+	 * not cached yet.
+	 * @param gitHubApi The client authenticated with the access token
+	 * @param accessToken The access token
+	 * @return The login of the user
+	 */
+	public String getLogin(GitHubApi gitHubApi, String accessToken) {
+		var file = this.directory.resolve(hash(accessToken));
+		var login = read(file);
+		if (login == null) {
+			var user = gitHubApi.getUser();
+			login = (user != null) ? user.login() : null;
+			if (login != null) {
+				write(file, login);
+			}
+		}
+		return login;
+	}
+
+	/**
+	 * Return the login of the user of an access token without blocking, retrieving it
+	 * from GitHub if it is not cached yet.
+	 * @param gitHubApi The client authenticated with the access token
+	 * @param accessToken The access token
+	 * @return A future that completes with the login of the user, or null
+	 * @see #getLogin(GitHubApi, String)
+	 */
+	public CompletableFuture<String> getLoginAsync(GitHubApi gitHubApi, String accessToken) {
+		var file = this.directory.resolve(hash(accessToken));
+		return CompletableFuture.supplyAsync(() -> read(file)).thenCompose((login) -> {
+			if (login != null) {
+				return CompletableFuture.completedFuture(login);
+			}
+			return gitHubApi.getUserAsync().thenApply((user) -> {
+				var userLogin = (user != null) ? user.login() : null;
+				if (userLogin != null) {
+					write(file, userLogin);
+				}
+				return userLogin;
+			});
+		});
+	}
+
+	private static String read(Path file) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try {
+			var login = Files.readString(file).trim();
+			return login.isEmpty() ? null : login;
+		}
+		catch (IOException ex) {
+			LOGGER.warning("Unable to read cached login %s: %s".formatted(file, ex.getMessage()));
+			return null;
+		}
+	}
+
+	private void write(Path file, String login) {
+		try {
+			Files.createDirectories(this.directory);
+			var tempFile = Files.createTempFile(this.directory, "login", ".tmp");
+			Files.writeString(tempFile, login, StandardCharsets.UTF_8);
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			LOGGER.warning("Unable to write cached login %s: %s".formatted(file, ex.getMessage()));
+		}
+	}
+
+	private static String hash(String accessToken) {
+		try {
+			var digest = MessageDigest.getInstance("SHA-256").digest(accessToken.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
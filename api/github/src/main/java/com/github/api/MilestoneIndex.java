@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of the open milestones of a repository by title and by number, along
+ * with the number of open issues of each milestone when known.
+ */
+final class MilestoneIndex {
+
+	private final List<Milestone> milestones;
+
+	private final Map<String, Milestone> byTitle;
+
+	private final Map<Long, Milestone> byNumber;
+
+	private final Map<Long, Integer> openIssues;
+
+	/**
+	 * @param milestones The open milestones, sorted by due date
+	 * @param openIssues The number of open issues by milestone number, or an empty map if
+	 * not known
+	 */
+	MilestoneIndex(List<Milestone> milestones, Map<Long, Integer> openIssues) {
+		this.milestones = List.copyOf(milestones);
+		this.byTitle = new HashMap<>();
+		this.byNumber = new HashMap<>();
+		for (var milestone : milestones) {
+			this.byTitle.putIfAbsent(milestone.title(), milestone);
+			this.byNumber.put(milestone.number(), milestone);
+		}
+		this.openIssues = Map.copyOf(openIssues);
+	}
+
+	List<Milestone> milestones() {
+		return this.milestones;
+	}
+
+	Milestone byTitle(String title) {
+		return this.byTitle.get(title);
+	}
+
+	Milestone byNumber(Long number) {
+		return this.byNumber.get(number);
+	}
+
+	/**
+	 * @param number The milestone number
+	 * @return The number of open issues, or null if not known
+	 */
+	Integer openIssues(Long number) {
+		return this.openIssues.get(number);
+	}
+
+	/**
+	 * Return an index that includes a new milestone, which has no open issues.
+	 * @param milestone The milestone to add
+	 * @return A new index
+	 */
+	MilestoneIndex add(Milestone milestone) {
+		var milestones = new ArrayList<>(this.milestones);
+		var position = 0;
+		while (position < milestones.size() && isDueBefore(milestones.get(position), milestone)) {
+			position++;
+		}
+		milestones.add(position, milestone);
+		var openIssues = new HashMap<>(this.openIssues);
+		if (!this.openIssues.isEmpty()) {
+			openIssues.put(milestone.number(), 0);
+		}
+		return new MilestoneIndex(milestones, openIssues);
+	}
+
+	/**
+	 * Return an index without a closed milestone.
+	 * @param number The number of the milestone to remove
+	 * @return A new index
+	 */
+	MilestoneIndex remove(Long number) {
+		if (byNumber(number) == null) {
+			return this;
+		}
+		var milestones = new ArrayList<>(this.milestones);
+		milestones.removeIf((milestone) -> milestone.number().equals(number));
+		var openIssues = new HashMap<>(this.openIssues);
+		openIssues.remove(number);
+		return new MilestoneIndex(milestones, openIssues);
+	}
+
+	/**
+	 * Return an index in which a milestone has one more open issue, if the number of open
+	 * issues is known.
+	 * @param number The milestone number
+	 * @return A new index
+	 */
+	MilestoneIndex addOpenIssue(Long number) {
+		if (!this.openIssues.containsKey(number)) {
+			return this;
+		}
+		var openIssues = new HashMap<>(this.openIssues);
+		openIssues.computeIfPresent(number, (key, count) -> count + 1);
+		return new MilestoneIndex(this.milestones, openIssues);
+	}
+
+	private static boolean isDueBefore(Milestone existing, Milestone milestone) {
+		if (existing.dueOn() == null) {
+			return false;
+		}
+		return milestone.dueOn() == null || !existing.dueOn().isAfter(milestone.dueOn());
+	}
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.time.Instant;
+
+/**
+ * A snapshot of the GitHub rate limit, as reported by the {@code X-RateLimit-*} headers
+ * of the most recent response.
+ *
+ * @param limit The maximum number of requests per window
+ * @param remaining The number of requests remaining in the current window
+ * @param reset The time at which the current window resets
+ */
+public record RateLimit(long limit, long remaining, Instant reset) {
+}
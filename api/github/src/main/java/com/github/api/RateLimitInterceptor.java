@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import io.spring.api.http.Exchange;
+import io.spring.api.http.HttpClientMetrics;
+import io.spring.api.http.Interceptor;
+import io.spring.api.http.Transport;
+
+/**
+ * Delays each request as needed by a {@link RateLimiter}, and updates it from the headers
+ * of each response.
+ * <p>
+ * A request rejected by the rate limit is not sent again here: the
+ * {@link io.spring.api.http.RetryPolicy} applied before this interceptor resends it,
+ * and the resent request then waits here until the rate limit resets. Resends are
+ * therefore bounded by the retry policy alone.
+ */
+final class RateLimitInterceptor implements Interceptor {
+
+	private static final Logger LOGGER = Logger.getLogger(GitHubApi.class.getName());
+
+	private final RateLimiter rateLimiter;
+
+	private final HttpClientMetrics metrics;
+
+	RateLimitInterceptor(RateLimiter rateLimiter, HttpClientMetrics metrics) {
+		this.rateLimiter = rateLimiter;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public CompletableFuture<HttpResponse<InputStream>> intercept(HttpRequest httpRequest, Exchange exchange,
+			Transport next) {
+		var delay = this.rateLimiter.reserve();
+		var permit = CompletableFuture.<Void>completedFuture(null);
+		if (!delay.isZero()) {
+			LOGGER.info("Waiting %ss for the GitHub rate limit before %s %s".formatted(delay.toSeconds(),
+					httpRequest.method(), httpRequest.uri()));
+			var executor = CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS);
+			permit = CompletableFuture.runAsync(() -> {
+			}, executor);
+		}
+		return permit.thenCompose((ready) -> next.sendAsync(httpRequest, exchange)).thenApply((httpResponse) -> {
+			this.rateLimiter.update(httpResponse.headers());
+			var rateLimit = this.rateLimiter.getRateLimit();
+			if (rateLimit != null) {
+				this.metrics.gauge("github.rateLimit.remaining", rateLimit.remaining());
+			}
+			return httpResponse;
+		});
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.net.http.HttpHeaders;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.OptionalLong;
+
+/**
+ * Paces requests to stay within the GitHub rate limit, using the budget reported by the
+ * {@code X-RateLimit-*} and {@code Retry-After} headers of each response.
+ * <p>
+ * Requests are sent without delay while more than 10% of the budget remains. Below that,
+ * the remaining requests are spread evenly over the time left until the budget resets.
+ * Once the server asks to back off with {@code Retry-After}, requests wait until then.
+ * Once the budget is used up, requests wait until the reset time and are then released
+ * one at a time, at the rate that spends a full budget over a one hour window, so that
+ * they do not all arrive together at the start of the next window.
+ * <p>
+ * Responses may complete out of order, so the budget is only updated from a response
+ * that reports a later reset time, or fewer remaining requests for the same reset time.
+ *
+ * @see <a href=
+ * "https://docs.github.com/en/rest/using-the-rest-api/rate-limits-for-the-rest-api">Rate
+ * limits for the REST API</a>
+ */
+class RateLimiter {
+
+	private static final int PACING_THRESHOLD_PERCENT = 10;
+
+	private static final Duration WINDOW = Duration.ofHours(1);
+
+	private final Clock clock;
+
+	private long limit = -1;
+
+	private long remaining = -1;
+
+	private Instant reset;
+
+	private Instant retryAfter;
+
+	private Instant nextPermit = Instant.MIN;
+
+	private long waitingForReset;
+
+	RateLimiter() {
+		this(Clock.systemUTC());
+	}
+
+	RateLimiter(Clock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Reserve a request from the remaining budget.
+	 * @return The delay before the request can be sent
+	 */
+	synchronized Duration reserve() {
+		var now = this.clock.instant();
+		if (this.retryAfter != null && this.retryAfter.isAfter(now)) {
+			return Duration.between(now, this.retryAfter);
+		}
+		if (this.remaining < 0 || this.reset == null) {
+			return Duration.ZERO;
+		}
+		if (!this.reset.isAfter(now)) {
+			// The budget has been restored, but is unknown until the next response
+			this.remaining = -1;
+			this.reset = null;
+			this.waitingForReset = 0;
+			return Duration.ZERO;
+		}
+		if (this.remaining == 0) {
+			var interval = WINDOW.dividedBy(Math.max(this.limit, 1));
+			var permit = this.reset.plus(interval.multipliedBy(this.waitingForReset++));
+			return Duration.between(now, permit);
+		}
+		this.remaining--;
+		if (this.remaining * 100 >= this.limit * PACING_THRESHOLD_PERCENT) {
+			return Duration.ZERO;
+		}
+		var interval = Duration.between(now, this.reset).dividedBy(this.remaining + 1);
+		var permit = this.nextPermit.isAfter(now) ? this.nextPermit : now;
+		this.nextPermit = permit.plus(interval);
+		return Duration.between(now, permit);
+	}
+
+	/**
+	 * Update the remaining budget from the headers of a response.
+	 * @param headers The response headers
+	 */
+	synchronized void update(HttpHeaders headers) {
+		var limit = headers.firstValueAsLong("X-RateLimit-Limit");
+		var remaining = headers.firstValueAsLong("X-RateLimit-Remaining");
+		var reset = headers.firstValueAsLong("X-RateLimit-Reset");
+		if (limit.isPresent() && remaining.isPresent() && reset.isPresent()) {
+			var resetTime = Instant.ofEpochSecond(reset.getAsLong());
+			if (isNewer(resetTime, remaining.getAsLong())) {
+				if (!resetTime.equals(this.reset)) {
+					this.waitingForReset = 0;
+				}
+				this.limit = limit.getAsLong();
+				this.remaining = remaining.getAsLong();
+				this.reset = resetTime;
+			}
+		}
+		var retryAfter = retryAfter(headers);
+		if (retryAfter.isPresent()) {
+			this.retryAfter = this.clock.instant().plusSeconds(retryAfter.getAsLong());
+		}
+	}
+
+	/**
+	 * Return the most recently reported budget.
+	 * @return The current rate limit, or null if no response has reported it yet
+	 */
+	synchronized RateLimit getRateLimit() {
+		return (this.reset != null) ? new RateLimit(this.limit, this.remaining, this.reset) : null;
+	}
+
+	/**
+	 * Determine if a reported budget is more recent than the current one.
+	 * @param reset The reported reset time
+	 * @param remaining The reported remaining budget
+	 * @return true if the budget should be updated
+	 */
+	private boolean isNewer(Instant reset, long remaining) {
+		if (this.reset == null || reset.isAfter(this.reset)) {
+			return true;
+		}
+		return reset.equals(this.reset) && remaining < this.remaining;
+	}
+
+	private static OptionalLong retryAfter(HttpHeaders headers) {
+		try {
+			return headers.firstValueAsLong("Retry-After");
+		}
+		catch (NumberFormatException ex) {
+			// An HTTP date is not used by GitHub
+			return OptionalLong.empty();
+		}
+	}
+
+}
@@ -16,8 +16,10 @@
 
 package com.github.api;
 
+import java.io.Serializable;
+
 /**
  * @author Steve Riesenberg
  */
-public record Repository(String owner, String name) {
+public record Repository(String owner, String name) implements Serializable {
 }
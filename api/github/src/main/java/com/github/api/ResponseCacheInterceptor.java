@@ -0,0 +1,190 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import io.spring.api.http.EndpointMetrics;
+import io.spring.api.http.Exchange;
+import io.spring.api.http.Interceptor;
+import io.spring.api.http.StreamingHttpResponse;
+import io.spring.api.http.Transport;
+
+/**
+ * Revalidates {@code GET} requests with the {@code ETag} of a response in an
+ * {@link HttpResponseCache}, answering a {@code 304 Not Modified} response with the
+ * cached body, and caches each {@code 200} response with an {@code ETag} as its body is
+ * read.
+ */
+final class ResponseCacheInterceptor implements Interceptor {
+
+	private final HttpResponseCache responseCache;
+
+	ResponseCacheInterceptor(HttpResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+
+	@Override
+	public CompletableFuture<HttpResponse<InputStream>> intercept(HttpRequest httpRequest, Exchange exchange,
+			Transport next) {
+		if (!httpRequest.method().equals("GET")) {
+			return next.sendAsync(httpRequest, exchange);
+		}
+
+		var cacheKey = cacheKey(httpRequest);
+		var cachedResponse = this.responseCache.get(cacheKey);
+		if (cachedResponse != null) {
+			// @formatter:off
+			httpRequest = HttpRequest.newBuilder(httpRequest, (name, value) -> true)
+				.header("If-None-Match", cachedResponse.etag())
+				.build();
+			// @formatter:on
+		}
+		var endpointMetrics = exchange.getAttribute(EndpointMetrics.class);
+		return next.sendAsync(httpRequest, exchange).thenApply((httpResponse) -> {
+			if (httpResponse.statusCode() == 304 && cachedResponse != null) {
+				if (endpointMetrics != null) {
+					endpointMetrics.recordCacheHit();
+				}
+				closeQuietly(httpResponse.body());
+				var body = new ByteArrayInputStream(cachedResponse.body().getBytes(StandardCharsets.UTF_8));
+				return new StreamingHttpResponse(httpResponse, 200, cachedHeaders(cachedResponse), body);
+			}
+			if (endpointMetrics != null) {
+				endpointMetrics.recordCacheMiss();
+			}
+			var etag = httpResponse.headers().firstValue("ETag");
+			if (httpResponse.statusCode() == 200 && etag.isPresent()) {
+				var link = httpResponse.headers().firstValue("Link").orElse(null);
+				var body = new CachingInputStream(httpResponse.body(), (bytes) -> this.responseCache.put(cacheKey,
+						new HttpResponseCache.Entry(etag.get(), link, new String(bytes, StandardCharsets.UTF_8))));
+				return StreamingHttpResponse.withBody(httpResponse, body);
+			}
+			return httpResponse;
+		});
+	}
+
+	private static String cacheKey(HttpRequest httpRequest) {
+		// Include credentials so responses are never shared between users
+		var authorization = httpRequest.headers().firstValue("Authorization").orElse("");
+		try {
+			var messageDigest = MessageDigest.getInstance("SHA-256");
+			messageDigest.update(authorization.getBytes(StandardCharsets.UTF_8));
+			messageDigest.update((byte) 0);
+			messageDigest.update(httpRequest.uri().toString().getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(messageDigest.digest());
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static HttpHeaders cachedHeaders(HttpResponseCache.Entry cachedResponse) {
+		var headers = new HashMap<String, List<String>>();
+		headers.put("ETag", List.of(cachedResponse.etag()));
+		if (cachedResponse.link() != null) {
+			headers.put("Link", List.of(cachedResponse.link()));
+		}
+		return HttpHeaders.of(headers, (name, value) -> true);
+	}
+
+	private static void closeQuietly(InputStream body) {
+		try {
+			body.close();
+		}
+		catch (IOException ex) {
+			// Ignore
+		}
+	}
+
+	/**
+	 * Keeps a copy of a response body as it is read, and passes the copy on once the body
+	 * has been read completely.
+	 */
+	private static final class CachingInputStream extends FilterInputStream {
+
+		private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+		private final Consumer<byte[]> onComplete;
+
+		private boolean complete;
+
+		private CachingInputStream(InputStream in, Consumer<byte[]> onComplete) {
+			super(in);
+			this.onComplete = onComplete;
+		}
+
+		@Override
+		public int read() throws IOException {
+			var b = super.read();
+			if (b == -1) {
+				complete();
+			}
+			else {
+				this.copy.write(b);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			var n = super.read(b, off, len);
+			if (n == -1) {
+				complete();
+			}
+			else {
+				this.copy.write(b, off, n);
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			var buffer = new byte[(int) Math.min(n, 8192)];
+			return Math.max(read(buffer, 0, buffer.length), 0);
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		private void complete() {
+			if (!this.complete) {
+				this.complete = true;
+				this.onComplete.accept(this.copy.toByteArray());
+			}
+		}
+
+	}
+
+}
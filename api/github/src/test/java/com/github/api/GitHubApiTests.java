@@ -17,22 +17,50 @@
 package com.github.api;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 import com.jayway.jsonassert.JsonAssert;
+import io.spring.api.fixtures.ByteCountingServerSocketFactory;
+import io.spring.api.http.CircuitBreaker;
+import io.spring.api.http.HttpCassette;
+import io.spring.api.http.HttpClientMetrics;
+import io.spring.api.http.HttpClients;
+import io.spring.api.http.HttpRequestEvent;
+import io.spring.api.http.Json;
+import io.spring.api.http.RetryPolicy;
+import io.spring.api.http.StreamingHttpResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.hamcrest.CoreMatchers.is;
 
 public class GitHubApiTests {
@@ -45,6 +73,12 @@ public class GitHubApiTests {
 
 	private MockWebServer server;
 
+	@TempDir
+	private Path cacheDirectory;
+
+	@TempDir
+	private Path tempDir;
+
 	@BeforeEach
 	public void setUp() throws Exception {
 		this.server = new MockWebServer();
@@ -74,6 +108,65 @@ public class GitHubApiTests {
 		assertThat(recordedRequest.getHeader("Authorization")).isEqualTo("Bearer %s".formatted(AUTH_TOKEN));
 	}
 
+	@Test
+	public void getUserWhenInterceptorAddedThenEveryRequestIntercepted() throws Exception {
+		this.server.enqueue(json("UserResponse.json"));
+		this.githubApi.addInterceptor((httpRequest, exchange, next) -> {
+			var intercepted = HttpRequest.newBuilder(httpRequest, (name, value) -> true)
+				.header("X-Endpoint", exchange.getEndpoint())
+				.build();
+			return next.sendAsync(intercepted, exchange);
+		});
+
+		this.githubApi.getUser();
+
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getHeader("X-Endpoint")).isEqualTo("/user");
+	}
+
+	@Test
+	public void getUserWhenSeparateInstancesThenConnectionReused() throws Exception {
+		var baseUrl = this.server.url("/").toString();
+		for (var i = 0; i < 3; i++) {
+			this.server.enqueue(json("UserResponse.json"));
+			new GitHubApi(baseUrl, AUTH_TOKEN).getUser();
+		}
+
+		// Only the first request opens a connection (and would perform a TLS handshake)
+		assertThat(this.server.takeRequest().getSequenceNumber()).isEqualTo(0);
+		assertThat(this.server.takeRequest().getSequenceNumber()).isEqualTo(1);
+		assertThat(this.server.takeRequest().getSequenceNumber()).isEqualTo(2);
+	}
+
+	@Test
+	public void getUserWhenSeparateInstancesThenOneConnectionAccepted() throws Exception {
+		var socketFactory = new ByteCountingServerSocketFactory();
+		try (var server = new MockWebServer()) {
+			server.setServerSocketFactory(socketFactory);
+			var baseUrl = server.url("/").toString();
+			for (var i = 0; i < 3; i++) {
+				server.enqueue(json("UserResponse.json"));
+				// Each instance uses the client of the shared registry
+				new GitHubApi(baseUrl, AUTH_TOKEN).getUser();
+			}
+			assertThat(server.getRequestCount()).isEqualTo(3);
+		}
+		assertThat(socketFactory.getConnectionsAccepted()).isEqualTo(1);
+	}
+
+	@Test
+	public void getUserWhenSeparateHttpClientsThenConnectionPerInstance() throws Exception {
+		var baseUrl = this.server.url("/").toString();
+		for (var i = 0; i < 3; i++) {
+			this.server.enqueue(json("UserResponse.json"));
+			new GitHubApi(HttpClient.newHttpClient(), baseUrl, AUTH_TOKEN).getUser();
+		}
+
+		assertThat(this.server.takeRequest().getSequenceNumber()).isEqualTo(0);
+		assertThat(this.server.takeRequest().getSequenceNumber()).isEqualTo(0);
+		assertThat(this.server.takeRequest().getSequenceNumber()).isEqualTo(0);
+	}
+
 	@Test
 	public void getUserWhenAccessTokenIsNullThenNoAuthorizationHeader() throws Exception {
 		this.githubApi = new GitHubApi(this.server.url("/").toString(), null);
@@ -91,6 +184,261 @@ public class GitHubApiTests {
 		assertThat(recordedRequest.getHeaders().names().contains("Authorization")).isFalse();
 	}
 
+	@Test
+	public void getUserWhenResponseCachedThenRevalidatedWithIfNoneMatch() throws Exception {
+		this.githubApi.setResponseCache(new HttpResponseCache(this.cacheDirectory));
+		this.server.enqueue(json("UserResponse.json").addHeader("ETag", "\"user-v1\""));
+		this.server.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"user-v1\""));
+
+		assertThat(this.githubApi.getUser().login()).isEqualTo("octocat");
+		assertThat(this.githubApi.getUser().login()).isEqualTo("octocat");
+
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getHeader("If-None-Match")).isNull();
+		recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getPath()).isEqualTo("/user");
+		assertThat(recordedRequest.getHeader("If-None-Match")).isEqualTo("\"user-v1\"");
+	}
+
+	@Test
+	public void getUserWhenResponseCachedOnDiskThenRevalidatedByNewInstance() throws Exception {
+		this.githubApi.setResponseCache(new HttpResponseCache(this.cacheDirectory));
+		this.server.enqueue(json("UserResponse.json").addHeader("ETag", "\"user-v1\""));
+		this.githubApi.getUser();
+
+		var githubApi = new GitHubApi(this.server.url("/").toString(), AUTH_TOKEN);
+		githubApi.setResponseCache(new HttpResponseCache(this.cacheDirectory));
+		this.server.enqueue(new MockResponse().setResponseCode(304));
+		assertThat(githubApi.getUser().name()).isEqualTo("The Octocat");
+
+		this.server.takeRequest();
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getHeader("If-None-Match")).isEqualTo("\"user-v1\"");
+	}
+
+	@Test
+	public void getUserWhenResponseCachedForOtherTokenThenNotRevalidated() throws Exception {
+		this.githubApi.setResponseCache(new HttpResponseCache(this.cacheDirectory));
+		this.server.enqueue(json("UserResponse.json").addHeader("ETag", "\"user-v1\""));
+		this.githubApi.getUser();
+
+		var githubApi = new GitHubApi(this.server.url("/").toString(), "other-token");
+		githubApi.setResponseCache(new HttpResponseCache(this.cacheDirectory));
+		this.server.enqueue(json("UserResponse.json"));
+		githubApi.getUser();
+
+		this.server.takeRequest();
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getHeader("If-None-Match")).isNull();
+	}
+
+	@Test
+	public void getMilestonesWhenPagesNotModifiedThenServedFromCacheWithLinks() throws Exception {
+		var responseCache = new HttpResponseCache(this.cacheDirectory);
+		this.githubApi.setResponseCache(responseCache);
+		var nextPage = this.server.url("/repos/spring-projects/spring-security/milestones?per_page=100&page=2");
+		var link = "<%s>; rel=\"next\"".formatted(nextPage);
+		this.server.enqueue(json("MilestonesResponse.json").addHeader("ETag", "\"page-1\"").addHeader("Link", link));
+		this.server.enqueue(json("MilestonesPage2Response.json").addHeader("ETag", "\"page-2\""));
+		this.server.enqueue(new MockResponse().setResponseCode(304));
+		this.server.enqueue(new MockResponse().setResponseCode(304));
+
+		assertThat(this.githubApi.getMilestones(this.repository)).hasSize(3);
+		var githubApi = new GitHubApi(this.server.url("/").toString(), AUTH_TOKEN);
+		githubApi.setResponseCache(responseCache);
+		assertThat(githubApi.getMilestones(this.repository)).extracting(Milestone::number)
+			.containsExactly(207L, 191L, 212L);
+		assertThat(this.server.getRequestCount()).isEqualTo(4);
+	}
+
+	@Test
+	public void getMilestonesWhenMetricsThenRequestsCacheHitsAndRateLimitRecorded() throws Exception {
+		var metrics = new HttpClientMetrics();
+		var responseCache = new HttpResponseCache(this.cacheDirectory);
+		this.githubApi.setMetrics(metrics);
+		this.githubApi.setResponseCache(responseCache);
+		var reset = Instant.now().plusSeconds(3600).getEpochSecond();
+		// @formatter:off
+		this.server.enqueue(json("MilestonesResponse.json")
+			.addHeader("ETag", "\"page-1\"")
+			.addHeader("X-RateLimit-Limit", "5000")
+			.addHeader("X-RateLimit-Remaining", "4999")
+			.addHeader("X-RateLimit-Reset", reset));
+		this.server.enqueue(new MockResponse().setResponseCode(304)
+			.addHeader("X-RateLimit-Limit", "5000")
+			.addHeader("X-RateLimit-Remaining", "4999")
+			.addHeader("X-RateLimit-Reset", reset));
+		// @formatter:on
+
+		this.githubApi.getMilestones(this.repository);
+		var githubApi = new GitHubApi(this.server.url("/").toString(), AUTH_TOKEN);
+		githubApi.setMetrics(metrics);
+		githubApi.setResponseCache(responseCache);
+		githubApi.getMilestones(this.repository);
+
+		assertThat(metrics.getEndpoints()).singleElement().satisfies((endpoint) -> {
+			assertThat(endpoint.getApi()).isEqualTo("GitHub");
+			assertThat(endpoint.getMethod()).isEqualTo("GET");
+			assertThat(endpoint.getEndpoint()).isEqualTo("/repos/{owner}/{repo}/milestones");
+			assertThat(endpoint.getRequestCount()).isEqualTo(2);
+			assertThat(endpoint.getErrorCount()).isZero();
+			assertThat(endpoint.getCacheHitRatio()).isEqualTo(0.5);
+			assertThat(endpoint.getLatencyP99()).isPositive();
+		});
+		assertThat(metrics.getGauges()).containsEntry("github.rateLimit.remaining", 4999L);
+	}
+
+	@Test
+	public void closeMilestoneWhenResponseCacheThenNotCached() throws Exception {
+		this.githubApi.setResponseCache(new HttpResponseCache(this.cacheDirectory));
+		this.server.enqueue(json("CreateMilestoneResponse.json").addHeader("ETag", "\"milestone\""));
+		this.server.enqueue(json("CreateMilestoneResponse.json").addHeader("ETag", "\"milestone\""));
+
+		this.githubApi.closeMilestone(this.repository, 191L);
+		this.githubApi.closeMilestone(this.repository, 191L);
+
+		this.server.takeRequest();
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getHeader("If-None-Match")).isNull();
+	}
+
+	@Test
+	public void getUserWhenRateLimitExceededThenWaitsForResetAndResends() throws Exception {
+		var reset = Instant.now().plusSeconds(1).getEpochSecond();
+		// @formatter:off
+		this.server.enqueue(new MockResponse().setResponseCode(403)
+			.addHeader("X-RateLimit-Limit", "5000")
+			.addHeader("X-RateLimit-Remaining", "0")
+			.addHeader("X-RateLimit-Reset", reset));
+		this.server.enqueue(json("UserResponse.json")
+			.addHeader("X-RateLimit-Limit", "5000")
+			.addHeader("X-RateLimit-Remaining", "4999")
+			.addHeader("X-RateLimit-Reset", reset + 3600));
+		// @formatter:on
+
+		var user = this.githubApi.getUser();
+		assertThat(user.login()).isEqualTo("octocat");
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+		assertThat(this.githubApi.getRateLimit())
+			.isEqualTo(new RateLimit(5000, 4999, Instant.ofEpochSecond(reset + 3600)));
+	}
+
+	@Test
+	public void getUserWhenRateLimitExceededThenWaitNotCountedAsSlowCall() throws Exception {
+		// @formatter:off
+		var circuitBreaker = CircuitBreaker.builder("github")
+			.failureThreshold(1)
+			.slowCallThreshold(Duration.ofMillis(500))
+			.build();
+		// @formatter:on
+		this.githubApi.setCircuitBreaker(circuitBreaker);
+		var reset = Instant.now().plusSeconds(1).getEpochSecond();
+		// @formatter:off
+		this.server.enqueue(new MockResponse().setResponseCode(403)
+			.addHeader("X-RateLimit-Limit", "5000")
+			.addHeader("X-RateLimit-Remaining", "0")
+			.addHeader("X-RateLimit-Reset", reset));
+		this.server.enqueue(json("UserResponse.json"));
+		// @formatter:on
+
+		assertThat(this.githubApi.getUser().login()).isEqualTo("octocat");
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	public void getUserWhenRateLimitNotResetThenSentMaxAttemptsTimes() throws Exception {
+		this.githubApi
+			.setRetryPolicy(RetryPolicy.builder().maxAttempts(2).initialBackoff(Duration.ofMillis(10)).build());
+		for (var i = 0; i < 4; i++) {
+			this.server.enqueue(new MockResponse().setResponseCode(429).addHeader("Retry-After", "0"));
+		}
+
+		// @formatter:off
+		assertThatExceptionOfType(GitHubApi.HttpClientException.class)
+			.isThrownBy(() -> this.githubApi.getUser())
+			.satisfies((ex) -> assertThat(ex.getStatusCode()).isEqualTo(429));
+		// @formatter:on
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void getUserWhenForbiddenWithoutRateLimitThenNotResent() throws Exception {
+		// @formatter:off
+		this.server.enqueue(new MockResponse().setResponseCode(403)
+			.addHeader("X-RateLimit-Limit", "5000")
+			.addHeader("X-RateLimit-Remaining", "4999")
+			.addHeader("X-RateLimit-Reset", Instant.now().plusSeconds(3600).getEpochSecond()));
+		assertThatExceptionOfType(GitHubApi.HttpClientException.class)
+			.isThrownBy(() -> this.githubApi.getUser());
+		// @formatter:on
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void getMilestonesWhenBadGatewayThenRetried() throws Exception {
+		this.githubApi.setRetryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(10)).build());
+		this.server.enqueue(new MockResponse().setResponseCode(502));
+		this.server.enqueue(new MockResponse().setResponseCode(502));
+		this.server.enqueue(json("MilestonesResponse.json"));
+
+		var milestones = this.githubApi.getMilestones(this.repository);
+		assertThat(milestones).hasSize(2);
+		assertThat(this.server.getRequestCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void getMilestonesWhenRecordingThenHttpRequestEventRecorded() throws Exception {
+		this.githubApi.setRetryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(10)).build());
+		this.server.enqueue(new MockResponse().setResponseCode(502));
+		this.server.enqueue(json("MilestonesResponse.json"));
+
+		var recordingFile = this.tempDir.resolve("recording.jfr");
+		try (var recording = new Recording()) {
+			recording.enable(HttpRequestEvent.NAME).withoutThreshold();
+			recording.start();
+			assertThat(this.githubApi.getMilestones(this.repository)).hasSize(2);
+			recording.stop();
+			recording.dump(recordingFile);
+		}
+
+		var events = RecordingFile.readAllEvents(recordingFile);
+		assertThat(events).singleElement().satisfies((event) -> {
+			assertThat(event.getString("api")).isEqualTo("GitHub");
+			assertThat(event.getString("endpoint")).isEqualTo("/repos/{owner}/{repo}/milestones");
+			assertThat(event.getString("method")).isEqualTo("GET");
+			assertThat(event.getInt("status")).isEqualTo(200);
+			assertThat(event.getInt("retries")).isEqualTo(1);
+			assertThat(event.getLong("decodedBodySize")).isEqualTo(string("MilestonesResponse.json").length());
+		});
+	}
+
+	@Test
+	public void getMilestonesWhenMaxAttemptsExceededThenFails() throws Exception {
+		this.githubApi
+			.setRetryPolicy(RetryPolicy.builder().maxAttempts(2).initialBackoff(Duration.ofMillis(10)).build());
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+
+		// @formatter:off
+		assertThatExceptionOfType(GitHubApi.HttpClientException.class)
+			.isThrownBy(() -> this.githubApi.getMilestones(this.repository))
+			.satisfies((ex) -> assertThat(ex.getStatusCode()).isEqualTo(503));
+		// @formatter:on
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void createMilestoneWhenSecondaryRateLimitThenRetried() throws Exception {
+		this.githubApi.setRetryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(10)).build());
+		this.server.enqueue(new MockResponse().setResponseCode(429));
+		this.server.enqueue(json("CreateMilestoneResponse.json").setResponseCode(201));
+
+		var milestone = new Milestone("1.0.0", null, Instant.parse("2022-05-04T12:00:00Z"));
+		var created = this.githubApi.createMilestone(this.repository, milestone);
+		assertThat(created).isNotNull();
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
 	@Test
 	public void createReleaseWhenValidParametersThenSuccess() throws Exception {
 		this.server.enqueue(json("CreateReleaseResponse.json").setResponseCode(201));
@@ -112,6 +460,21 @@ public class GitHubApiTests {
 		json.assertThat("$.generate_release_notes", is(false));
 	}
 
+	@Test
+	public void createReleaseWhenBodyNotAsciiThenUtf8Encoded() throws Exception {
+		this.server.enqueue(json("CreateReleaseResponse.json").setResponseCode(201));
+
+		var body = "## :star: New Features\n\n- Support für Schlüssel (ключ) #1234\n".repeat(1000);
+		var release = Release.tag("1.0.0").body(body).build();
+		this.githubApi.createRelease(this.repository, release);
+
+		var recordedRequest = this.server.takeRequest();
+		var requestBody = recordedRequest.getBody().readByteArray();
+		assertThat(recordedRequest.getHeader("Content-Length")).isEqualTo(String.valueOf(requestBody.length));
+		var json = JsonAssert.with(new String(requestBody, StandardCharsets.UTF_8));
+		json.assertThat("$.body", is(body));
+	}
+
 	@Test
 	public void createMilestoneWhenValidParametersThenSuccess() throws Exception {
 		this.server.enqueue(json("CreateMilestoneResponse.json").setResponseCode(201));
@@ -169,6 +532,298 @@ public class GitHubApiTests {
 		assertThat(recordedRequest.getHeader("Authorization")).isEqualTo("Bearer %s".formatted(AUTH_TOKEN));
 	}
 
+	@Test
+	public void getMilestonesWhenGzipEncodedThenFewerBytesTransferred() throws Exception {
+		var uncompressedSize = string("MilestonesResponse.json").getBytes(StandardCharsets.UTF_8).length;
+		var socketFactory = new ByteCountingServerSocketFactory();
+		try (var server = new MockWebServer()) {
+			server.setServerSocketFactory(socketFactory);
+			server.enqueue(gzipJson("MilestonesResponse.json"));
+
+			var githubApi = new GitHubApi(server.url("/").toString(), AUTH_TOKEN);
+			var milestones = githubApi.getMilestones(this.repository);
+			assertThat(milestones).extracting(Milestone::number).containsExactly(207L, 191L);
+
+			var recordedRequest = server.takeRequest();
+			assertThat(recordedRequest.getHeader("Accept-Encoding")).isEqualTo("gzip, deflate");
+		}
+		// Read after shutdown, so that every byte written, including headers, is counted
+		assertThat(socketFactory.getBytesWritten()).isPositive().isLessThan(uncompressedSize / 2);
+	}
+
+	@Test
+	public void getMilestonesWhenReplayedFromCassetteThenNoRequestSent() throws Exception {
+		this.server.enqueue(gzipJson("MilestonesResponse.json"));
+		var cassette = this.tempDir.resolve("github.cassette");
+		var baseUrl = this.server.url("/").toString();
+		var recording = new GitHubApi(HttpCassette.record(cassette, HttpClients.shared()), baseUrl, AUTH_TOKEN);
+		assertThat(recording.getMilestones(this.repository)).extracting(Milestone::number).containsExactly(207L, 191L);
+		this.server.shutdown();
+
+		var replaying = new GitHubApi(HttpCassette.replay(cassette), baseUrl, AUTH_TOKEN);
+		assertThat(replaying.getMilestones(this.repository)).extracting(Milestone::number).containsExactly(207L, 191L);
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void getMilestonesAsyncWhenExistsThenCompletesWithMilestones() throws Exception {
+		this.server.enqueue(json("MilestonesResponse.json"));
+
+		var milestones = this.githubApi.getMilestonesAsync(this.repository).get(1, TimeUnit.SECONDS);
+		assertThat(milestones).extracting(Milestone::number).containsExactly(207L, 191L);
+
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getMethod()).isEqualTo("GET");
+		assertThat(recordedRequest.getPath())
+			.isEqualTo("/repos/spring-projects/spring-security/milestones?per_page=100");
+	}
+
+	@Test
+	public void createReleaseAsyncWhenErrorThenCompletesExceptionallyWithHttpClientException() throws Exception {
+		this.server.enqueue(new MockResponse().setResponseCode(500).setBody("error"));
+
+		var release = Release.tag("1.0.0").build();
+		var result = this.githubApi.createReleaseAsync(this.repository, release);
+		// @formatter:off
+		assertThatExceptionOfType(ExecutionException.class)
+			.isThrownBy(() -> result.get(1, TimeUnit.SECONDS))
+			.havingCause()
+			.isInstanceOfSatisfying(GitHubApi.HttpClientException.class, (ex) -> {
+				assertThat(ex.getStatusCode()).isEqualTo(500);
+				assertThat(ex.getResponseBody()).isEqualTo("error");
+			});
+		// @formatter:on
+	}
+
+	@Test
+	public void getMilestonesWhenMultiplePagesThenFollowsLinkHeader() throws Exception {
+		var nextPage = this.server.url("/repos/spring-projects/spring-security/milestones?per_page=100&page=2");
+		this.server
+			.enqueue(json("MilestonesResponse.json").addHeader("Link", "<%s>; rel=\"next\"".formatted(nextPage)));
+		this.server.enqueue(json("MilestonesPage2Response.json"));
+
+		var milestones = this.githubApi.getMilestones(this.repository);
+		assertThat(milestones).extracting(Milestone::number).containsExactly(207L, 191L, 212L);
+
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getPath())
+			.isEqualTo("/repos/spring-projects/spring-security/milestones?per_page=100");
+		recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getMethod()).isEqualTo("GET");
+		assertThat(recordedRequest.getPath())
+			.isEqualTo("/repos/spring-projects/spring-security/milestones?per_page=100&page=2");
+		assertThat(recordedRequest.getHeader("Accept")).isEqualTo("application/json");
+		assertThat(recordedRequest.getHeader("Authorization")).isEqualTo("Bearer %s".formatted(AUTH_TOKEN));
+	}
+
+	@Test
+	public void streamMilestonesWhenFoundOnFirstPageThenRemainingPagesNotFetched() throws Exception {
+		var page2 = this.server.url("/repos/spring-projects/spring-security/milestones?per_page=100&page=2");
+		var page3 = this.server.url("/repos/spring-projects/spring-security/milestones?per_page=100&page=3");
+		this.server.enqueue(json("MilestonesResponse.json").addHeader("Link", "<%s>; rel=\"next\"".formatted(page2)));
+		this.server
+			.enqueue(json("MilestonesPage2Response.json").addHeader("Link", "<%s>; rel=\"next\"".formatted(page3)));
+		this.server.enqueue(json("EmptyArrayResponse.json"));
+
+		try (var milestones = this.githubApi.streamMilestones(this.repository)) {
+			var milestone = milestones.filter((m) -> m.title().equals("5.5.0-RC1")).findFirst().orElseThrow();
+			assertThat(milestone.number()).isEqualTo(191);
+		}
+
+		// Only the next page may have been prefetched
+		assertThat(this.server.takeRequest(1, TimeUnit.SECONDS)).isNotNull();
+		this.server.takeRequest(1, TimeUnit.SECONDS);
+		assertThat(this.server.takeRequest(1, TimeUnit.SECONDS)).isNull();
+	}
+
+	@Test
+	public void streamMilestonesWhenClosedWhileNextPageInFlightThenNextPageClosedAndConnectionReused()
+			throws Exception {
+		var firstPage = string("MilestonesResponse.json");
+		var nextPage = this.server.url("/repos/spring-projects/spring-security/milestones?per_page=100&page=2");
+		var streamClosed = new CountDownLatch(1);
+		var nextPageClosed = new CountDownLatch(1);
+		this.server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+				if (request.getPath().equals("/user")) {
+					return jsonResponse("{\"login\":\"octocat\"}");
+				}
+				if (request.getRequestUrl().queryParameter("page") == null) {
+					return jsonResponse(firstPage).addHeader("Link", "<%s>; rel=\"next\"".formatted(nextPage));
+				}
+				// The next page arrives only after the stream is closed
+				streamClosed.await(5, TimeUnit.SECONDS);
+				return jsonResponse("[]");
+			}
+		});
+		this.githubApi.addInterceptor((httpRequest, exchange, next) -> next.sendAsync(httpRequest, exchange)
+			.thenApply((httpResponse) -> {
+				if (!httpRequest.uri().toString().endsWith("page=2")) {
+					return httpResponse;
+				}
+				return StreamingHttpResponse.withBody(httpResponse, new FilterInputStream(httpResponse.body()) {
+					@Override
+					public void close() throws IOException {
+						super.close();
+						nextPageClosed.countDown();
+					}
+				});
+			}));
+
+		try (var milestones = this.githubApi.streamMilestones(this.repository)) {
+			assertThat(milestones.findFirst().orElseThrow().number()).isEqualTo(207);
+		}
+		streamClosed.countDown();
+		assertThat(nextPageClosed.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(this.githubApi.getUser().login()).isEqualTo("octocat");
+		this.server.takeRequest();
+		this.server.takeRequest();
+		// Sent on a connection released by one of the pages, instead of a new one
+		assertThat(this.server.takeRequest().getSequenceNumber()).isPositive();
+	}
+
+	@Test
+	public void streamMilestonesWhenLargePageThenElementsParsedBeforeBodyIsRead() throws Exception {
+		var milestones = new StringJoiner(",", "[", "]");
+		for (var i = 1; i <= 1000; i++) {
+			milestones.add("{\"title\":\"1.0.%s\",\"number\":%s,\"due_on\":\"2024-01-01T12:00:00Z\"}".formatted(i, i));
+		}
+		// The whole body takes more than 10 seconds to arrive
+		this.server.enqueue(jsonResponse(milestones.toString()).throttleBody(4096, 1, TimeUnit.SECONDS));
+
+		var milestone = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			try (var stream = this.githubApi.streamMilestones(this.repository)) {
+				return stream.findFirst().orElseThrow();
+			}
+		});
+		assertThat(milestone.title()).isEqualTo("1.0.1");
+	}
+
+	@Test
+	public void getMilestoneWhenCalledAgainThenServedFromIndex() throws Exception {
+		this.server.enqueue(json("MilestonesResponse.json"));
+
+		assertThat(this.githubApi.getMilestone(this.repository, "5.5.0-RC1").number()).isEqualTo(191);
+		assertThat(this.githubApi.getMilestone(this.repository, "5.6.x").number()).isEqualTo(207);
+		assertThat(this.githubApi.getMilestone(this.repository, "6.0.0")).isNull();
+		try (var milestones = this.githubApi.streamMilestones(this.repository)) {
+			assertThat(milestones).extracting(Milestone::number).containsExactly(207L, 191L);
+		}
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void getMilestoneWhenCreatedThenIndexUpdated() throws Exception {
+		this.server.enqueue(json("MilestonesResponse.json"));
+		this.server.enqueue(json("CreateMilestoneResponse.json").setResponseCode(201));
+
+		assertThat(this.githubApi.getMilestones(this.repository)).hasSize(2);
+		var created = this.githubApi.createMilestone(this.repository,
+				new Milestone("1.0.0", null, Instant.parse("2022-05-04T12:00:00Z")));
+
+		assertThat(this.githubApi.getMilestone(this.repository, created.title())).isEqualTo(created);
+		assertThat(this.githubApi.getMilestones(this.repository)).hasSize(3);
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void getMilestoneWhenClosedThenIndexUpdated() throws Exception {
+		this.server.enqueue(json("MilestonesResponse.json"));
+		this.server.enqueue(new MockResponse().setResponseCode(200));
+
+		var milestone = this.githubApi.getMilestone(this.repository, "5.5.0-RC1");
+		this.githubApi.closeMilestone(this.repository, milestone.number());
+
+		assertThat(this.githubApi.getMilestone(this.repository, "5.5.0-RC1")).isNull();
+		assertThat(this.githubApi.getMilestones(this.repository)).extracting(Milestone::number).containsExactly(207L);
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void getMilestoneWhenFoundOnLastPageThenSuccess() throws Exception {
+		var nextPage = this.server.url("/repos/spring-projects/spring-security/milestones?per_page=100&page=2");
+		this.server
+			.enqueue(json("MilestonesResponse.json").addHeader("Link", "<%s>; rel=\"next\"".formatted(nextPage)));
+		this.server.enqueue(json("MilestonesPage2Response.json"));
+
+		var milestone = this.githubApi.getMilestone(this.repository, "5.6.0-M1");
+		assertThat(milestone.number()).isEqualTo(212);
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void getMilestonesWhenLastPageLinkThenRemainingPagesFetchedConcurrently() throws Exception {
+		var inFlight = new AtomicInteger();
+		var maxInFlight = new AtomicInteger();
+		var overlapping = new CountDownLatch(2);
+		var overlapped = new AtomicBoolean(true);
+		this.githubApi.setMaxConcurrentPages(2);
+		this.server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+				var page = Objects.requireNonNullElse(request.getRequestUrl().queryParameter("page"), "1");
+				if (page.equals("1")) {
+					var lastPage = GitHubApiTests.this.server
+						.url("/repos/spring-projects/spring-security/milestones?per_page=100&page=5");
+					return jsonResponse("[{\"number\":1,\"title\":\"page-1\"}]").addHeader("Link",
+							"<%s>; rel=\"last\"".formatted(lastPage));
+				}
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				// Hold each page until two pages have been requested, which only
+				// happens if the remaining pages are fetched concurrently
+				overlapping.countDown();
+				if (!overlapping.await(5, TimeUnit.SECONDS)) {
+					overlapped.set(false);
+				}
+				inFlight.decrementAndGet();
+				return jsonResponse("[{\"number\":%s,\"title\":\"page-%s\"}]".formatted(page, page));
+			}
+		});
+
+		var milestones = this.githubApi.getMilestones(this.repository);
+		assertThat(milestones).extracting(Milestone::title)
+			.containsExactly("page-1", "page-2", "page-3", "page-4", "page-5");
+		assertThat(this.server.getRequestCount()).isEqualTo(5);
+		assertThat(overlapped).isTrue();
+		assertThat(maxInFlight.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void getMilestonesWhenClientExecutorHasOneThreadThenPagesParsedOnParseExecutor() throws Exception {
+		var clientExecutor = Executors.newSingleThreadExecutor();
+		var parseExecutor = Executors.newCachedThreadPool();
+		try {
+			var httpClient = HttpClient.newBuilder().executor(clientExecutor).build();
+			this.githubApi = new GitHubApi(httpClient, this.server.url("/").toString(), AUTH_TOKEN);
+			var parsed = new AtomicInteger();
+			this.githubApi.setParseExecutor((task) -> {
+				parsed.incrementAndGet();
+				parseExecutor.execute(task);
+			});
+			this.server.setDispatcher(new Dispatcher() {
+				@Override
+				public MockResponse dispatch(RecordedRequest request) {
+					var page = Objects.requireNonNullElse(request.getRequestUrl().queryParameter("page"), "1");
+					var lastPage = GitHubApiTests.this.server
+						.url("/repos/spring-projects/spring-security/milestones?per_page=100&page=4");
+					return jsonResponse("[{\"number\":%s,\"title\":\"page-%s\"}]".formatted(page, page))
+						.addHeader("Link", "<%s>; rel=\"last\"".formatted(lastPage));
+				}
+			});
+
+			var milestones = assertTimeoutPreemptively(Duration.ofSeconds(10),
+					() -> this.githubApi.getMilestones(this.repository));
+			assertThat(milestones).hasSize(4);
+			assertThat(parsed).hasValue(4);
+		}
+		finally {
+			clientExecutor.shutdownNow();
+			parseExecutor.shutdownNow();
+		}
+	}
+
 	@Test
 	public void getMilestoneWhenExistsThenSuccess() throws Exception {
 		this.server.enqueue(json("MilestonesResponse.json"));
@@ -261,8 +916,42 @@ public class GitHubApiTests {
 		json.assertThat("$.title", is("Release 6.1.9"));
 	}
 
+	@Test
+	public void jsonWhenMilestonesPayloadThenReadAndWrittenInGitHubFormat() throws Exception {
+		Milestone[] milestones = Json.reader(Milestone[].class).readValue(string("MilestonesResponse.json"));
+		// Unknown properties (e.g. creator) are ignored, and due_on is read as an Instant
+		assertThat(milestones).containsExactly(new Milestone("5.6.x", 207L, null),
+				new Milestone("5.5.0-RC1", 191L, Instant.parse("2021-04-12T07:00:00Z")));
+
+		var written = Json.writer(Milestone.class).writeValueAsString(milestones[1]);
+		var json = JsonAssert.with(written);
+		json.assertThat("$.title", is("5.5.0-RC1"));
+		json.assertThat("$.number", is(191));
+		json.assertThat("$.due_on", is("2021-04-12T07:00:00Z"));
+		json.assertNotDefined("$.dueOn");
+		assertThat(Json.reader(Milestone.class).<Milestone>readValue(written)).isEqualTo(milestones[1]);
+		JsonAssert.with(Json.writer(Milestone.class).writeValueAsString(milestones[0])).assertNotDefined("$.due_on");
+	}
+
 	private static MockResponse json(String path) throws IOException {
-		return new MockResponse().addHeader("Content-Type", "application/json").setBody(string(path));
+		return jsonResponse(string(path));
+	}
+
+	private static MockResponse gzipJson(String path) throws IOException {
+		var body = new Buffer();
+		try (var outputStream = new GZIPOutputStream(body.outputStream())) {
+			outputStream.write(string(path).getBytes(StandardCharsets.UTF_8));
+		}
+		// @formatter:off
+		return new MockResponse()
+				.addHeader("Content-Type", "application/json")
+				.addHeader("Content-Encoding", "gzip")
+				.setBody(body);
+		// @formatter:on
+	}
+
+	private static MockResponse jsonResponse(String body) {
+		return new MockResponse().addHeader("Content-Type", "application/json").setBody(body);
 	}
 
 	private static String string(String path) throws IOException {
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+import com.jayway.jsonassert.JsonAssert;
+import io.spring.api.http.HttpClients;
+import io.spring.api.http.RetryPolicy;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+
+public class GitHubGraphQlApiTests {
+
+	private static final String AUTH_TOKEN = "personal-access-token";
+
+	private GitHubGraphQlApi githubApi;
+
+	private Repository repository;
+
+	private MockWebServer server;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		this.server = new MockWebServer();
+		this.server.start();
+		this.githubApi = new GitHubGraphQlApi(this.server.url("/").toString(), AUTH_TOKEN);
+		this.repository = new Repository("spring-projects", "spring-security");
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void getMilestonesWhenExistsThenQueriesGraphQl() throws Exception {
+		this.server.enqueue(json("GraphQlMilestonesResponse.json"));
+
+		var milestones = this.githubApi.getMilestones(this.repository);
+		assertThat(milestones).extracting(Milestone::title).containsExactly("6.1.0-M1", "6.1.0-M2", "6.0.5", "6.1.x");
+		assertThat(milestones.get(0).number()).isEqualTo(1L);
+		assertThat(milestones.get(0).dueOn()).isEqualTo(Instant.parse("2023-01-16T12:00:00Z"));
+
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getMethod()).isEqualTo("POST");
+		assertThat(recordedRequest.getPath()).isEqualTo("/graphql");
+		assertThat(recordedRequest.getHeader("Content-Type")).isEqualTo("application/json");
+		assertThat(recordedRequest.getHeader("Authorization")).isEqualTo("Bearer %s".formatted(AUTH_TOKEN));
+
+		var json = JsonAssert.with(recordedRequest.getBody().readString(Charset.defaultCharset()));
+		json.assertThat("$.variables.owner", is("spring-projects"));
+		json.assertThat("$.variables.name", is("spring-security"));
+		json.assertNotDefined("$.variables.cursor");
+		json.assertThat("$.query", containsString("openIssues: issues(states: OPEN)"));
+	}
+
+	@Test
+	public void getMilestonesWhenMultiplePagesThenFollowsCursor() throws Exception {
+		this.server.enqueue(json("GraphQlMilestonesPage1Response.json"));
+		this.server.enqueue(json("GraphQlMilestonesResponse.json"));
+
+		var milestones = this.githubApi.getMilestones(this.repository);
+		assertThat(milestones).extracting(Milestone::number).containsExactly(4L, 1L, 2L, 3L, 100L);
+
+		this.server.takeRequest();
+		var recordedRequest = this.server.takeRequest();
+		var json = JsonAssert.with(recordedRequest.getBody().readString(Charset.defaultCharset()));
+		json.assertThat("$.variables.cursor", is("Y3Vyc29yOjE="));
+	}
+
+	@Test
+	public void getMilestonesWhenErrorsThenException() throws Exception {
+		this.server.enqueue(json("GraphQlErrorResponse.json"));
+
+		// @formatter:off
+		assertThatIllegalStateException()
+			.isThrownBy(() -> this.githubApi.getMilestones(this.repository))
+			.withMessageContaining("Could not resolve to a Repository");
+		// @formatter:on
+	}
+
+	@Test
+	public void hasOpenIssuesWhenOpenIssuesOrPullRequestsThenTrue() throws Exception {
+		this.server.enqueue(json("GraphQlMilestonesResponse.json"));
+
+		assertThat(this.githubApi.hasOpenIssues(this.repository, 1L)).isTrue();
+		assertThat(this.githubApi.hasOpenIssues(this.repository, 2L)).isTrue();
+		assertThat(this.githubApi.hasOpenIssues(this.repository, 3L)).isFalse();
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void releaseChecksWhenSameRepositoryThenSingleRequest() throws Exception {
+		this.server.enqueue(json("GraphQlMilestonesResponse.json"));
+
+		try (var milestones = this.githubApi.streamMilestones(this.repository)) {
+			assertThat(milestones.filter((m) -> m.title().startsWith("6.1.0-")).findFirst()).isPresent();
+		}
+		var milestone = this.githubApi.getMilestone(this.repository, "6.1.0-M1");
+		assertThat(this.githubApi.hasOpenIssues(this.repository, milestone.number())).isTrue();
+		assertThat(this.githubApi.getMilestone(this.repository, "6.1.0-M1").dueOn()).isNotNull();
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void closeMilestoneWhenQueriedThenRemovedWithoutQueryingAgain() throws Exception {
+		this.server.enqueue(json("GraphQlMilestonesResponse.json"));
+		this.server.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+
+		var milestone = this.githubApi.getMilestone(this.repository, "6.1.0-M1");
+		this.githubApi.closeMilestone(this.repository, milestone.number());
+		assertThat(this.githubApi.getMilestone(this.repository, "6.1.0-M1")).isNull();
+		assertThat(this.githubApi.getMilestones(this.repository)).hasSize(3);
+
+		this.server.takeRequest();
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getMethod()).isEqualTo("PATCH");
+		assertThat(recordedRequest.getPath()).isEqualTo("/repos/spring-projects/spring-security/milestones/1");
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void createMilestoneWhenQueriedThenAddedWithoutQueryingAgain() throws Exception {
+		this.server.enqueue(json("GraphQlMilestonesResponse.json"));
+		this.server.enqueue(json("CreateMilestoneResponse.json").setResponseCode(201));
+
+		this.githubApi.getMilestones(this.repository);
+		var created = this.githubApi.createMilestone(this.repository,
+				new Milestone("1.0.0", null, Instant.parse("2022-05-04T12:00:00Z")));
+		assertThat(this.githubApi.getMilestone(this.repository, created.title())).isEqualTo(created);
+		assertThat(this.githubApi.hasOpenIssues(this.repository, created.number())).isFalse();
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void getMilestonesWhenEnterpriseServerThenQueriesGraphQlEndpointOfServer() throws Exception {
+		var gitHubApi = new GitHubGraphQlApi(this.server.url("/api/v3").toString(), AUTH_TOKEN);
+		this.server.enqueue(json("GraphQlMilestonesResponse.json"));
+
+		assertThat(gitHubApi.getMilestones(this.repository)).hasSize(4);
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getMethod()).isEqualTo("POST");
+		assertThat(recordedRequest.getPath()).isEqualTo("/api/graphql");
+	}
+
+	@Test
+	public void getMilestonesWhenGraphQlUrlThenQueriesGraphQlUrl() throws Exception {
+		var gitHubApi = new GitHubGraphQlApi(HttpClients.shared(), "https://github.example.com/api/v3",
+				this.server.url("/graphql-proxy").toString(), AUTH_TOKEN);
+		this.server.enqueue(json("GraphQlMilestonesResponse.json"));
+
+		assertThat(gitHubApi.getMilestones(this.repository)).hasSize(4);
+		assertThat(this.server.takeRequest().getPath()).isEqualTo("/graphql-proxy");
+	}
+
+	@Test
+	public void graphQlUrlWhenBaseUrlThenDerived() {
+		assertThat(GitHubGraphQlApi.graphQlUrl("https://api.github.com")).isEqualTo("https://api.github.com/graphql");
+		assertThat(GitHubGraphQlApi.graphQlUrl("http://localhost:8080/")).isEqualTo("http://localhost:8080/graphql");
+		assertThat(GitHubGraphQlApi.graphQlUrl("https://github.example.com/api/v3"))
+			.isEqualTo("https://github.example.com/api/graphql");
+		assertThat(GitHubGraphQlApi.graphQlUrl("https://github.example.com/api/v3/"))
+			.isEqualTo("https://github.example.com/api/graphql");
+	}
+
+	@Test
+	public void getMilestonesWhenServiceUnavailableThenQueryRetried() throws Exception {
+		this.githubApi.setRetryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(10)).build());
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+		this.server.enqueue(json("GraphQlMilestonesResponse.json"));
+
+		assertThat(this.githubApi.getMilestones(this.repository)).hasSize(4);
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getHeader(RetryPolicy.IDEMPOTENCY_KEY_HEADER)).isNotBlank();
+	}
+
+	private static MockResponse json(String path) throws IOException {
+		return new MockResponse().addHeader("Content-Type", "application/json").setBody(string(path));
+	}
+
+	private static String string(String path) throws IOException {
+		var outputStream = new ByteArrayOutputStream();
+		try (var inputStream = ClassLoader.getSystemClassLoader().getResourceAsStream(path)) {
+			Objects.requireNonNull(inputStream).transferTo(outputStream);
+			return outputStream.toString(StandardCharsets.UTF_8);
+		}
+	}
+
+}
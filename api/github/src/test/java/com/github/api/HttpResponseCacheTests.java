@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpResponseCacheTests {
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	public void getWhenPutThenFound() {
+		var cache = new HttpResponseCache(1024);
+		cache.put("key", new HttpResponseCache.Entry("\"etag\"", null, "{}"));
+
+		var entry = cache.get("key");
+		assertThat(entry.etag()).isEqualTo("\"etag\"");
+		assertThat(entry.link()).isNull();
+		assertThat(entry.body()).isEqualTo("{}");
+	}
+
+	@Test
+	public void putWhenFullThenLeastRecentlyUsedEvicted() {
+		var cache = new HttpResponseCache(10);
+		cache.put("a", new HttpResponseCache.Entry("a", null, "aaaa"));
+		cache.put("b", new HttpResponseCache.Entry("b", null, "bbbb"));
+		cache.get("a");
+		cache.put("c", new HttpResponseCache.Entry("c", null, "cccc"));
+
+		assertThat(cache.get("a")).isNotNull();
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("c")).isNotNull();
+	}
+
+	@Test
+	public void putWhenLargerThanMaxSizeThenNotCached() {
+		var cache = new HttpResponseCache(this.directory, 2);
+		cache.put("a", new HttpResponseCache.Entry("a", null, "aaaa"));
+
+		assertThat(cache.get("a")).isNull();
+		assertThat(this.directory.resolve("a")).doesNotExist();
+	}
+
+	@Test
+	public void putWhenMultiByteCharactersThenSizeInBytes() {
+		// 3 characters, but 6 bytes in UTF-8
+		var cache = new HttpResponseCache(5);
+		cache.put("a", new HttpResponseCache.Entry("a", null, "\u00e9\u00e9\u00e9"));
+
+		assertThat(cache.get("a")).isNull();
+	}
+
+	@Test
+	public void getWhenWrittenByOtherInstanceThenReadFromDisk() {
+		new HttpResponseCache(this.directory).put("a", new HttpResponseCache.Entry("a", "<next>", "[1,\n2]"));
+
+		var entry = new HttpResponseCache(this.directory).get("a");
+		assertThat(entry.etag()).isEqualTo("a");
+		assertThat(entry.link()).isEqualTo("<next>");
+		assertThat(entry.body()).isEqualTo("[1,\n2]");
+	}
+
+	@Test
+	public void putWhenDirectoryFullThenOldestFilesEvicted() throws Exception {
+		var cache = new HttpResponseCache(this.directory, 64);
+		for (var i = 0; i < 10; i++) {
+			cache.put("key" + i, new HttpResponseCache.Entry("etag", null, "0123456789"));
+		}
+
+		try (var files = Files.list(this.directory)) {
+			assertThat(files.mapToLong((file) -> file.toFile().length()).sum()).isLessThanOrEqualTo(64);
+		}
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoginCacheTests {
+
+	private static final String AUTH_TOKEN = "personal-access-token";
+
+	@TempDir
+	private Path directory;
+
+	private MockWebServer server;
+
+	private GitHubApi gitHubApi;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		this.server = new MockWebServer();
+		this.server.start();
+		this.gitHubApi = new GitHubApi(this.server.url("/").toString(), AUTH_TOKEN);
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void getLoginWhenNotCachedThenUserRetrievedAndCached() throws Exception {
+		this.server.enqueue(user("octocat"));
+
+		assertThat(new LoginCache(this.directory).getLogin(this.gitHubApi, AUTH_TOKEN)).isEqualTo("octocat");
+		assertThat(this.server.takeRequest().getPath()).isEqualTo("/user");
+		try (var files = Files.list(this.directory)) {
+			var cachedFiles = files.toList();
+			assertThat(cachedFiles).hasSize(1);
+			assertThat(cachedFiles.get(0).getFileName().toString()).doesNotContain(AUTH_TOKEN);
+		}
+	}
+
+	@Test
+	public void getLoginWhenCachedByOtherInstanceThenUserNotRetrieved() {
+		this.server.enqueue(user("octocat"));
+		new LoginCache(this.directory).getLogin(this.gitHubApi, AUTH_TOKEN);
+
+		var gitHubApi = new GitHubApi(this.server.url("/").toString(), AUTH_TOKEN);
+		assertThat(new LoginCache(this.directory).getLogin(gitHubApi, AUTH_TOKEN)).isEqualTo("octocat");
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void getLoginWhenOtherTokenThenUserRetrieved() {
+		this.server.enqueue(user("octocat"));
+		this.server.enqueue(user("hubot"));
+		var loginCache = new LoginCache(this.directory);
+		loginCache.getLogin(this.gitHubApi, AUTH_TOKEN);
+
+		var gitHubApi = new GitHubApi(this.server.url("/").toString(), "other-token");
+		assertThat(loginCache.getLogin(gitHubApi, "other-token")).isEqualTo("hubot");
+		assertThat(loginCache.getLogin(this.gitHubApi, AUTH_TOKEN)).isEqualTo("octocat");
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void getLoginAsyncWhenCachedByOtherInstanceThenUserNotRetrieved() throws Exception {
+		this.server.enqueue(user("octocat"));
+		assertThat(new LoginCache(this.directory).getLoginAsync(this.gitHubApi, AUTH_TOKEN).get(1, TimeUnit.SECONDS))
+			.isEqualTo("octocat");
+
+		var gitHubApi = new GitHubApi(this.server.url("/").toString(), AUTH_TOKEN);
+		assertThat(new LoginCache(this.directory).getLoginAsync(gitHubApi, AUTH_TOKEN).get(1, TimeUnit.SECONDS))
+			.isEqualTo("octocat");
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
+	private static MockResponse user(String login) {
+		return new MockResponse().addHeader("Content-Type", "application/json")
+			.setBody("{\"login\": \"%s\"}".formatted(login));
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.net.http.HttpHeaders;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimiterTests {
+
+	private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+	private final RateLimiter rateLimiter = new RateLimiter(Clock.fixed(NOW, ZoneOffset.UTC));
+
+	@Test
+	public void reserveWhenBudgetUnknownThenNoDelay() {
+		assertThat(this.rateLimiter.reserve()).isZero();
+		assertThat(this.rateLimiter.getRateLimit()).isNull();
+	}
+
+	@Test
+	public void reserveWhenBudgetAvailableThenNoDelay() {
+		this.rateLimiter.update(rateLimitHeaders(5000, 4000, NOW.plusSeconds(600)));
+
+		assertThat(this.rateLimiter.reserve()).isZero();
+		assertThat(this.rateLimiter.getRateLimit()).isEqualTo(new RateLimit(5000, 3999, NOW.plusSeconds(600)));
+	}
+
+	@Test
+	public void reserveWhenBudgetLowThenRequestsSpreadUntilReset() {
+		this.rateLimiter.update(rateLimitHeaders(5000, 10, NOW.plusSeconds(100)));
+
+		assertThat(this.rateLimiter.reserve()).isZero();
+		assertThat(this.rateLimiter.reserve()).isEqualTo(Duration.ofSeconds(10));
+		assertThat(this.rateLimiter.reserve()).isEqualTo(Duration.ofSeconds(100).dividedBy(9).plusSeconds(10));
+	}
+
+	@Test
+	public void reserveWhenBudgetExhaustedThenWaitUntilReset() {
+		this.rateLimiter.update(rateLimitHeaders(5000, 0, NOW.plusSeconds(300)));
+
+		assertThat(this.rateLimiter.reserve()).isEqualTo(Duration.ofSeconds(300));
+		// Released one at a time after the reset, 3600s / 5000 apart
+		assertThat(this.rateLimiter.reserve()).isEqualTo(Duration.ofMillis(300_720));
+		assertThat(this.rateLimiter.reserve()).isEqualTo(Duration.ofMillis(301_440));
+	}
+
+	@Test
+	public void updateWhenOlderResetThenIgnored() {
+		this.rateLimiter.update(rateLimitHeaders(5000, 4000, NOW.plusSeconds(600)));
+		this.rateLimiter.update(rateLimitHeaders(5000, 10, NOW.minusSeconds(3000)));
+
+		assertThat(this.rateLimiter.getRateLimit()).isEqualTo(new RateLimit(5000, 4000, NOW.plusSeconds(600)));
+	}
+
+	@Test
+	public void updateWhenSameResetThenLowestRemainingKept() {
+		this.rateLimiter.update(rateLimitHeaders(5000, 3998, NOW.plusSeconds(600)));
+		// A response to an earlier request that completes last
+		this.rateLimiter.update(rateLimitHeaders(5000, 3999, NOW.plusSeconds(600)));
+
+		assertThat(this.rateLimiter.getRateLimit()).isEqualTo(new RateLimit(5000, 3998, NOW.plusSeconds(600)));
+	}
+
+	@Test
+	public void updateWhenNewerResetThenUpdated() {
+		this.rateLimiter.update(rateLimitHeaders(5000, 0, NOW.plusSeconds(600)));
+		this.rateLimiter.update(rateLimitHeaders(5000, 4999, NOW.plusSeconds(4200)));
+
+		assertThat(this.rateLimiter.getRateLimit()).isEqualTo(new RateLimit(5000, 4999, NOW.plusSeconds(4200)));
+		assertThat(this.rateLimiter.reserve()).isZero();
+	}
+
+	@Test
+	public void reserveWhenResetPassedThenNoDelay() {
+		this.rateLimiter.update(rateLimitHeaders(5000, 0, NOW.minusSeconds(1)));
+
+		assertThat(this.rateLimiter.reserve()).isZero();
+		assertThat(this.rateLimiter.getRateLimit()).isNull();
+	}
+
+	@Test
+	public void reserveWhenRetryAfterThenWaitForRetryAfter() {
+		this.rateLimiter.update(headers(Map.of("Retry-After", List.of("60"))));
+
+		assertThat(this.rateLimiter.reserve()).isEqualTo(Duration.ofSeconds(60));
+	}
+
+	private static HttpHeaders rateLimitHeaders(long limit, long remaining, Instant reset) {
+		// @formatter:off
+		return headers(Map.of(
+				"X-RateLimit-Limit", List.of(String.valueOf(limit)),
+				"X-RateLimit-Remaining", List.of(String.valueOf(remaining)),
+				"X-RateLimit-Reset", List.of(String.valueOf(reset.getEpochSecond()))));
+		// @formatter:on
+	}
+
+	private static HttpHeaders headers(Map<String, List<String>> headers) {
+		return HttpHeaders.of(headers, (name, value) -> true);
+	}
+
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class of the API clients, which sends their requests through a chain of
+ * interceptors that records metrics, retries transient errors and fails fast while the
+ * API is unavailable, and reads their responses as JSON.
+ * <p>
+ * The chain is assembled on first use, and again after its configuration changes.
+ * Subclasses add the interceptors specific to their API with
+ * {@link #addInterceptors(List)}.
+ * <p>
+ * Response bodies are read with blocking I/O on a separate executor, not on the threads
+ * of the {@link HttpClient} executor, which also deliver the body data being read.
+ * Otherwise, many responses being parsed at once could hold every thread of a bounded
+ * client executor (see {@link HttpClients.Settings#withExecutor(Executor)}) while waiting
+ * for data that needs one of those threads.
+ */
+public abstract class ApiClient {
+
+	private static final AtomicInteger PARSER_THREADS = new AtomicInteger();
+
+	private static final Executor DEFAULT_PARSE_EXECUTOR = Executors.newCachedThreadPool((runnable) -> {
+		var thread = new Thread(runnable, "api-client-parser-" + PARSER_THREADS.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Transport httpTransport;
+
+	private final String name;
+
+	private final String baseUrl;
+
+	private RetryPolicy retryPolicy = RetryPolicy.builder().build();
+
+	private CircuitBreaker circuitBreaker;
+
+	private HttpClientMetrics metrics = HttpClientMetrics.shared();
+
+	private final List<Interceptor> interceptors = new CopyOnWriteArrayList<>();
+
+	private volatile Transport transport;
+
+	private Executor parseExecutor = DEFAULT_PARSE_EXECUTOR;
+
+	/**
+	 * @param httpClient The HTTP client used to send requests
+	 * @param name The name of the API, used to group metrics (e.g. {@code GitHub})
+	 * @param baseUrl The base URL of the API
+	 */
+	protected ApiClient(HttpClient httpClient, String name, String baseUrl) {
+		this.httpTransport = Transport.of(httpClient);
+		this.name = name;
+		this.baseUrl = baseUrl;
+		this.circuitBreaker = CircuitBreaker.shared(baseUrl);
+	}
+
+	/**
+	 * Set the policy used to retry requests that fail with a transient error, such as a
+	 * {@code 503 Service Unavailable}. By default, requests are sent up to 3 times.
+	 * @param retryPolicy The retry policy, or {@link RetryPolicy#NONE} to disable retries
+	 */
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+		invalidateTransport();
+	}
+
+	/**
+	 * Set the circuit breaker that fails requests fast while the API is unavailable. By
+	 * default, the circuit breaker is shared by all clients of the same host.
+	 * @param circuitBreaker The circuit breaker, or null to disable it
+	 */
+	public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+		invalidateTransport();
+	}
+
+	/**
+	 * Set the registry used to record request metrics.
+	 * @param metrics The metrics registry (defaults to
+	 * {@link HttpClientMetrics#shared()})
+	 */
+	public void setMetrics(HttpClientMetrics metrics) {
+		this.metrics = metrics;
+		invalidateTransport();
+	}
+
+	/**
+	 * Add an interceptor for every request sent by this instance. Interceptors are
+	 * applied in the order they are added, after the built-in interceptors, so they see
+	 * every attempt of a request.
+	 * @param interceptor The interceptor
+	 */
+	public void addInterceptor(Interceptor interceptor) {
+		this.interceptors.add(interceptor);
+		invalidateTransport();
+	}
+
+	/**
+	 * Set the executor used to read and parse response bodies. By default, a cached
+	 * thread pool shared by all clients is used.
+	 * @param parseExecutor The executor, which should not be the executor of the
+	 * {@link HttpClient}
+	 */
+	public void setParseExecutor(Executor parseExecutor) {
+		this.parseExecutor = parseExecutor;
+	}
+
+	protected final String getBaseUrl() {
+		return this.baseUrl;
+	}
+
+	protected final HttpClientMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Return the executor used to read and parse response bodies.
+	 * @return The parse executor
+	 */
+	protected final Executor getParseExecutor() {
+		return this.parseExecutor;
+	}
+
+	/**
+	 * Discard the chain of interceptors, so that it is assembled again with the current
+	 * configuration when the next request is sent.
+	 */
+	protected final void invalidateTransport() {
+		this.transport = null;
+	}
+
+	/**
+	 * Add the interceptors specific to the API, which are applied after retries and
+	 * before the circuit breaker and the interceptors added with
+	 * {@link #addInterceptor(Interceptor)}.
+	 * @param interceptors The chain of interceptors to add to
+	 */
+	protected void addInterceptors(List<Interceptor> interceptors) {
+	}
+
+	/**
+	 * Return the URI template of the endpoint of a request, used to group metrics.
+	 * @param httpRequest The request
+	 * @return The endpoint, e.g. {@code /projects/{slug}}
+	 */
+	protected abstract String endpoint(HttpRequest httpRequest);
+
+	/**
+	 * Create the exception thrown when the API responds with an error status.
+	 * @param statusCode The status code of the response
+	 * @param responseBody The body of the response
+	 * @return The exception
+	 */
+	protected abstract HttpClientException createException(int statusCode, String responseBody);
+
+	/**
+	 * Send a request through the chain of interceptors.
+	 * @param httpRequest The request
+	 * @return A future that completes with the response, whose body must be closed
+	 */
+	protected final CompletableFuture<HttpResponse<InputStream>> sendAsync(HttpRequest httpRequest) {
+		return transport().sendAsync(httpRequest, new Exchange(this.name, endpoint(httpRequest)));
+	}
+
+	/**
+	 * Send a request and read the JSON body of its response on the parse executor.
+	 * @param httpRequest The request
+	 * @param responseType The type of the response body, or {@link Void} to discard it
+	 * @param <T> The response body type
+	 * @return A future that completes with the response body
+	 */
+	protected <T> CompletableFuture<T> performRequestAsync(HttpRequest httpRequest, Class<T> responseType) {
+		return sendAsync(httpRequest).thenApplyAsync((httpResponse) -> readResponse(httpResponse, responseType),
+				this.parseExecutor);
+	}
+
+	/**
+	 * Read the JSON body of a response as it is received, instead of buffering it.
+	 * @param httpResponse The response
+	 * @param responseType The type of the response body, or {@link Void} to discard it
+	 * @param <T> The response body type
+	 * @return The response body
+	 */
+	protected final <T> T readResponse(HttpResponse<InputStream> httpResponse, Class<T> responseType) {
+		try (var body = body(httpResponse)) {
+			T value = Void.class.isAssignableFrom(responseType) ? null : Json.reader(responseType).readValue(body);
+			body.transferTo(OutputStream.nullOutputStream());
+			return value;
+		}
+		catch (IOException ex) {
+			throw new RuntimeException("Unable to perform request:", ex);
+		}
+	}
+
+	/**
+	 * Return the body of a successful response, or read the body of an error response
+	 * into the exception created by {@link #createException(int, String)}.
+	 * @param httpResponse The response
+	 * @return The body of the response
+	 * @throws IOException if the body of an error response cannot be read
+	 */
+	protected final InputStream body(HttpResponse<InputStream> httpResponse) throws IOException {
+		var body = httpResponse.body();
+		if (httpResponse.statusCode() >= 300) {
+			try (body) {
+				var responseBody = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+				throw createException(httpResponse.statusCode(), responseBody);
+			}
+		}
+		return body;
+	}
+
+	/**
+	 * Wait for a request to complete, rethrowing {@link HttpClientException} and other
+	 * unchecked exceptions as they are and wrapping any other failure.
+	 * @param future The future of the request
+	 * @param <T> The result type
+	 * @return The result of the request
+	 */
+	protected static <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.get();
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new RuntimeException("Unable to perform request:", ex.getCause());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Unable to perform request:", ex);
+		}
+	}
+
+	protected static void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close();
+		}
+		catch (IOException ex) {
+			// Ignore
+		}
+	}
+
+	/**
+	 * Return the chain of interceptors every request is sent through, which is assembled
+	 * again after its configuration changes.
+	 */
+	private Transport transport() {
+		var transport = this.transport;
+		if (transport == null) {
+			var interceptors = new ArrayList<Interceptor>();
+			interceptors.add(new ObservationInterceptor(this.metrics));
+			interceptors.add(this.retryPolicy);
+			addInterceptors(interceptors);
+			// Innermost, so that each attempt is timed without backoffs and rate limit
+			// waits
+			if (this.circuitBreaker != null) {
+				interceptors.add(this.circuitBreaker);
+			}
+			interceptors.addAll(this.interceptors);
+			transport = this.httpTransport.intercept(interceptors);
+			this.transport = transport;
+		}
+		return transport;
+	}
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+
+/**
+ * An {@link HttpClient} that records responses to an {@link HttpCassette} or replays them
+ * from it.
+ */
+final class CassetteHttpClient extends HttpClient {
+
+	private final HttpCassette cassette;
+
+	private final HttpClient httpClient;
+
+	/**
+	 * @param cassette The cassette
+	 * @param httpClient The client used to send and record requests, or null to replay
+	 */
+	CassetteHttpClient(HttpCassette cassette, HttpClient httpClient) {
+		this.cassette = cassette;
+		this.httpClient = httpClient;
+	}
+
+	@Override
+	public <T> HttpResponse<T> send(HttpRequest httpRequest, HttpResponse.BodyHandler<T> responseBodyHandler)
+			throws IOException, InterruptedException {
+		try {
+			return sendAsync(httpRequest, responseBodyHandler).get();
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IOException(ex.getCause());
+		}
+	}
+
+	@Override
+	public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest httpRequest,
+			HttpResponse.BodyHandler<T> responseBodyHandler) {
+		if (this.httpClient == null) {
+			try {
+				var interaction = this.cassette.next(httpRequest);
+				return respond(httpRequest, interaction.statusCode(), interaction.headers(),
+						interaction.body().duplicate(), responseBodyHandler);
+			}
+			catch (IllegalStateException ex) {
+				return CompletableFuture.failedFuture(ex);
+			}
+		}
+		// Read the body as received, so a compressed response is recorded compressed
+		return this.httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
+			.thenCompose((httpResponse) -> {
+				try {
+					this.cassette.write(httpRequest, httpResponse.statusCode(), httpResponse.headers(),
+							httpResponse.body());
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException("Unable to record response:", ex);
+				}
+				return respond(httpRequest, httpResponse.statusCode(), httpResponse.headers(),
+						ByteBuffer.wrap(httpResponse.body()), responseBodyHandler);
+			});
+	}
+
+	@Override
+	public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest httpRequest,
+			HttpResponse.BodyHandler<T> responseBodyHandler, HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+		return sendAsync(httpRequest, responseBodyHandler);
+	}
+
+	/**
+	 * Complete a response by passing its body to the subscriber of the body handler.
+	 */
+	private static <T> CompletableFuture<HttpResponse<T>> respond(HttpRequest httpRequest, int statusCode,
+			HttpHeaders headers, ByteBuffer body, HttpResponse.BodyHandler<T> responseBodyHandler) {
+		var responseInfo = new ResponseInfo(statusCode, headers, Version.HTTP_1_1);
+		var bodySubscriber = responseBodyHandler.apply(responseInfo);
+		bodySubscriber.onSubscribe(new Flow.Subscription() {
+
+			private boolean done;
+
+			@Override
+			public void request(long n) {
+				if (!this.done && n > 0) {
+					this.done = true;
+					if (body.hasRemaining()) {
+						bodySubscriber.onNext(List.of(body));
+					}
+					bodySubscriber.onComplete();
+				}
+			}
+
+			@Override
+			public void cancel() {
+				this.done = true;
+			}
+
+		});
+		return bodySubscriber.getBody()
+			.toCompletableFuture()
+			.thenApply((responseBody) -> new Response<>(httpRequest, responseInfo, responseBody));
+	}
+
+	@Override
+	public Optional<CookieHandler> cookieHandler() {
+		return (this.httpClient != null) ? this.httpClient.cookieHandler() : Optional.empty();
+	}
+
+	@Override
+	public Optional<Duration> connectTimeout() {
+		return (this.httpClient != null) ? this.httpClient.connectTimeout() : Optional.empty();
+	}
+
+	@Override
+	public Redirect followRedirects() {
+		return (this.httpClient != null) ? this.httpClient.followRedirects() : Redirect.NEVER;
+	}
+
+	@Override
+	public Optional<ProxySelector> proxy() {
+		return (this.httpClient != null) ? this.httpClient.proxy() : Optional.empty();
+	}
+
+	@Override
+	public SSLContext sslContext() {
+		if (this.httpClient != null) {
+			return this.httpClient.sslContext();
+		}
+		try {
+			return SSLContext.getDefault();
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@Override
+	public SSLParameters sslParameters() {
+		return (this.httpClient != null) ? this.httpClient.sslParameters() : new SSLParameters();
+	}
+
+	@Override
+	public Optional<Authenticator> authenticator() {
+		return (this.httpClient != null) ? this.httpClient.authenticator() : Optional.empty();
+	}
+
+	@Override
+	public Version version() {
+		return (this.httpClient != null) ? this.httpClient.version() : Version.HTTP_1_1;
+	}
+
+	@Override
+	public Optional<Executor> executor() {
+		return (this.httpClient != null) ? this.httpClient.executor() : Optional.empty();
+	}
+
+	private record ResponseInfo(int statusCode, HttpHeaders headers,
+			Version version) implements HttpResponse.ResponseInfo {
+	}
+
+	private record Response<T>(HttpRequest request, ResponseInfo responseInfo, T body) implements HttpResponse<T> {
+
+		@Override
+		public int statusCode() {
+			return this.responseInfo.statusCode();
+		}
+
+		@Override
+		public HttpHeaders headers() {
+			return this.responseInfo.headers();
+		}
+
+		@Override
+		public Optional<HttpResponse<T>> previousResponse() {
+			return Optional.empty();
+		}
+
+		@Override
+		public Optional<SSLSession> sslSession() {
+			return Optional.empty();
+		}
+
+		@Override
+		public URI uri() {
+			return this.request.uri();
+		}
+
+		@Override
+		public Version version() {
+			return this.responseInfo.version();
+		}
+
+	}
+
+}
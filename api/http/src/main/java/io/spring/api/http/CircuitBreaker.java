@@ -0,0 +1,345 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Fails requests fast while a host is unavailable, instead of letting each of them wait
+ * for a connection or read timeout.
+ * <p>
+ * The circuit opens after a number of consecutive requests fail, where a request fails
+ * when it receives no response, a {@code 5xx} response, or a response that took longer
+ * than the slow call threshold. Requests are not given a timeout by default, so a host
+ * that accepts connections but never responds only counts as failed once the request
+ * times out. A {@link Builder#responseTimeout(Duration) response timeout} can be set to
+ * bound the wait for the response of a request that has no timeout of its own. Each
+ * attempt of a request is timed and counted separately, as the circuit breaker is applied
+ * after retries and rate limiting (see {@link ApiClient}), so that waiting for a backoff
+ * or a rate limit reset is not mistaken for a slow host. While the circuit is open,
+ * requests fail immediately with an {@link OpenException}. Once the open duration has
+ * passed, a single trial request is let through (half-open): the circuit closes if it
+ * succeeds, and opens again if it fails. Other requests fail immediately until the trial
+ * completes.
+ * <p>
+ * Circuit breakers returned by {@link #shared(String)} are shared by all clients of the
+ * same host in a JVM (e.g. all tasks of a Gradle build), so that once one request finds a
+ * host unavailable, the others do not wait for it too. The state of a circuit breaker is
+ * recorded as the {@code circuitBreaker.<host>.state} gauge, where 0 is closed, 1 is open
+ * and 2 is half-open.
+ */
+public final class CircuitBreaker implements Interceptor {
+
+	private static final Logger LOGGER = Logger.getLogger(CircuitBreaker.class.getName());
+
+	private static final Map<String, CircuitBreaker> SHARED = new ConcurrentHashMap<>();
+
+	private final String name;
+
+	private final int failureThreshold;
+
+	private final Duration slowCallThreshold;
+
+	private final Duration openDuration;
+
+	private final Duration responseTimeout;
+
+	private final Clock clock;
+
+	private State state = State.CLOSED;
+
+	private int consecutiveFailures;
+
+	private Instant openedAt;
+
+	private boolean trialInProgress;
+
+	private CircuitBreaker(String name, int failureThreshold, Duration slowCallThreshold, Duration openDuration,
+			Duration responseTimeout, Clock clock) {
+		this.name = name;
+		this.failureThreshold = failureThreshold;
+		this.slowCallThreshold = slowCallThreshold;
+		this.openDuration = openDuration;
+		this.responseTimeout = responseTimeout;
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the circuit breaker shared by all clients of the host of a base URL, with
+	 * the default settings.
+	 * @param baseUrl The base URL of an API
+	 * @return The circuit breaker of the host
+	 */
+	public static CircuitBreaker shared(String baseUrl) {
+		var authority = URI.create(baseUrl).getAuthority();
+		var name = (authority != null) ? authority : baseUrl;
+		return SHARED.computeIfAbsent(name, (key) -> builder(key).build());
+	}
+
+	/**
+	 * @param name The name of the circuit breaker, e.g. the host it protects
+	 */
+	public static Builder builder(String name) {
+		return new Builder(name);
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public synchronized State getState() {
+		return this.state;
+	}
+
+	@Override
+	public CompletableFuture<HttpResponse<InputStream>> intercept(HttpRequest httpRequest, Exchange exchange,
+			Transport next) {
+		var metrics = exchange.getAttribute(HttpClientMetrics.class);
+		var rejection = acquire();
+		if (rejection != null) {
+			record(metrics);
+			return CompletableFuture.failedFuture(rejection);
+		}
+		var startNanos = System.nanoTime();
+		return next.sendAsync(withTimeout(httpRequest), exchange).whenComplete((httpResponse, ex) -> {
+			// A transport completes either with a response or with a failure, never with null
+			var slow = System.nanoTime() - startNanos > this.slowCallThreshold.toNanos();
+			onResult(ex != null || httpResponse.statusCode() >= 500 || slow);
+			record(metrics);
+		});
+	}
+
+	/**
+	 * Apply the response timeout, if any, to a request that has no timeout, which fails
+	 * it with an {@link java.net.http.HttpTimeoutException} if the response headers are
+	 * not received in time.
+	 */
+	private HttpRequest withTimeout(HttpRequest httpRequest) {
+		if (this.responseTimeout == null || httpRequest.timeout().isPresent()) {
+			return httpRequest;
+		}
+		return HttpRequest.newBuilder(httpRequest, (name, value) -> true).timeout(this.responseTimeout).build();
+	}
+
+	/**
+	 * Acquire the permission to send a request.
+	 * @return null if the request can be sent, or the exception to fail it with
+	 */
+	private synchronized OpenException acquire() {
+		if (tryAcquire()) {
+			return null;
+		}
+		return new OpenException(this.name, (this.state == State.OPEN) ? retryAt() : null);
+	}
+
+	/**
+	 * Determine if a request can be sent, moving from open to half-open once the open
+	 * duration has passed.
+	 * @return true if the request can be sent
+	 */
+	synchronized boolean tryAcquire() {
+		if (this.state == State.OPEN && !this.clock.instant().isBefore(retryAt())) {
+			this.state = State.HALF_OPEN;
+			this.trialInProgress = false;
+			LOGGER.info("Sending a trial request to %s".formatted(this.name));
+		}
+		return switch (this.state) {
+			case CLOSED -> true;
+			case OPEN -> false;
+			case HALF_OPEN -> {
+				// Only one trial request at a time
+				var acquired = !this.trialInProgress;
+				this.trialInProgress = true;
+				yield acquired;
+			}
+		};
+	}
+
+	/**
+	 * Record the outcome of a request.
+	 * @param failure true if the request failed
+	 */
+	synchronized void onResult(boolean failure) {
+		if (this.state == State.HALF_OPEN) {
+			this.trialInProgress = false;
+			if (failure) {
+				open();
+			}
+			else {
+				LOGGER.info("Closing the circuit to %s".formatted(this.name));
+				this.state = State.CLOSED;
+				this.consecutiveFailures = 0;
+			}
+		}
+		else if (this.state == State.CLOSED) {
+			this.consecutiveFailures = failure ? this.consecutiveFailures + 1 : 0;
+			if (this.consecutiveFailures >= this.failureThreshold) {
+				open();
+			}
+		}
+	}
+
+	private void open() {
+		LOGGER.warning("Opening the circuit to %s for %ss after %s consecutive failures".formatted(this.name,
+				this.openDuration.toSeconds(), Math.max(this.consecutiveFailures, 1)));
+		this.state = State.OPEN;
+		this.openedAt = this.clock.instant();
+		this.consecutiveFailures = 0;
+	}
+
+	private Instant retryAt() {
+		return this.openedAt.plus(this.openDuration);
+	}
+
+	private void record(HttpClientMetrics metrics) {
+		if (metrics != null) {
+			metrics.gauge("circuitBreaker.%s.state".formatted(this.name), getState().ordinal());
+		}
+	}
+
+	/**
+	 * The state of a circuit breaker.
+	 */
+	public enum State {
+
+		/**
+		 * Requests are sent.
+		 */
+		CLOSED,
+
+		/**
+		 * Requests fail without being sent.
+		 */
+		OPEN,
+
+		/**
+		 * A single trial request is sent to determine if the host is available again.
+		 */
+		HALF_OPEN
+
+	}
+
+	/**
+	 * Thrown instead of sending a request while the circuit is open.
+	 */
+	public static final class OpenException extends RuntimeException {
+
+		private final Instant retryAt;
+
+		private OpenException(String name, Instant retryAt) {
+			super((retryAt != null) ? "%s is unavailable, failing fast until %s".formatted(name, retryAt)
+					: "%s is unavailable, failing fast until a trial request completes".formatted(name));
+			this.retryAt = retryAt;
+		}
+
+		/**
+		 * Return the time after which a trial request will be sent.
+		 * @return The retry time, or null if a trial request is in progress
+		 */
+		public Instant getRetryAt() {
+			return this.retryAt;
+		}
+
+	}
+
+	public static final class Builder {
+
+		private final String name;
+
+		private int failureThreshold = 5;
+
+		private Duration slowCallThreshold = Duration.ofSeconds(30);
+
+		private Duration openDuration = Duration.ofSeconds(60);
+
+		private Duration responseTimeout;
+
+		private Clock clock = Clock.systemUTC();
+
+		private Builder(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @param failureThreshold The number of consecutive failed requests that open the
+		 * circuit (defaults to 5)
+		 */
+		public Builder failureThreshold(int failureThreshold) {
+			if (failureThreshold < 1) {
+				throw new IllegalArgumentException("failureThreshold must be greater than 0");
+			}
+			this.failureThreshold = failureThreshold;
+			return this;
+		}
+
+		/**
+		 * @param slowCallThreshold The time after which a request counts as failed even
+		 * if it succeeds (defaults to 30 seconds)
+		 */
+		public Builder slowCallThreshold(Duration slowCallThreshold) {
+			if (slowCallThreshold.isNegative() || slowCallThreshold.isZero()) {
+				throw new IllegalArgumentException("slowCallThreshold must be positive");
+			}
+			this.slowCallThreshold = slowCallThreshold;
+			return this;
+		}
+
+		/**
+		 * @param openDuration The time the circuit stays open before a trial request is
+		 * sent (defaults to 60 seconds)
+		 */
+		public Builder openDuration(Duration openDuration) {
+			this.openDuration = openDuration;
+			return this;
+		}
+
+		/**
+		 * @param responseTimeout The timeout applied to requests that have none, which
+		 * bounds the wait for the response headers but not the time taken to read the
+		 * body (defaults to none)
+		 */
+		public Builder responseTimeout(Duration responseTimeout) {
+			if (responseTimeout.isNegative() || responseTimeout.isZero()) {
+				throw new IllegalArgumentException("responseTimeout must be positive");
+			}
+			this.responseTimeout = responseTimeout;
+			return this;
+		}
+
+		Builder clock(Clock clock) {
+			this.clock = clock;
+			return this;
+		}
+
+		public CircuitBreaker build() {
+			return new CircuitBreaker(this.name, this.failureThreshold, this.slowCallThreshold, this.openDuration,
+					this.responseTimeout, this.clock);
+		}
+
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Support for compressed responses, which the JDK {@link java.net.http.HttpClient} does
+ * not negotiate or decode on its own.
+ * <p>
+ * Requests should send {@link #ACCEPT_ENCODING} and be sent with
+ * {@link #ofDecodedInputStream()}, which decodes a {@code gzip} or {@code deflate} body
+ * as it is read, so the JSON parser consumes the uncompressed content without it ever
+ * being buffered.
+ */
+public final class ContentEncoding {
+
+	/**
+	 * The value of the {@code Accept-Encoding} header for the encodings that are decoded.
+	 */
+	public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+	private ContentEncoding() {
+	}
+
+	/**
+	 * Return a body handler that streams the response body, decoding it according to its
+	 * {@code Content-Encoding} header.
+	 * @return The body handler
+	 */
+	public static HttpResponse.BodyHandler<InputStream> ofDecodedInputStream() {
+		return (responseInfo) -> {
+			var contentEncoding = responseInfo.headers().firstValue("Content-Encoding").orElse("identity");
+			return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(),
+					(body) -> decode(body, contentEncoding));
+		};
+	}
+
+	/**
+	 * Decode a response body.
+	 * @param body The body as received
+	 * @param contentEncoding The value of the {@code Content-Encoding} header
+	 * @return The decoded body
+	 */
+	static InputStream decode(InputStream body, String contentEncoding) {
+		return switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+			// Decoding starts lazily, since the body is mapped before it arrives
+			case "gzip", "x-gzip" -> new DecodingInputStream(body, true);
+			case "deflate" -> new DecodingInputStream(body, false);
+			default -> body;
+		};
+	}
+
+	/**
+	 * Decodes a {@code gzip} or {@code deflate} (zlib) body with a
+	 * {@link GZIPInputStream} or {@link InflaterInputStream} created on first use, since
+	 * creating a {@link GZIPInputStream} blocks until the gzip header has been read.
+	 */
+	private static final class DecodingInputStream extends InputStream {
+
+		private final InputStream body;
+
+		private final boolean gzip;
+
+		private InputStream decoded;
+
+		private DecodingInputStream(InputStream body, boolean gzip) {
+			this.body = body;
+			this.gzip = gzip;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return decoded().read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return decoded().read(b, off, len);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return (this.decoded != null) ? this.decoded.available() : 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try (this.body) {
+				if (this.decoded != null) {
+					this.decoded.close();
+				}
+			}
+		}
+
+		private InputStream decoded() throws IOException {
+			if (this.decoded == null) {
+				// An empty body (e.g. of a 204 response) is not encoded
+				var body = new PushbackInputStream(this.body, 1);
+				var b = body.read();
+				if (b == -1) {
+					this.decoded = InputStream.nullInputStream();
+				}
+				else {
+					body.unread(b);
+					this.decoded = this.gzip ? new GZIPInputStream(body) : new InflaterInputStream(body);
+				}
+			}
+			return this.decoded;
+		}
+
+	}
+
+}
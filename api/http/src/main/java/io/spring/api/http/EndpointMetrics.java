@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of one endpoint of an API, e.g. {@code GET
+ * /repos/{owner}/{repo}/milestones} of the GitHub API.
+ * <p>
+ * All counters are {@link LongAdder LongAdders}, so recording from many threads does not
+ * contend on a single value.
+ */
+public final class EndpointMetrics implements EndpointMetricsMXBean {
+
+	private final String api;
+
+	private final String method;
+
+	private final String endpoint;
+
+	private final LongAdder requests = new LongAdder();
+
+	private final LongAdder errors = new LongAdder();
+
+	private final LongAdder cacheHits = new LongAdder();
+
+	private final LongAdder cacheMisses = new LongAdder();
+
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	EndpointMetrics(String api, String method, String endpoint) {
+		this.api = api;
+		this.method = method;
+		this.endpoint = endpoint;
+	}
+
+	/**
+	 * Record a completed request.
+	 * @param status The status code of the response, or 0 if no response was received
+	 * @param latencyNanos The time until the response was received (or the request
+	 * failed) in nanoseconds, including retries
+	 */
+	public void record(int status, long latencyNanos) {
+		this.requests.increment();
+		if (status == 0 || status >= 400) {
+			this.errors.increment();
+		}
+		this.latency.record(latencyNanos);
+	}
+
+	/**
+	 * Record a request that was answered from the response cache.
+	 */
+	public void recordCacheHit() {
+		this.cacheHits.increment();
+	}
+
+	/**
+	 * Record a request that could have been answered from the response cache, but was
+	 * not.
+	 */
+	public void recordCacheMiss() {
+		this.cacheMisses.increment();
+	}
+
+	@Override
+	public String getApi() {
+		return this.api;
+	}
+
+	@Override
+	public String getMethod() {
+		return this.method;
+	}
+
+	@Override
+	public String getEndpoint() {
+		return this.endpoint;
+	}
+
+	@Override
+	public long getRequestCount() {
+		return this.requests.sum();
+	}
+
+	@Override
+	public long getErrorCount() {
+		return this.errors.sum();
+	}
+
+	@Override
+	public long getCacheHitCount() {
+		return this.cacheHits.sum();
+	}
+
+	@Override
+	public long getCacheMissCount() {
+		return this.cacheMisses.sum();
+	}
+
+	@Override
+	public double getCacheHitRatio() {
+		var hits = getCacheHitCount();
+		var total = hits + getCacheMissCount();
+		return (total > 0) ? (double) hits / total : 0;
+	}
+
+	@Override
+	public double getLatencyP50() {
+		return millis(this.latency.percentile(50));
+	}
+
+	@Override
+	public double getLatencyP95() {
+		return millis(this.latency.percentile(95));
+	}
+
+	@Override
+	public double getLatencyP99() {
+		return millis(this.latency.percentile(99));
+	}
+
+	private static double millis(Duration duration) {
+		return duration.toNanos() / 1_000_000.0;
+	}
+
+}
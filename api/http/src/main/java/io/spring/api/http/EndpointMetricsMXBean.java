@@ -0,0 +1,59 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+/**
+ * The management interface of the {@link EndpointMetrics} of an endpoint.
+ */
+public interface EndpointMetricsMXBean {
+
+	String getApi();
+
+	String getMethod();
+
+	String getEndpoint();
+
+	long getRequestCount();
+
+	long getErrorCount();
+
+	long getCacheHitCount();
+
+	long getCacheMissCount();
+
+	/**
+	 * @return The ratio of requests answered from the response cache to all requests that
+	 * could have been, or zero if no request could have been
+	 */
+	double getCacheHitRatio();
+
+	/**
+	 * @return The median latency in milliseconds
+	 */
+	double getLatencyP50();
+
+	/**
+	 * @return The 95th percentile latency in milliseconds
+	 */
+	double getLatencyP95();
+
+	/**
+	 * @return The 99th percentile latency in milliseconds
+	 */
+	double getLatencyP99();
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A request sent by an API client through a {@link Transport}, from the first attempt
+ * until its response is returned.
+ * <p>
+ * The same exchange is passed to every {@link Interceptor} and every attempt of a
+ * request, so interceptors can share state for the request through its attributes.
+ */
+public final class Exchange {
+
+	private final String api;
+
+	private final String endpoint;
+
+	private final AtomicInteger attempts = new AtomicInteger();
+
+	private final Map<Class<?>, Object> attributes = new ConcurrentHashMap<>();
+
+	/**
+	 * @param api The name of the API (e.g. "GitHub")
+	 * @param endpoint The URI template of the endpoint, e.g.
+	 * {@code /repos/{owner}/{repo}/milestones}
+	 */
+	public Exchange(String api, String endpoint) {
+		this.api = api;
+		this.endpoint = endpoint;
+	}
+
+	public String getApi() {
+		return this.api;
+	}
+
+	public String getEndpoint() {
+		return this.endpoint;
+	}
+
+	/**
+	 * Record that an attempt to send the request is being made.
+	 */
+	public void attempt() {
+		this.attempts.incrementAndGet();
+	}
+
+	/**
+	 * Return the number of attempts after the first one.
+	 * @return The number of retries
+	 */
+	public int getRetries() {
+		return Math.max(this.attempts.get() - 1, 0);
+	}
+
+	/**
+	 * Return an attribute of the exchange.
+	 * @param type The type of the attribute, which is also its key
+	 * @param <T> The type of the attribute
+	 * @return The attribute, or null if it is not set
+	 */
+	public <T> T getAttribute(Class<T> type) {
+		return type.cast(this.attributes.get(type));
+	}
+
+	/**
+	 * Set an attribute of the exchange.
+	 * @param type The type of the attribute, which is also its key
+	 * @param value The attribute
+	 * @param <T> The type of the attribute
+	 */
+	public <T> void setAttribute(Class<T> type, T value) {
+		this.attributes.put(type, value);
+	}
+
+}
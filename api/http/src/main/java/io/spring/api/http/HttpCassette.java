@@ -0,0 +1,278 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A file of recorded HTTP interactions, used to run the API clients without a network.
+ * <p>
+ * A client created with {@link #record(Path, HttpClient)} sends requests as usual and
+ * appends each response to the cassette. A client created with {@link #replay(Path)}
+ * answers each request with the recorded response for the same method, URI and request
+ * body, in the order they were recorded (repeating the last one when a request is sent
+ * more often than it was recorded). Requests that were not recorded fail with an
+ * {@link IllegalStateException}.
+ * <p>
+ * Response bodies are recorded as received, so compressed responses are replayed
+ * compressed. The cassette is memory-mapped when it is replayed, and response bodies are
+ * handed to the client as slices of the mapping without being copied. Request headers,
+ * including credentials, are not recorded.
+ */
+public final class HttpCassette {
+
+	private static final int MAGIC = 0x53524341;
+
+	private static final int VERSION = 1;
+
+	private final Path file;
+
+	private final Map<String, List<Interaction>> interactions;
+
+	private final Map<String, AtomicInteger> replayed = new ConcurrentHashMap<>();
+
+	private HttpCassette(Path file, Map<String, List<Interaction>> interactions) {
+		this.file = file;
+		this.interactions = interactions;
+	}
+
+	/**
+	 * Create a client that records every response to a new cassette, replacing an
+	 * existing file.
+	 * @param file The cassette file
+	 * @param httpClient The client used to send requests
+	 * @return The recording client
+	 */
+	public static HttpClient record(Path file, HttpClient httpClient) {
+		try {
+			if (file.getParent() != null) {
+				Files.createDirectories(file.getParent());
+			}
+			var header = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).array();
+			Files.write(file, header);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Unable to create cassette %s".formatted(file), ex);
+		}
+		return new CassetteHttpClient(new HttpCassette(file, Map.of()), httpClient);
+	}
+
+	/**
+	 * Create a client that answers requests from a recorded cassette without sending
+	 * them.
+	 * @param file The cassette file
+	 * @return The replaying client
+	 */
+	public static HttpClient replay(Path file) {
+		try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			// The mapping remains valid after the channel is closed
+			var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new CassetteHttpClient(new HttpCassette(file, read(file, buffer)), null);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Unable to read cassette %s".formatted(file), ex);
+		}
+	}
+
+	/**
+	 * Append an interaction to the cassette.
+	 * @param httpRequest The request
+	 * @param statusCode The status code of the response
+	 * @param headers The headers of the response
+	 * @param body The body of the response, as received
+	 */
+	synchronized void write(HttpRequest httpRequest, int statusCode, HttpHeaders headers, byte[] body)
+			throws IOException {
+		var entry = new ByteArrayOutputStream(body.length + 512);
+		var output = new DataOutputStream(entry);
+		writeString(output, key(httpRequest));
+		output.writeInt(statusCode);
+		var headerValues = new ArrayList<String[]>();
+		headers.map().forEach((name, values) -> {
+			// Skip HTTP/2 pseudo headers such as :status
+			if (!name.startsWith(":")) {
+				values.forEach((value) -> headerValues.add(new String[] { name, value }));
+			}
+		});
+		output.writeShort(headerValues.size());
+		for (var header : headerValues) {
+			writeString(output, header[0]);
+			writeString(output, header[1]);
+		}
+		output.writeInt(body.length);
+		output.write(body);
+		Files.write(this.file, entry.toByteArray(), StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Find the next recorded response to a request.
+	 * @param httpRequest The request
+	 * @return The recorded interaction
+	 * @throws IllegalStateException if the request was not recorded
+	 */
+	Interaction next(HttpRequest httpRequest) {
+		var key = key(httpRequest);
+		var recorded = this.interactions.get(key);
+		if (recorded == null) {
+			throw new IllegalStateException("No response recorded in %s for %s".formatted(this.file, key));
+		}
+		var count = this.replayed.computeIfAbsent(key, (k) -> new AtomicInteger()).getAndIncrement();
+		return recorded.get(Math.min(count, recorded.size() - 1));
+	}
+
+	private static Map<String, List<Interaction>> read(Path file, ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+			throw new IOException("Not a cassette: %s".formatted(file));
+		}
+		var interactions = new LinkedHashMap<String, List<Interaction>>();
+		while (buffer.hasRemaining()) {
+			var key = readString(file, buffer);
+			var statusCode = require(file, buffer, 4).getInt();
+			var headerCount = Short.toUnsignedInt(require(file, buffer, 2).getShort());
+			var headers = new LinkedHashMap<String, List<String>>();
+			for (var i = 0; i < headerCount; i++) {
+				var name = readString(file, buffer);
+				headers.computeIfAbsent(name, (k) -> new ArrayList<>()).add(readString(file, buffer));
+			}
+			var bodyLength = require(file, buffer, 4).getInt();
+			if (bodyLength < 0) {
+				throw new IOException("Corrupt cassette %s: invalid body length %s at offset %s".formatted(file,
+						bodyLength, buffer.position() - 4));
+			}
+			var body = require(file, buffer, bodyLength).slice(buffer.position(), bodyLength);
+			buffer.position(buffer.position() + bodyLength);
+			var interaction = new Interaction(statusCode, HttpHeaders.of(headers, (name, value) -> true), body);
+			interactions.computeIfAbsent(key, (k) -> new ArrayList<>()).add(interaction);
+		}
+		return interactions;
+	}
+
+	/**
+	 * Return the key of a request: its method, URI and a hash of its body, if any.
+	 */
+	private static String key(HttpRequest httpRequest) {
+		var key = "%s %s".formatted(httpRequest.method(), httpRequest.uri());
+		var body = requestBody(httpRequest);
+		if (body.length == 0) {
+			return key;
+		}
+		try {
+			var digest = MessageDigest.getInstance("SHA-256").digest(body);
+			return key + " " + HexFormat.of().formatHex(digest);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static byte[] requestBody(HttpRequest httpRequest) {
+		var bodyPublisher = httpRequest.bodyPublisher();
+		if (bodyPublisher.isEmpty() || bodyPublisher.get().contentLength() == 0) {
+			return new byte[0];
+		}
+		// Body publishers can be subscribed to again when the request is sent
+		var body = new ByteArrayOutputStream();
+		var result = new CompletableFuture<byte[]>();
+		bodyPublisher.get().subscribe(new Flow.Subscriber<>() {
+
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(ByteBuffer item) {
+				var bytes = new byte[item.remaining()];
+				item.get(bytes);
+				body.write(bytes, 0, bytes.length);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				result.completeExceptionally(throwable);
+			}
+
+			@Override
+			public void onComplete() {
+				result.complete(body.toByteArray());
+			}
+
+		});
+		return result.join();
+	}
+
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		var bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > 0xFFFF) {
+			throw new IOException("Value too long to record: %s...".formatted(value.substring(0, 64)));
+		}
+		output.writeShort(bytes.length);
+		output.write(bytes);
+	}
+
+	private static String readString(Path file, ByteBuffer buffer) throws IOException {
+		var bytes = new byte[Short.toUnsignedInt(require(file, buffer, 2).getShort())];
+		require(file, buffer, bytes.length).get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Check that a number of bytes remain to be read from a cassette, so that a truncated
+	 * file is reported instead of failing with a {@link java.nio.BufferUnderflowException}.
+	 */
+	private static ByteBuffer require(Path file, ByteBuffer buffer, int length) throws IOException {
+		if (buffer.remaining() < length) {
+			throw new IOException("Truncated cassette %s: expected %s bytes at offset %s, but only %s remain"
+				.formatted(file, length, buffer.position(), buffer.remaining()));
+		}
+		return buffer;
+	}
+
+	/**
+	 * A recorded response.
+	 *
+	 * @param statusCode The status code
+	 * @param headers The headers
+	 * @param body The body, as received
+	 */
+	record Interaction(int statusCode, HttpHeaders headers, ByteBuffer body) {
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+/**
+ * Thrown when an API responds with an error status.
+ */
+public class HttpClientException extends RuntimeException {
+
+	private final int statusCode;
+
+	private final String responseBody;
+
+	/**
+	 * @param statusCode The status code of the response
+	 * @param responseBody The body of the response
+	 */
+	public HttpClientException(int statusCode, String responseBody) {
+		super(statusCode + "[" + responseBody + "]");
+		this.statusCode = statusCode;
+		this.responseBody = responseBody;
+	}
+
+	public int getStatusCode() {
+		return this.statusCode;
+	}
+
+	public String getResponseBody() {
+		return this.responseBody;
+	}
+
+	@Override
+	public String toString() {
+		return this.statusCode + "[" + this.responseBody + "]";
+	}
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * A registry of request metrics of the API clients: request, error and cache counts and
+ * latency percentiles per endpoint, and gauges such as the remaining GitHub rate limit.
+ * <p>
+ * The {@link #shared() shared} registry is used by all API clients unless configured
+ * otherwise, and is exposed through JMX in the {@value #DOMAIN} domain. Recording is
+ * lock-free, so the registry can stay enabled for bulk and long-running operations.
+ */
+public final class HttpClientMetrics implements HttpClientMetricsMXBean {
+
+	/**
+	 * The JMX domain of the MBeans of a registry.
+	 */
+	public static final String DOMAIN = "io.spring.api.http";
+
+	private static final Logger LOGGER = Logger.getLogger(HttpClientMetrics.class.getName());
+
+	private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+	private final Map<String, AtomicLong> gauges = new ConcurrentHashMap<>();
+
+	private volatile MBeanServer mBeanServer;
+
+	/**
+	 * Return the registry shared by all API clients, registering it with the platform
+	 * MBean server on first use.
+	 * @return The shared registry
+	 */
+	public static HttpClientMetrics shared() {
+		return SharedHolder.SHARED;
+	}
+
+	/**
+	 * Register this registry and the metrics of each of its endpoints with an MBean
+	 * server, including endpoints that are added later.
+	 * @param mBeanServer The MBean server
+	 */
+	public void registerMBeans(MBeanServer mBeanServer) {
+		this.mBeanServer = mBeanServer;
+		register(objectName(), this);
+		this.endpoints.values().forEach((metrics) -> register(objectName(metrics), metrics));
+	}
+
+	/**
+	 * Return the metrics of an endpoint, creating them on first use.
+	 * @param api The name of the API (e.g. "GitHub")
+	 * @param method The request method
+	 * @param endpoint The URI template of the endpoint
+	 * @return The metrics of the endpoint
+	 */
+	public EndpointMetrics endpoint(String api, String method, String endpoint) {
+		var key = "%s %s %s".formatted(api, method, endpoint);
+		var metrics = this.endpoints.get(key);
+		if (metrics != null) {
+			return metrics;
+		}
+		return this.endpoints.computeIfAbsent(key, (k) -> {
+			var created = new EndpointMetrics(api, method, endpoint);
+			if (this.mBeanServer != null) {
+				register(objectName(created), created);
+			}
+			return created;
+		});
+	}
+
+	/**
+	 * Set the current value of a gauge.
+	 * @param name The name of the gauge (e.g. "github.rateLimit.remaining")
+	 * @param value The current value
+	 */
+	public void gauge(String name, long value) {
+		this.gauges.computeIfAbsent(name, (k) -> new AtomicLong()).set(value);
+	}
+
+	/**
+	 * Return the metrics of each endpoint that received a request.
+	 * @return The metrics, sorted by API, endpoint and method
+	 */
+	public List<EndpointMetrics> getEndpoints() {
+		// @formatter:off
+		return this.endpoints.values().stream()
+			.sorted(Comparator.comparing(EndpointMetrics::getApi)
+				.thenComparing(EndpointMetrics::getEndpoint)
+				.thenComparing(EndpointMetrics::getMethod))
+			.toList();
+		// @formatter:on
+	}
+
+	@Override
+	public Map<String, Long> getGauges() {
+		var gauges = new TreeMap<String, Long>();
+		this.gauges.forEach((name, value) -> gauges.put(name, value.get()));
+		return gauges;
+	}
+
+	/**
+	 * Determine if no request has been recorded.
+	 * @return true if there are no metrics, or false otherwise
+	 */
+	public boolean isEmpty() {
+		return this.endpoints.isEmpty() && this.gauges.isEmpty();
+	}
+
+	/**
+	 * Remove all metrics, e.g. at the end of a build when the registry outlives it.
+	 */
+	public void reset() {
+		var mBeanServer = this.mBeanServer;
+		for (var metrics : this.endpoints.values()) {
+			if (mBeanServer != null) {
+				unregister(objectName(metrics));
+			}
+		}
+		this.endpoints.clear();
+		this.gauges.clear();
+	}
+
+	/**
+	 * Write all metrics as JSON, with latencies in milliseconds.
+	 * @param file The file to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public void writeJson(Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Files.writeString(file, toJson(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Return all metrics as JSON, with latencies in milliseconds.
+	 * @return The metrics as JSON
+	 */
+	public String toJson() {
+		// @formatter:off
+		var endpoints = getEndpoints().stream()
+			.map((metrics) -> new EndpointSnapshot(metrics.getApi(), metrics.getMethod(), metrics.getEndpoint(),
+					metrics.getRequestCount(), metrics.getErrorCount(), metrics.getCacheHitCount(),
+					metrics.getCacheMissCount(), round(metrics.getLatencyP50()), round(metrics.getLatencyP95()),
+					round(metrics.getLatencyP99())))
+			.toList();
+		// @formatter:on
+		try {
+			return Json.writer(Snapshot.class)
+				.withDefaultPrettyPrinter()
+				.writeValueAsString(new Snapshot(getGauges(), endpoints));
+		}
+		catch (JsonProcessingException ex) {
+			throw new RuntimeException("Unable to serialize json:", ex);
+		}
+	}
+
+	private void register(ObjectName objectName, Object mBean) {
+		try {
+			if (this.mBeanServer.isRegistered(objectName)) {
+				this.mBeanServer.unregisterMBean(objectName);
+			}
+			this.mBeanServer.registerMBean(mBean, objectName);
+		}
+		catch (JMException ex) {
+			LOGGER.warning("Unable to register MBean %s: %s".formatted(objectName, ex.getMessage()));
+		}
+	}
+
+	private void unregister(ObjectName objectName) {
+		try {
+			if (this.mBeanServer.isRegistered(objectName)) {
+				this.mBeanServer.unregisterMBean(objectName);
+			}
+		}
+		catch (JMException ex) {
+			LOGGER.warning("Unable to unregister MBean %s: %s".formatted(objectName, ex.getMessage()));
+		}
+	}
+
+	private static ObjectName objectName() {
+		return objectName("%s:type=HttpClientMetrics".formatted(DOMAIN));
+	}
+
+	private static ObjectName objectName(EndpointMetrics metrics) {
+		return objectName("%s:type=EndpointMetrics,api=%s,method=%s,endpoint=%s".formatted(DOMAIN,
+				ObjectName.quote(metrics.getApi()), metrics.getMethod(), ObjectName.quote(metrics.getEndpoint())));
+	}
+
+	private static ObjectName objectName(String name) {
+		try {
+			return new ObjectName(name);
+		}
+		catch (JMException ex) {
+			throw new IllegalArgumentException(ex);
+		}
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 1000) / 1000.0;
+	}
+
+	/**
+	 * The metrics written by {@link #toJson()}.
+	 */
+	record Snapshot(Map<String, Long> gauges, List<EndpointSnapshot> endpoints) {
+	}
+
+	/**
+	 * The metrics of an endpoint written by {@link #toJson()}.
+	 */
+	record EndpointSnapshot(String api, String method, String endpoint, long requests, long errors, long cacheHits,
+			long cacheMisses, double latencyP50, double latencyP95, double latencyP99) {
+	}
+
+	private static final class SharedHolder {
+
+		private static final HttpClientMetrics SHARED = createShared();
+
+		private static HttpClientMetrics createShared() {
+			var metrics = new HttpClientMetrics();
+			metrics.registerMBeans(ManagementFactory.getPlatformMBeanServer());
+			return metrics;
+		}
+
+	}
+
+}
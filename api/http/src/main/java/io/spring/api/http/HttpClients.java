@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * A registry of {@link HttpClient} instances shared by all API clients in the JVM.
+ * <p>
+ * An {@link HttpClient} keeps its connections open between requests and prefers HTTP/2,
+ * so API clients that share one pay for connection setup and the TLS handshake once per
+ * host instead of once per instance.
+ */
+public final class HttpClients {
+
+	private static final Map<Settings, HttpClient> HTTP_CLIENTS = new ConcurrentHashMap<>();
+
+	private HttpClients() {
+	}
+
+	/**
+	 * Return the shared client with the default settings.
+	 * @return The shared HTTP client
+	 */
+	public static HttpClient shared() {
+		return shared(Settings.DEFAULT);
+	}
+
+	/**
+	 * Return the shared client with the given settings, creating it on first use.
+	 * @param settings The settings of the client
+	 * @return The shared HTTP client
+	 */
+	public static HttpClient shared(Settings settings) {
+		return HTTP_CLIENTS.computeIfAbsent(settings, Settings::createHttpClient);
+	}
+
+	/**
+	 * The settings of a shared {@link HttpClient}.
+	 *
+	 * @param connectTimeout The maximum time to wait for a connection to be established
+	 * @param executor The executor used for asynchronous tasks, or null to use the
+	 * default executor of the client
+	 */
+	public record Settings(Duration connectTimeout, Executor executor) {
+
+		/**
+		 * The default settings: a 10 second connect timeout and the default executor.
+		 */
+		public static final Settings DEFAULT = new Settings(Duration.ofSeconds(10), null);
+
+		/**
+		 * Return settings with a different connect timeout.
+		 * @param connectTimeout The maximum time to wait for a connection to be
+		 * established
+		 * @return New settings
+		 */
+		public Settings withConnectTimeout(Duration connectTimeout) {
+			return new Settings(connectTimeout, this.executor);
+		}
+
+		/**
+		 * Return settings with a different executor.
+		 * @param executor The executor used for asynchronous tasks
+		 * @return New settings
+		 */
+		public Settings withExecutor(Executor executor) {
+			return new Settings(this.connectTimeout, executor);
+		}
+
+		HttpClient createHttpClient() {
+			// @formatter:off
+			var builder = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.connectTimeout(this.connectTimeout);
+			// @formatter:on
+			if (this.executor != null) {
+				builder.executor(this.executor);
+			}
+			return builder.build();
+		}
+
+	}
+
+}
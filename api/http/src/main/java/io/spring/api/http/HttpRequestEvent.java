@@ -0,0 +1,207 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event for a request sent by an API client, from the time it is
+ * sent until its response body has been read and closed.
+ * <p>
+ * The duration of the event includes waiting for the rate limit and all retries. The
+ * body size is counted after content decoding, so it is larger than the bytes received
+ * for a compressed body, and the body read time includes waiting for the body to arrive
+ * as well as parsing it. Events are only recorded while a recording is running (e.g.
+ * started with {@code -XX:StartFlightRecording} or {@code jcmd <pid> JFR.start}).
+ */
+@Name(HttpRequestEvent.NAME)
+@Label("HTTP Request")
+@Category({ "Spring Release", "HTTP" })
+@Description("A request sent to the GitHub or Sagan API")
+@StackTrace(false)
+public final class HttpRequestEvent extends Event {
+
+	/**
+	 * The name of the event.
+	 */
+	public static final String NAME = "io.spring.api.http.HttpRequest";
+
+	@Label("API")
+	private String api;
+
+	@Label("Endpoint")
+	@Description("The URI template of the endpoint, e.g. /repos/{owner}/{repo}/milestones")
+	private String endpoint;
+
+	@Label("Method")
+	private String method;
+
+	@Label("Status")
+	@Description("The status code of the response, or 0 if no response was received")
+	private int status;
+
+	@Label("Decoded Response Body Size")
+	@Description("The size of the response body after content decoding, not the bytes received")
+	@DataAmount
+	private long decodedBodySize;
+
+	@Label("Time to First Byte")
+	@Description("The time until the response headers were received")
+	@Timespan
+	private long timeToFirstByte;
+
+	@Label("Body Read Time")
+	@Description("The time from the first read of the response body until it was closed")
+	@Timespan
+	private long readTime;
+
+	@Label("Retries")
+	private int retries;
+
+	private transient long startNanos;
+
+	private HttpRequestEvent(String api, String endpoint, String method) {
+		this.api = api;
+		this.endpoint = endpoint;
+		this.method = method;
+	}
+
+	/**
+	 * Begin an event for a request.
+	 * @param api The name of the API (e.g. "GitHub")
+	 * @param endpoint The URI template of the endpoint
+	 * @param httpRequest The request
+	 * @return The event
+	 */
+	public static HttpRequestEvent begin(String api, String endpoint, HttpRequest httpRequest) {
+		var event = new HttpRequestEvent(api, endpoint, httpRequest.method());
+		if (event.isEnabled()) {
+			event.startNanos = System.nanoTime();
+			event.begin();
+		}
+		return event;
+	}
+
+	/**
+	 * Set the number of times the request was sent again after the first attempt.
+	 * @param retries The number of retries
+	 */
+	public void setRetries(int retries) {
+		this.retries = retries;
+	}
+
+	/**
+	 * Record that the headers of the response were received, and return the body to read,
+	 * which completes the event when it is closed.
+	 * @param status The status code of the response
+	 * @param body The response body
+	 * @return The body to read
+	 */
+	public InputStream received(int status, InputStream body) {
+		if (!isEnabled()) {
+			return body;
+		}
+		this.status = status;
+		this.timeToFirstByte = System.nanoTime() - this.startNanos;
+		return new RecordingInputStream(body);
+	}
+
+	/**
+	 * Complete the event for a request that did not receive a response.
+	 */
+	public void failed() {
+		complete();
+	}
+
+	private void complete() {
+		end();
+		if (shouldCommit()) {
+			commit();
+		}
+	}
+
+	/**
+	 * Counts the decoded bytes of a response body and completes the event when it is
+	 * closed.
+	 */
+	private final class RecordingInputStream extends FilterInputStream {
+
+		private long firstReadNanos;
+
+		private boolean closed;
+
+		private RecordingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			started();
+			var b = super.read();
+			if (b != -1) {
+				HttpRequestEvent.this.decodedBodySize++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			started();
+			var n = super.read(b, off, len);
+			if (n > 0) {
+				HttpRequestEvent.this.decodedBodySize += n;
+			}
+			return n;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			}
+			finally {
+				if (!this.closed) {
+					this.closed = true;
+					if (this.firstReadNanos != 0) {
+						HttpRequestEvent.this.readTime = System.nanoTime() - this.firstReadNanos;
+					}
+					complete();
+				}
+			}
+		}
+
+		private void started() {
+			if (this.firstReadNanos == 0) {
+				this.firstReadNanos = System.nanoTime();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Intercepts the requests sent through a {@link Transport}, e.g. to retry, delay, observe
+ * or answer them.
+ *
+ * @see Transport#intercept(java.util.List)
+ */
+@FunctionalInterface
+public interface Interceptor {
+
+	/**
+	 * Intercept a request.
+	 * @param httpRequest The request
+	 * @param exchange The exchange the request belongs to
+	 * @param next The rest of the chain, which sends the request (zero or more times)
+	 * @return A future that completes with the response, whose body must be closed
+	 */
+	CompletableFuture<HttpResponse<InputStream>> intercept(HttpRequest httpRequest, Exchange exchange, Transport next);
+
+}
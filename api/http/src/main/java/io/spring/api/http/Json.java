@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.net.http.HttpRequest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * The JSON mapping shared by all API clients in a JVM.
+ * <p>
+ * Building an {@link ObjectMapper} and introspecting the records of an API (e.g. their
+ * canonical constructors) is expensive, so it is done once instead of for each client
+ * instance. Readers and writers are cached per type, which skips the lookup of the root
+ * (de)serializer on every request.
+ */
+public final class Json {
+
+	private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+		.defaultPropertyInclusion(
+				JsonInclude.Value.construct(JsonInclude.Include.NON_NULL, JsonInclude.Include.NON_NULL))
+		.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+		.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+		.addModule(new JavaTimeModule())
+		.build();
+
+	private static final ClassValue<ObjectReader> READERS = new ClassValue<>() {
+		@Override
+		protected ObjectReader computeValue(Class<?> type) {
+			return OBJECT_MAPPER.readerFor(type);
+		}
+	};
+
+	private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<>() {
+		@Override
+		protected ObjectWriter computeValue(Class<?> type) {
+			return OBJECT_MAPPER.writerFor(type);
+		}
+	};
+
+	private Json() {
+	}
+
+	/**
+	 * Return the shared mapper, which must not be reconfigured.
+	 * @return The object mapper
+	 */
+	public static ObjectMapper objectMapper() {
+		return OBJECT_MAPPER;
+	}
+
+	/**
+	 * Return the reader for a type, created on first use.
+	 * @param type The type to read (e.g. {@code Milestone[].class})
+	 * @return The reader
+	 */
+	public static ObjectReader reader(Class<?> type) {
+		return READERS.get(type);
+	}
+
+	/**
+	 * Return a request body with a value written as JSON.
+	 * @param value The value to write
+	 * @return The request body
+	 */
+	public static HttpRequest.BodyPublisher bodyPublisher(Object value) {
+		try {
+			// Encode straight to UTF-8 with recycled buffers instead of through a String
+			return HttpRequest.BodyPublishers.ofByteArray(writer(value.getClass()).writeValueAsBytes(value));
+		}
+		catch (JsonProcessingException ex) {
+			throw new RuntimeException("Unable to serialize json:", ex);
+		}
+	}
+
+	/**
+	 * Return the writer for a type, created on first use.
+	 * @param type The type to write
+	 * @return The writer
+	 */
+	public static ObjectWriter writer(Class<?> type) {
+		return WRITERS.get(type);
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies in microseconds with log-linear buckets, in the
+ * style of HdrHistogram.
+ * <p>
+ * Each power of two is split into 8 linear sub-buckets, so a recorded value is reported
+ * with a relative error of at most 12.5% while the whole range of a {@code long} fits in
+ * a few hundred buckets.
+ */
+final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * Record a latency.
+	 * @param nanos The latency in nanoseconds
+	 */
+	void record(long nanos) {
+		this.counts.incrementAndGet(bucket(Math.max(nanos, 0) / 1000));
+	}
+
+	/**
+	 * Return a percentile of the recorded latencies.
+	 * @param percentile The percentile, between 0 and 100
+	 * @return The upper bound of the bucket containing the percentile, or zero if no
+	 * latencies were recorded
+	 */
+	Duration percentile(double percentile) {
+		var counts = new long[BUCKETS];
+		var total = 0L;
+		for (var i = 0; i < BUCKETS; i++) {
+			counts[i] = this.counts.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return Duration.ZERO;
+		}
+		var rank = Math.max((long) Math.ceil(percentile / 100 * total), 1);
+		var cumulative = 0L;
+		for (var i = 0; i < BUCKETS; i++) {
+			cumulative += counts[i];
+			if (cumulative >= rank) {
+				return Duration.ofNanos(upperBound(i) * 1000);
+			}
+		}
+		return Duration.ofNanos(upperBound(BUCKETS - 1) * 1000);
+	}
+
+	static int bucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		var magnitude = 63 - Long.numberOfLeadingZeros(value);
+		var subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long upperBound(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		var magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		var subBucket = bucket % SUB_BUCKETS;
+		var lowerBound = (1L << magnitude) | ((long) subBucket << (magnitude - SUB_BUCKET_BITS));
+		return lowerBound + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+	}
+
+}
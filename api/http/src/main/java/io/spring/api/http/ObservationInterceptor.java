@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Records the {@link EndpointMetrics metrics} and an {@link HttpRequestEvent} of each
+ * request. It should be the outermost interceptor, so that the time spent on retries and
+ * waiting for rate limits is included.
+ * <p>
+ * The registry and the metrics of the endpoint are made available to the interceptors
+ * further down the chain as attributes of the {@link Exchange} (e.g. to count cache hits
+ * or record a gauge).
+ */
+public final class ObservationInterceptor implements Interceptor {
+
+	private final HttpClientMetrics metrics;
+
+	/**
+	 * @param metrics The registry used to record request metrics
+	 */
+	public ObservationInterceptor(HttpClientMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@Override
+	public CompletableFuture<HttpResponse<InputStream>> intercept(HttpRequest httpRequest, Exchange exchange,
+			Transport next) {
+		var endpointMetrics = this.metrics.endpoint(exchange.getApi(), httpRequest.method(), exchange.getEndpoint());
+		exchange.setAttribute(HttpClientMetrics.class, this.metrics);
+		exchange.setAttribute(EndpointMetrics.class, endpointMetrics);
+		var startNanos = System.nanoTime();
+		var event = HttpRequestEvent.begin(exchange.getApi(), exchange.getEndpoint(), httpRequest);
+		return next.sendAsync(httpRequest, exchange).whenComplete((httpResponse, ex) -> {
+			endpointMetrics.record((httpResponse != null) ? httpResponse.statusCode() : 0,
+					System.nanoTime() - startNanos);
+			event.setRetries(exchange.getRetries());
+			if (ex != null) {
+				event.failed();
+			}
+		})
+			.thenApply((httpResponse) -> StreamingHttpResponse.withBody(httpResponse,
+					event.received(httpResponse.statusCode(), httpResponse.body())));
+	}
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Retries requests that fail with a transient error, waiting an exponentially growing
+ * backoff with full jitter between attempts.
+ * <p>
+ * Idempotent requests ({@code GET}, {@code HEAD}, {@code OPTIONS}, {@code PUT} and
+ * {@code DELETE}) are retried on any of the retryable status codes, on a rate limited
+ * response and on an I/O error. Other requests (e.g. a {@code POST} that creates a
+ * release) are only retried when the server cannot have processed them: a rate limited
+ * response ({@code 429}, or {@code 403} with {@code Retry-After} or
+ * {@code X-RateLimit-Remaining: 0}) or a failure to connect. A request of any method
+ * that carries an {@value #IDEMPOTENCY_KEY_HEADER} header (e.g. a read-only GraphQL query
+ * sent with {@code POST}) is treated as idempotent.
+ */
+public final class RetryPolicy implements Interceptor {
+
+	private static final Logger LOGGER = Logger.getLogger(RetryPolicy.class.getName());
+
+	private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+
+	/**
+	 * The header that marks a request as safe to send again, whatever its method.
+	 */
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+	/**
+	 * A policy that sends each request once.
+	 */
+	public static final RetryPolicy NONE = builder().maxAttempts(1).build();
+
+	private final int maxAttempts;
+
+	private final Duration initialBackoff;
+
+	private final Duration maxBackoff;
+
+	private final Set<Integer> retryableStatusCodes;
+
+	private RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff,
+			Set<Integer> retryableStatusCodes) {
+		this.maxAttempts = maxAttempts;
+		this.initialBackoff = initialBackoff;
+		this.maxBackoff = maxBackoff;
+		this.retryableStatusCodes = Set.copyOf(retryableStatusCodes);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public int getMaxAttempts() {
+		return this.maxAttempts;
+	}
+
+	public Duration getInitialBackoff() {
+		return this.initialBackoff;
+	}
+
+	public Duration getMaxBackoff() {
+		return this.maxBackoff;
+	}
+
+	public Set<Integer> getRetryableStatusCodes() {
+		return this.retryableStatusCodes;
+	}
+
+	/**
+	 * Send a request, retrying it according to this policy.
+	 * @param httpRequest The request to send
+	 * @param exchange The function used to send each attempt
+	 * @param <T> The response body type
+	 * @return A future that completes with the response of the last attempt
+	 */
+	public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest httpRequest,
+			Function<HttpRequest, CompletableFuture<HttpResponse<T>>> exchange) {
+		return sendAsync(httpRequest, exchange, 1);
+	}
+
+	@Override
+	public CompletableFuture<HttpResponse<InputStream>> intercept(HttpRequest httpRequest, Exchange exchange,
+			Transport next) {
+		return sendAsync(httpRequest, (request) -> {
+			exchange.attempt();
+			return next.sendAsync(request, exchange);
+		});
+	}
+
+	private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest httpRequest,
+			Function<HttpRequest, CompletableFuture<HttpResponse<T>>> exchange, int attempt) {
+		return exchange.apply(httpRequest).handle((httpResponse, ex) -> {
+			var failure = (ex instanceof CompletionException) ? ex.getCause() : ex;
+			if (attempt >= this.maxAttempts || !isRetryable(httpRequest, httpResponse, failure)) {
+				return (failure != null) ? CompletableFuture.<HttpResponse<T>>failedFuture(failure)
+						: CompletableFuture.completedFuture(httpResponse);
+			}
+			if (httpResponse != null && httpResponse.body() instanceof Closeable body) {
+				// Release the connection of a streamed response that is not read
+				closeQuietly(body);
+			}
+			var backoff = backoff(attempt, httpResponse);
+			var reason = (failure != null) ? failure.toString() : "status " + httpResponse.statusCode();
+			LOGGER.info("Retrying %s %s in %sms after %s (attempt %s of %s)".formatted(httpRequest.method(),
+					httpRequest.uri(), backoff.toMillis(), reason, attempt + 1, this.maxAttempts));
+			var executor = CompletableFuture.delayedExecutor(backoff.toMillis(), TimeUnit.MILLISECONDS);
+			return CompletableFuture.supplyAsync(() -> httpRequest, executor)
+				.thenCompose((request) -> sendAsync(request, exchange, attempt + 1));
+		}).thenCompose(Function.identity());
+	}
+
+	/**
+	 * Determine if an attempt should be retried.
+	 * @param httpRequest The request
+	 * @param httpResponse The response, or null if the request failed
+	 * @param failure The failure, or null if a response was received
+	 * @return true if the request should be sent again
+	 */
+	boolean isRetryable(HttpRequest httpRequest, HttpResponse<?> httpResponse, Throwable failure) {
+		var idempotent = IDEMPOTENT_METHODS.contains(httpRequest.method())
+				|| httpRequest.headers().firstValue(IDEMPOTENCY_KEY_HEADER).isPresent();
+		if (failure != null) {
+			var notConnected = failure instanceof ConnectException || failure instanceof HttpConnectTimeoutException;
+			return notConnected || (idempotent && failure instanceof IOException);
+		}
+		if (isRateLimited(httpResponse)) {
+			return true;
+		}
+		return idempotent && this.retryableStatusCodes.contains(httpResponse.statusCode());
+	}
+
+	/**
+	 * Compute the backoff before the next attempt, using the {@code Retry-After} header
+	 * of the response as a lower bound.
+	 * @param attempt The number of the failed attempt, starting at 1
+	 * @param httpResponse The response, or null if the request failed
+	 * @return A random duration between zero and the exponential backoff for the attempt
+	 */
+	Duration backoff(int attempt, HttpResponse<?> httpResponse) {
+		var exponentialBackoff = this.initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 30));
+		var cap = (exponentialBackoff.compareTo(this.maxBackoff) > 0) ? this.maxBackoff : exponentialBackoff;
+		var backoff = Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap.toMillis() + 1));
+		if (httpResponse != null) {
+			var retryAfter = retryAfter(httpResponse);
+			if (retryAfter.compareTo(backoff) > 0) {
+				return retryAfter;
+			}
+		}
+		return backoff;
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close();
+		}
+		catch (IOException ex) {
+			// Ignore
+		}
+	}
+
+	private static boolean isRateLimited(HttpResponse<?> httpResponse) {
+		if (httpResponse.statusCode() == 429) {
+			return true;
+		}
+		if (httpResponse.statusCode() != 403) {
+			return false;
+		}
+		var headers = httpResponse.headers();
+		return headers.firstValue("Retry-After").isPresent()
+				|| headers.firstValue("X-RateLimit-Remaining").filter("0"::equals).isPresent();
+	}
+
+	private static Duration retryAfter(HttpResponse<?> httpResponse) {
+		try {
+			var retryAfter = httpResponse.headers().firstValueAsLong("Retry-After");
+			return retryAfter.isPresent() ? Duration.ofSeconds(retryAfter.getAsLong()) : Duration.ZERO;
+		}
+		catch (NumberFormatException ex) {
+			return Duration.ZERO;
+		}
+	}
+
+	public static final class Builder {
+
+		private int maxAttempts = 3;
+
+		private Duration initialBackoff = Duration.ofSeconds(1);
+
+		private Duration maxBackoff = Duration.ofSeconds(30);
+
+		private Set<Integer> retryableStatusCodes = Set.of(500, 502, 503, 504);
+
+		private Builder() {
+		}
+
+		/**
+		 * @param maxAttempts The maximum number of times a request is sent, including the
+		 * first attempt (defaults to 3)
+		 */
+		public Builder maxAttempts(int maxAttempts) {
+			if (maxAttempts < 1) {
+				throw new IllegalArgumentException("maxAttempts must be greater than 0");
+			}
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		/**
+		 * @param initialBackoff The maximum backoff before the first retry, doubled for
+		 * each further retry (defaults to 1 second)
+		 */
+		public Builder initialBackoff(Duration initialBackoff) {
+			this.initialBackoff = initialBackoff;
+			return this;
+		}
+
+		/**
+		 * @param maxBackoff The upper bound of the backoff between attempts (defaults to
+		 * 30 seconds)
+		 */
+		public Builder maxBackoff(Duration maxBackoff) {
+			this.maxBackoff = maxBackoff;
+			return this;
+		}
+
+		/**
+		 * @param retryableStatusCodes The status codes for which idempotent requests are
+		 * retried (defaults to 500, 502, 503 and 504)
+		 */
+		public Builder retryableStatusCodes(Set<Integer> retryableStatusCodes) {
+			this.retryableStatusCodes = retryableStatusCodes;
+			return this;
+		}
+
+		public RetryPolicy build() {
+			return new RetryPolicy(this.maxAttempts, this.initialBackoff, this.maxBackoff, this.retryableStatusCodes);
+		}
+
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+
+import javax.net.ssl.SSLSession;
+
+/**
+ * A response with a replaced status, headers or body, such as a {@code 304 Not Modified}
+ * response with the body and links of a cached response, or a body that is observed as it
+ * is read.
+ *
+ * @param response The original response
+ * @param statusCode The status code
+ * @param headers The headers
+ * @param body The body
+ */
+public record StreamingHttpResponse(HttpResponse<InputStream> response, int statusCode, HttpHeaders headers,
+		InputStream body) implements HttpResponse<InputStream> {
+
+	/**
+	 * Return a response with the same status and headers as a response, but a different
+	 * body.
+	 * @param response The original response
+	 * @param body The body
+	 * @return The response
+	 */
+	public static HttpResponse<InputStream> withBody(HttpResponse<InputStream> response, InputStream body) {
+		return (body != response.body())
+				? new StreamingHttpResponse(response, response.statusCode(), response.headers(), body) : response;
+	}
+
+	@Override
+	public HttpRequest request() {
+		return this.response.request();
+	}
+
+	@Override
+	public Optional<HttpResponse<InputStream>> previousResponse() {
+		return this.response.previousResponse();
+	}
+
+	@Override
+	public Optional<SSLSession> sslSession() {
+		return this.response.sslSession();
+	}
+
+	@Override
+	public URI uri() {
+		return this.response.uri();
+	}
+
+	@Override
+	public HttpClient.Version version() {
+		return this.response.version();
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the requests of an API client and streams their responses.
+ * <p>
+ * The transport of a client is an {@link HttpClient} wrapped by an ordered chain of
+ * {@link Interceptor interceptors}, which implement cross-cutting behaviors such as
+ * retries, rate limiting, caching and metrics once for all clients.
+ */
+@FunctionalInterface
+public interface Transport {
+
+	/**
+	 * Send a request.
+	 * @param httpRequest The request
+	 * @param exchange The exchange the request belongs to
+	 * @return A future that completes with the response, whose body must be closed
+	 */
+	CompletableFuture<HttpResponse<InputStream>> sendAsync(HttpRequest httpRequest, Exchange exchange);
+
+	/**
+	 * Return a transport that sends requests with an {@link HttpClient}, decoding
+	 * compressed responses (see {@link ContentEncoding}).
+	 * @param httpClient The HTTP client
+	 * @return The transport
+	 */
+	static Transport of(HttpClient httpClient) {
+		return (httpRequest, exchange) -> httpClient.sendAsync(httpRequest, ContentEncoding.ofDecodedInputStream());
+	}
+
+	/**
+	 * Return a transport that passes each request through a chain of interceptors before
+	 * sending it with this transport.
+	 * @param interceptors The interceptors, from the outermost (which sees each request
+	 * first and its response last) to the innermost
+	 * @return The transport
+	 */
+	default Transport intercept(List<? extends Interceptor> interceptors) {
+		Transport transport = this;
+		for (var i = interceptors.size() - 1; i >= 0; i--) {
+			var interceptor = interceptors.get(i);
+			var next = transport;
+			transport = (httpRequest, exchange) -> interceptor.intercept(httpRequest, exchange, next);
+		}
+		return transport;
+	}
+
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CircuitBreakerTests {
+
+	private static final HttpRequest HTTP_REQUEST = HttpRequest.newBuilder(URI.create("https://api.spring.io/projects"))
+		.GET()
+		.build();
+
+	private final MutableClock clock = new MutableClock(Instant.parse("2024-01-15T12:00:00Z"));
+
+	private final AtomicInteger sent = new AtomicInteger();
+
+	private CircuitBreaker circuitBreaker;
+
+	@BeforeEach
+	public void setUp() {
+		// @formatter:off
+		this.circuitBreaker = CircuitBreaker.builder("api.spring.io")
+			.failureThreshold(3)
+			.openDuration(Duration.ofSeconds(60))
+			.clock(this.clock)
+			.build();
+		// @formatter:on
+	}
+
+	@Test
+	public void interceptWhenConsecutiveFailuresThenOpenAndFailFast() {
+		send(respond(503));
+		assertThatExceptionOfType(CompletionException.class)
+			.isThrownBy(() -> send(failWith(new IOException("Connection reset"))));
+		assertThat(this.circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+		send(respond(500));
+		assertThat(this.circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		assertThatExceptionOfType(CompletionException.class).isThrownBy(() -> send(respond(200)))
+			.havingCause()
+			.isInstanceOf(CircuitBreaker.OpenException.class)
+			.withMessage("api.spring.io is unavailable, failing fast until 2024-01-15T12:01:00Z");
+		assertThat(this.sent).hasValue(3);
+	}
+
+	@Test
+	public void interceptWhenFailuresNotConsecutiveThenClosed() {
+		send(respond(503));
+		send(respond(503));
+		send(respond(404));
+		send(respond(503));
+		send(respond(503));
+		assertThat(this.circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	public void interceptWhenSlowThenCountedAsFailure() {
+		// @formatter:off
+		var circuitBreaker = CircuitBreaker.builder("api.spring.io")
+			.failureThreshold(1)
+			.slowCallThreshold(Duration.ofMillis(1))
+			.clock(this.clock)
+			.build();
+		// @formatter:on
+		Transport slow = (httpRequest, exchange) -> CompletableFuture.supplyAsync(() -> {
+			sleep(5);
+			return response(200);
+		});
+		slow.intercept(List.of(circuitBreaker)).sendAsync(HTTP_REQUEST, new Exchange("Sagan", "/projects")).join();
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+
+	@Test
+	public void interceptWhenNoResponseWithinResponseTimeoutThenTimedOutAndCountedAsFailure() throws Exception {
+		// @formatter:off
+		var circuitBreaker = CircuitBreaker.builder("api.spring.io")
+			.failureThreshold(1)
+			.responseTimeout(Duration.ofMillis(200))
+			.clock(this.clock)
+			.build();
+		// @formatter:on
+		try (var server = new MockWebServer()) {
+			server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+			var transport = Transport.of(HttpClient.newHttpClient()).intercept(List.of(circuitBreaker));
+			var httpRequest = HttpRequest.newBuilder(server.url("/projects").uri()).GET().build();
+			assertThatExceptionOfType(CompletionException.class)
+				.isThrownBy(() -> transport.sendAsync(httpRequest, new Exchange("Sagan", "/projects")).join())
+				.withCauseInstanceOf(HttpTimeoutException.class);
+		}
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+
+	@Test
+	public void interceptWhenNoResponseTimeoutThenRequestSentWithoutTimeout() {
+		var sentRequest = new CompletableFuture<HttpRequest>();
+		send((httpRequest, exchange) -> {
+			sentRequest.complete(httpRequest);
+			return CompletableFuture.completedFuture(response(200));
+		});
+		assertThat(sentRequest.join().timeout()).isEmpty();
+	}
+
+	@Test
+	public void interceptWhenOpenDurationPassedAndTrialSucceedsThenClosed() {
+		open();
+		this.clock.advance(Duration.ofSeconds(60));
+		send(respond(200));
+		assertThat(this.circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+		send(respond(200));
+		assertThat(this.sent).hasValue(5);
+	}
+
+	@Test
+	public void interceptWhenOpenDurationPassedAndTrialFailsThenOpenAgain() {
+		open();
+		this.clock.advance(Duration.ofSeconds(60));
+		send(respond(503));
+		assertThat(this.circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThatExceptionOfType(CompletionException.class).isThrownBy(() -> send(respond(200)))
+			.withCauseInstanceOf(CircuitBreaker.OpenException.class);
+		assertThat(this.sent).hasValue(4);
+	}
+
+	@Test
+	public void interceptWhenTrialInProgressThenOtherRequestsFailFast() {
+		open();
+		this.clock.advance(Duration.ofSeconds(60));
+		var trial = new CompletableFuture<HttpResponse<InputStream>>();
+		var pending = transport((httpRequest, exchange) -> trial).sendAsync(HTTP_REQUEST,
+				new Exchange("Sagan", "/projects"));
+		assertThat(this.circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		var failure = catchThrowable(() -> send(respond(200))).getCause();
+		assertThat(failure).isInstanceOf(CircuitBreaker.OpenException.class)
+			.hasMessage("api.spring.io is unavailable, failing fast until a trial request completes");
+		assertThat(((CircuitBreaker.OpenException) failure).getRetryAt()).isNull();
+
+		trial.complete(response(200));
+		assertThat(pending.join().statusCode()).isEqualTo(200);
+		assertThat(this.circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	public void interceptWhenStateChangesThenGaugeRecorded() {
+		var metrics = new HttpClientMetrics();
+		var transport = respond(503).intercept(List.of(new ObservationInterceptor(metrics), this.circuitBreaker));
+		transport.sendAsync(HTTP_REQUEST, new Exchange("Sagan", "/projects")).join();
+		assertThat(metrics.getGauges()).containsEntry("circuitBreaker.api.spring.io.state", 0L);
+		transport.sendAsync(HTTP_REQUEST, new Exchange("Sagan", "/projects")).join();
+		transport.sendAsync(HTTP_REQUEST, new Exchange("Sagan", "/projects")).join();
+		assertThat(metrics.getGauges()).containsEntry("circuitBreaker.api.spring.io.state", 1L);
+	}
+
+	@Test
+	public void sharedWhenSameHostThenSameCircuitBreaker() {
+		var circuitBreaker = CircuitBreaker.shared("https://api.spring.io");
+		assertThat(CircuitBreaker.shared("https://api.spring.io/")).isSameAs(circuitBreaker);
+		assertThat(CircuitBreaker.shared("https://api.github.com")).isNotSameAs(circuitBreaker);
+		assertThat(circuitBreaker.getName()).isEqualTo("api.spring.io");
+	}
+
+	private void open() {
+		send(respond(503));
+		send(respond(503));
+		send(respond(503));
+		assertThat(this.circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+
+	private HttpResponse<InputStream> send(Transport transport) {
+		return transport(transport).sendAsync(HTTP_REQUEST, new Exchange("Sagan", "/projects")).join();
+	}
+
+	private Transport transport(Transport transport) {
+		Transport counting = (httpRequest, exchange) -> {
+			this.sent.incrementAndGet();
+			return transport.sendAsync(httpRequest, exchange);
+		};
+		return counting.intercept(List.of(this.circuitBreaker));
+	}
+
+	private static Transport respond(int statusCode) {
+		return (httpRequest, exchange) -> CompletableFuture.completedFuture(response(statusCode));
+	}
+
+	private static Transport failWith(Throwable failure) {
+		return (httpRequest, exchange) -> CompletableFuture.failedFuture(failure);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static HttpResponse<InputStream> response(int statusCode) {
+		HttpResponse<InputStream> httpResponse = mock(HttpResponse.class);
+		when(httpResponse.statusCode()).thenReturn(statusCode);
+		return httpResponse;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant instant;
+
+		private MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		void advance(Duration duration) {
+			this.instant = this.instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return this.instant;
+		}
+
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContentEncodingTests {
+
+	private static final String BODY = "[{\"title\":\"6.3.0\"},{\"title\":\"6.4.0\"}]";
+
+	@Test
+	public void decodeWhenGzipThenDecoded() throws Exception {
+		var body = new ByteArrayOutputStream();
+		try (var outputStream = new GZIPOutputStream(body)) {
+			outputStream.write(BODY.getBytes(StandardCharsets.UTF_8));
+		}
+		var decoded = ContentEncoding.decode(new ByteArrayInputStream(body.toByteArray()), "gzip");
+		assertThat(readString(decoded)).isEqualTo(BODY);
+	}
+
+	@Test
+	public void decodeWhenDeflateThenDecoded() throws Exception {
+		var body = new ByteArrayOutputStream();
+		try (var outputStream = new DeflaterOutputStream(body)) {
+			outputStream.write(BODY.getBytes(StandardCharsets.UTF_8));
+		}
+		var decoded = ContentEncoding.decode(new ByteArrayInputStream(body.toByteArray()), "Deflate");
+		assertThat(readString(decoded)).isEqualTo(BODY);
+	}
+
+	@Test
+	public void decodeWhenEmptyThenEmpty() throws Exception {
+		var decoded = ContentEncoding.decode(InputStream.nullInputStream(), "gzip");
+		assertThat(readString(decoded)).isEmpty();
+	}
+
+	@Test
+	public void decodeWhenIdentityThenUnchanged() {
+		var body = new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8));
+		assertThat(ContentEncoding.decode(body, "identity")).isSameAs(body);
+	}
+
+	private static String readString(InputStream inputStream) throws IOException {
+		try (inputStream) {
+			return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+}
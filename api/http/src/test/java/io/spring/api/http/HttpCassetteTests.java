@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class HttpCassetteTests {
+
+	private MockWebServer server;
+
+	@TempDir
+	private Path tempDir;
+
+	private Path cassette;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		this.server = new MockWebServer();
+		this.server.start();
+		this.cassette = this.tempDir.resolve("cassettes/release.cassette");
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void replayWhenRecordedThenSameResponsesWithoutNetwork() throws Exception {
+		this.server.enqueue(new MockResponse().setBody("first").addHeader("ETag", "\"1\""));
+		this.server.enqueue(new MockResponse().setBody("second").addHeader("ETag", "\"2\""));
+		this.server.enqueue(new MockResponse().setResponseCode(201).setBody("created"));
+
+		var recording = HttpCassette.record(this.cassette, HttpClients.shared());
+		assertThat(send(recording, get()).body()).isEqualTo("first");
+		assertThat(send(recording, get()).body()).isEqualTo("second");
+		assertThat(send(recording, post("{\"title\":\"6.3.0\"}")).statusCode()).isEqualTo(201);
+		this.server.shutdown();
+
+		var replaying = HttpCassette.replay(this.cassette);
+		var first = send(replaying, get());
+		assertThat(first.statusCode()).isEqualTo(200);
+		assertThat(first.body()).isEqualTo("first");
+		assertThat(first.headers().firstValue("ETag")).contains("\"1\"");
+		assertThat(send(replaying, get()).body()).isEqualTo("second");
+		// Requests sent more often than recorded get the last response
+		assertThat(send(replaying, get()).body()).isEqualTo("second");
+		var created = send(replaying, post("{\"title\":\"6.3.0\"}"));
+		assertThat(created.statusCode()).isEqualTo(201);
+		assertThat(created.body()).isEqualTo("created");
+	}
+
+	@Test
+	public void replayWhenRequestBodyDiffersThenNotFound() throws Exception {
+		this.server.enqueue(new MockResponse().setResponseCode(201));
+		send(HttpCassette.record(this.cassette, HttpClients.shared()), post("{\"title\":\"6.3.0\"}"));
+
+		var replaying = HttpCassette.replay(this.cassette);
+		assertThatIllegalStateException().isThrownBy(() -> send(replaying, post("{\"title\":\"6.4.0\"}")))
+			.withMessageContaining("No response recorded")
+			.withMessageContaining("POST %s".formatted(this.server.url("/milestones")));
+	}
+
+	@Test
+	public void replayWhenCompressedThenDecodedAsReceived() throws Exception {
+		var body = new Buffer();
+		try (var outputStream = new GZIPOutputStream(body.outputStream())) {
+			outputStream.write("[{\"title\":\"6.3.0\"}]".getBytes(StandardCharsets.UTF_8));
+		}
+		this.server.enqueue(new MockResponse().addHeader("Content-Encoding", "gzip").setBody(body));
+		send(HttpCassette.record(this.cassette, HttpClients.shared()), get());
+
+		var replaying = HttpCassette.replay(this.cassette);
+		var httpResponse = replaying.send(get(), ContentEncoding.ofDecodedInputStream());
+		var decoded = new ByteArrayOutputStream();
+		try (var inputStream = httpResponse.body()) {
+			inputStream.transferTo(decoded);
+		}
+		assertThat(decoded.toString(StandardCharsets.UTF_8)).isEqualTo("[{\"title\":\"6.3.0\"}]");
+	}
+
+	@Test
+	public void replayWhenNotCassetteThenUncheckedIOException() throws Exception {
+		Files.createDirectories(this.cassette.getParent());
+		Files.writeString(this.cassette, "not a cassette");
+		assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(() -> HttpCassette.replay(this.cassette))
+			.withMessageContaining("Unable to read cassette");
+	}
+
+	@Test
+	public void replayWhenTruncatedThenUncheckedIOExceptionWithFileAndOffset() throws Exception {
+		this.server.enqueue(new MockResponse().setBody("first"));
+		send(HttpCassette.record(this.cassette, HttpClients.shared()), get());
+		var recorded = Files.readAllBytes(this.cassette);
+		Files.write(this.cassette, Arrays.copyOf(recorded, recorded.length - 2));
+
+		assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(() -> HttpCassette.replay(this.cassette))
+			.havingCause()
+			.withMessage("Truncated cassette %s: expected 5 bytes at offset %s, but only 3 remain", this.cassette,
+					recorded.length - 5);
+	}
+
+	private HttpRequest get() {
+		return HttpRequest.newBuilder(URI.create(this.server.url("/milestones").toString())).GET().build();
+	}
+
+	private HttpRequest post(String body) {
+		// @formatter:off
+		return HttpRequest.newBuilder(URI.create(this.server.url("/milestones").toString()))
+			.header("Authorization", "Bearer secret")
+			.POST(HttpRequest.BodyPublishers.ofString(body))
+			.build();
+		// @formatter:on
+	}
+
+	private static HttpResponse<String> send(HttpClient httpClient, HttpRequest httpRequest) throws Exception {
+		return httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpClientMetricsTests {
+
+	@TempDir
+	private Path tempDir;
+
+	@Test
+	public void endpointWhenCalledTwiceThenSameMetrics() {
+		var metrics = new HttpClientMetrics();
+		var endpoint = metrics.endpoint("GitHub", "GET", "/user");
+		assertThat(metrics.endpoint("GitHub", "GET", "/user")).isSameAs(endpoint);
+		assertThat(metrics.endpoint("GitHub", "POST", "/user")).isNotSameAs(endpoint);
+	}
+
+	@Test
+	public void recordWhenErrorsThenCounted() {
+		var metrics = new HttpClientMetrics();
+		var endpoint = metrics.endpoint("Sagan", "GET", "/projects/{slug}/releases");
+		endpoint.record(200, Duration.ofMillis(10).toNanos());
+		endpoint.record(404, Duration.ofMillis(20).toNanos());
+		endpoint.record(0, Duration.ofMillis(30).toNanos());
+		assertThat(endpoint.getRequestCount()).isEqualTo(3);
+		assertThat(endpoint.getErrorCount()).isEqualTo(2);
+		assertThat(endpoint.getLatencyP50()).isBetween(20.0, 23.0);
+	}
+
+	@Test
+	public void registerMBeansWhenEndpointAddedThenRegistered() throws Exception {
+		var mBeanServer = MBeanServerFactory.newMBeanServer();
+		var metrics = new HttpClientMetrics();
+		metrics.registerMBeans(mBeanServer);
+		metrics.endpoint("GitHub", "GET", "/repos/{owner}/{repo}/milestones").record(200, 1_000_000);
+		metrics.gauge("github.rateLimit.remaining", 4999);
+
+		var names = mBeanServer.queryNames(new ObjectName(HttpClientMetrics.DOMAIN + ":type=EndpointMetrics,*"), null);
+		assertThat(names).singleElement().satisfies((name) -> {
+			assertThat(mBeanServer.getAttribute(name, "Endpoint")).isEqualTo("/repos/{owner}/{repo}/milestones");
+			assertThat(mBeanServer.getAttribute(name, "RequestCount")).isEqualTo(1L);
+		});
+		var metricsName = new ObjectName(HttpClientMetrics.DOMAIN + ":type=HttpClientMetrics");
+		assertThat(mBeanServer.isRegistered(metricsName)).isTrue();
+
+		metrics.reset();
+		assertThat(mBeanServer.queryNames(new ObjectName(HttpClientMetrics.DOMAIN + ":type=EndpointMetrics,*"), null))
+			.isEmpty();
+		assertThat(metrics.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void writeJsonWhenRecordedThenWritten() throws Exception {
+		var metrics = new HttpClientMetrics();
+		var endpoint = metrics.endpoint("GitHub", "GET", "/repos/{owner}/{repo}/milestones");
+		endpoint.record(200, Duration.ofMillis(8).toNanos());
+		endpoint.recordCacheHit();
+		metrics.gauge("github.rateLimit.remaining", 4999);
+
+		var file = this.tempDir.resolve("metrics/http-metrics.json");
+		metrics.writeJson(file);
+		var json = Json.objectMapper().readTree(file.toFile());
+		assertThat(json.get("gauges").get("github.rateLimit.remaining").asLong()).isEqualTo(4999);
+		assertThat(json.get("endpoints")).hasSize(1);
+		var endpointJson = json.get("endpoints").get(0);
+		assertThat(endpointJson.get("api").asText()).isEqualTo("GitHub");
+		assertThat(endpointJson.get("method").asText()).isEqualTo("GET");
+		assertThat(endpointJson.get("endpoint").asText()).isEqualTo("/repos/{owner}/{repo}/milestones");
+		assertThat(endpointJson.get("requests").asLong()).isEqualTo(1);
+		assertThat(endpointJson.get("errors").asLong()).isEqualTo(0);
+		assertThat(endpointJson.get("cacheHits").asLong()).isEqualTo(1);
+		assertThat(endpointJson.get("cacheMisses").asLong()).isEqualTo(0);
+		assertThat(endpointJson.get("latencyP50").asDouble()).isEqualTo(8.191);
+		assertThat(endpointJson.get("latencyP95").asDouble()).isEqualTo(8.191);
+		assertThat(endpointJson.get("latencyP99").asDouble()).isEqualTo(8.191);
+	}
+
+	@Test
+	public void toJsonWhenEmptyThenEmptyCollections() throws Exception {
+		var json = Json.objectMapper().readTree(new HttpClientMetrics().toJson());
+		assertThat(json.get("gauges").isObject()).isTrue();
+		assertThat(json.get("gauges")).isEmpty();
+		assertThat(json.get("endpoints").isArray()).isTrue();
+		assertThat(json.get("endpoints")).isEmpty();
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpClientsTests {
+
+	@Test
+	public void sharedWhenCalledTwiceThenSameInstance() {
+		var httpClient = HttpClients.shared();
+		assertThat(HttpClients.shared()).isSameAs(httpClient);
+		assertThat(HttpClients.shared(HttpClients.Settings.DEFAULT)).isSameAs(httpClient);
+		assertThat(httpClient.version()).isEqualTo(HttpClient.Version.HTTP_2);
+		assertThat(httpClient.connectTimeout()).contains(Duration.ofSeconds(10));
+	}
+
+	@Test
+	public void sharedWhenSettingsDifferThenSeparateInstances() {
+		var settings = HttpClients.Settings.DEFAULT.withConnectTimeout(Duration.ofSeconds(1));
+		var httpClient = HttpClients.shared(settings);
+		assertThat(httpClient).isNotSameAs(HttpClients.shared());
+		assertThat(HttpClients.shared(settings)).isSameAs(httpClient);
+		assertThat(httpClient.connectTimeout()).contains(Duration.ofSeconds(1));
+	}
+
+	@Test
+	public void createHttpClientWhenExecutorThenUsedByClient() {
+		// Not registered, so that the shared clients never hold an executor that is shut down
+		var executor = Executors.newSingleThreadExecutor();
+		try {
+			var httpClient = HttpClients.Settings.DEFAULT.withExecutor(executor).createHttpClient();
+			assertThat(httpClient.executor()).contains(executor);
+			assertThat(httpClient.version()).isEqualTo(HttpClient.Version.HTTP_2);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpRequestEventTests {
+
+	private static final HttpRequest HTTP_REQUEST = HttpRequest.newBuilder(URI.create("https://api.github.com/user"))
+		.GET()
+		.build();
+
+	@TempDir
+	private Path tempDir;
+
+	@Test
+	public void receivedWhenBodyClosedThenEventCommitted() throws Exception {
+		var events = record(() -> {
+			var event = HttpRequestEvent.begin("GitHub", "/user", HTTP_REQUEST);
+			event.setRetries(1);
+			try (var body = event.received(200, new ByteArrayInputStream(new byte[1234]))) {
+				body.transferTo(OutputStream.nullOutputStream());
+			}
+		});
+		assertThat(events).singleElement().satisfies((event) -> {
+			assertThat(event.getString("api")).isEqualTo("GitHub");
+			assertThat(event.getString("endpoint")).isEqualTo("/user");
+			assertThat(event.getString("method")).isEqualTo("GET");
+			assertThat(event.getInt("status")).isEqualTo(200);
+			assertThat(event.getLong("decodedBodySize")).isEqualTo(1234);
+			assertThat(event.getInt("retries")).isEqualTo(1);
+			assertThat(event.getDuration("timeToFirstByte")).isPositive();
+			assertThat(event.getDuration("readTime")).isPositive();
+		});
+	}
+
+	@Test
+	public void failedWhenNoResponseThenEventCommittedWithoutStatus() throws Exception {
+		var events = record(() -> {
+			var event = HttpRequestEvent.begin("Sagan", "/projects/{slug}/releases", HTTP_REQUEST);
+			event.failed();
+		});
+		assertThat(events).singleElement().satisfies((event) -> {
+			assertThat(event.getString("api")).isEqualTo("Sagan");
+			assertThat(event.getInt("status")).isEqualTo(0);
+			assertThat(event.getInt("retries")).isEqualTo(0);
+		});
+	}
+
+	@Test
+	public void receivedWhenNotRecordingThenBodyUnchanged() {
+		var body = new ByteArrayInputStream(new byte[0]);
+		var event = HttpRequestEvent.begin("GitHub", "/user", HTTP_REQUEST);
+		assertThat(event.received(200, body)).isSameAs(body);
+	}
+
+	private List<RecordedEvent> record(ThrowingRunnable runnable) throws Exception {
+		var file = this.tempDir.resolve("recording.jfr");
+		try (var recording = new Recording()) {
+			recording.enable(HttpRequestEvent.NAME).withoutThreshold();
+			recording.start();
+			runnable.run();
+			recording.stop();
+			recording.dump(file);
+		}
+		return RecordingFile.readAllEvents(file);
+	}
+
+	private interface ThrowingRunnable {
+
+		void run() throws Exception;
+
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonTests {
+
+	@Test
+	public void readerWhenSameTypeThenCached() {
+		assertThat(Json.reader(Item[].class)).isSameAs(Json.reader(Item[].class));
+		assertThat(Json.reader(Item.class)).isNotSameAs(Json.reader(Item[].class));
+	}
+
+	@Test
+	public void writerWhenSameTypeThenCached() {
+		assertThat(Json.writer(Item.class)).isSameAs(Json.writer(Item.class));
+	}
+
+	@Test
+	public void readWhenUnknownPropertiesThenIgnored() throws Exception {
+		var json = "[{\"title\":\"1.0.0\",\"due_on\":\"2024-01-15T12:00:00Z\",\"state\":\"open\"}]";
+		var body = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+		Item[] items = Json.reader(Item[].class).readValue(body);
+		assertThat(items).containsExactly(new Item("1.0.0", Instant.parse("2024-01-15T12:00:00Z")));
+	}
+
+	@Test
+	public void writeWhenNullValuesThenOmitted() throws Exception {
+		var map = new LinkedHashMap<String, Object>();
+		map.put("title", "1.0.0");
+		map.put("milestone", null);
+		assertThat(Json.writer(map.getClass()).writeValueAsString(map)).isEqualTo("{\"title\":\"1.0.0\"}");
+		assertThat(Json.writer(Item.class).writeValueAsString(new Item("1.0.0", null)))
+			.isEqualTo("{\"title\":\"1.0.0\"}");
+	}
+
+	record Item(String title, @JsonProperty("due_on") Instant dueOn) {
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHistogramTests {
+
+	@Test
+	public void percentileWhenEmptyThenZero() {
+		assertThat(new LatencyHistogram().percentile(99)).isZero();
+	}
+
+	@Test
+	public void percentileWhenRecordedThenWithinBucketPrecision() {
+		var histogram = new LatencyHistogram();
+		for (var millis = 1; millis <= 100; millis++) {
+			histogram.record(Duration.ofMillis(millis).toNanos());
+		}
+		assertThat(histogram.percentile(50)).isBetween(Duration.ofMillis(50), Duration.ofMillis(57));
+		assertThat(histogram.percentile(95)).isBetween(Duration.ofMillis(95), Duration.ofMillis(107));
+		assertThat(histogram.percentile(100)).isBetween(Duration.ofMillis(100), Duration.ofMillis(113));
+	}
+
+	@Test
+	public void bucketWhenValueThenWithinUpperBound() {
+		for (var value : new long[] { 0, 1, 7, 8, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE }) {
+			var bucket = LatencyHistogram.bucket(value);
+			assertThat(LatencyHistogram.upperBound(bucket)).isGreaterThanOrEqualTo(value);
+			if (bucket > 0) {
+				assertThat(LatencyHistogram.upperBound(bucket - 1)).isLessThan(value);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RetryPolicyTests {
+
+	private final RetryPolicy retryPolicy = RetryPolicy.builder().initialBackoff(Duration.ofMillis(10)).build();
+
+	private MockWebServer server;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		this.server = new MockWebServer();
+		this.server.start();
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void sendAsyncWhenServiceUnavailableThenRetriedUntilSuccess() throws Exception {
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+		this.server.enqueue(new MockResponse().setBody("ok"));
+
+		var httpResponse = send(request("GET"));
+		assertThat(httpResponse.statusCode()).isEqualTo(200);
+		assertThat(httpResponse.body()).isEqualTo("ok");
+		assertThat(this.server.getRequestCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void sendAsyncWhenMaxAttemptsReachedThenLastResponseReturned() throws Exception {
+		this.server.enqueue(new MockResponse().setResponseCode(502));
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+		this.server.enqueue(new MockResponse().setResponseCode(504));
+
+		var httpResponse = send(request("GET"));
+		assertThat(httpResponse.statusCode()).isEqualTo(504);
+		assertThat(this.server.getRequestCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void sendAsyncWhenPostFailsWithServiceUnavailableThenNotRetried() throws Exception {
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+
+		var httpResponse = send(request("POST"));
+		assertThat(httpResponse.statusCode()).isEqualTo(503);
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void isRetryableWhenIdempotentThenRetryableStatusCodesRetried() {
+		assertThat(isRetryable("GET", response(503, Map.of()))).isTrue();
+		assertThat(isRetryable("DELETE", response(502, Map.of()))).isTrue();
+		assertThat(isRetryable("GET", response(404, Map.of()))).isFalse();
+		assertThat(isRetryable("GET", response(403, Map.of()))).isFalse();
+	}
+
+	@Test
+	public void isRetryableWhenNotIdempotentThenOnlyRateLimitedRetried() {
+		assertThat(isRetryable("POST", response(503, Map.of()))).isFalse();
+		assertThat(isRetryable("PATCH", response(500, Map.of()))).isFalse();
+		assertThat(isRetryable("POST", response(429, Map.of()))).isTrue();
+		assertThat(isRetryable("POST", response(403, Map.of("Retry-After", List.of("1"))))).isTrue();
+		assertThat(isRetryable("POST", response(403, Map.of("X-RateLimit-Remaining", List.of("0"))))).isTrue();
+	}
+
+	@Test
+	public void isRetryableWhenConnectionFailsThenRetriedOnlyIfNotConnected() {
+		var post = request("POST");
+		assertThat(this.retryPolicy.isRetryable(post, null, new ConnectException())).isTrue();
+		assertThat(this.retryPolicy.isRetryable(post, null, new IOException("Connection reset"))).isFalse();
+		assertThat(this.retryPolicy.isRetryable(request("GET"), null, new IOException("Connection reset"))).isTrue();
+	}
+
+	@Test
+	public void isRetryableWhenIdempotencyKeyThenRetriedLikeIdempotentMethod() {
+		var uri = URI.create(this.server.url("/").toString());
+		// @formatter:off
+		var post = HttpRequest.newBuilder(uri)
+			.header(RetryPolicy.IDEMPOTENCY_KEY_HEADER, "query-1")
+			.POST(HttpRequest.BodyPublishers.noBody())
+			.build();
+		// @formatter:on
+		assertThat(this.retryPolicy.isRetryable(post, response(503, Map.of()), null)).isTrue();
+		assertThat(this.retryPolicy.isRetryable(post, null, new IOException("Connection reset"))).isTrue();
+		assertThat(this.retryPolicy.isRetryable(post, response(404, Map.of()), null)).isFalse();
+	}
+
+	@Test
+	public void backoffWhenAttemptsIncreaseThenBoundedByExponentialBackoffAndMaxBackoff() {
+		// @formatter:off
+		var retryPolicy = RetryPolicy.builder()
+			.initialBackoff(Duration.ofMillis(100))
+			.maxBackoff(Duration.ofMillis(300))
+			.build();
+		// @formatter:on
+		for (var i = 0; i < 100; i++) {
+			assertThat(retryPolicy.backoff(1, null)).isBetween(Duration.ZERO, Duration.ofMillis(100));
+			assertThat(retryPolicy.backoff(2, null)).isBetween(Duration.ZERO, Duration.ofMillis(200));
+			assertThat(retryPolicy.backoff(10, null)).isBetween(Duration.ZERO, Duration.ofMillis(300));
+		}
+	}
+
+	@Test
+	public void backoffWhenRetryAfterThenAtLeastRetryAfter() {
+		var httpResponse = response(403, Map.of("Retry-After", List.of("2")));
+		assertThat(this.retryPolicy.backoff(1, httpResponse)).isEqualTo(Duration.ofSeconds(2));
+	}
+
+	private HttpResponse<String> send(HttpRequest httpRequest) throws Exception {
+		var httpClient = HttpClient.newHttpClient();
+		return this.retryPolicy
+			.sendAsync(httpRequest, (request) -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+			.get();
+	}
+
+	private boolean isRetryable(String method, HttpResponse<?> httpResponse) {
+		return this.retryPolicy.isRetryable(request(method), httpResponse, null);
+	}
+
+	private HttpRequest request(String method) {
+		var uri = URI.create(this.server.url("/").toString());
+		return HttpRequest.newBuilder(uri).method(method, HttpRequest.BodyPublishers.noBody()).build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static HttpResponse<String> response(int statusCode, Map<String, List<String>> headers) {
+		HttpResponse<String> httpResponse = mock(HttpResponse.class);
+		when(httpResponse.statusCode()).thenReturn(statusCode);
+		when(httpResponse.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+		return httpResponse;
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.http;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransportTests {
+
+	private static final HttpRequest HTTP_REQUEST = HttpRequest.newBuilder(URI.create("https://api.github.com/user"))
+		.GET()
+		.build();
+
+	@Test
+	public void interceptWhenInterceptorsThenOutermostFirst() {
+		var calls = new ArrayList<String>();
+		Transport transport = (httpRequest, exchange) -> {
+			calls.add("transport");
+			return CompletableFuture.completedFuture(null);
+		};
+		transport.intercept(List.of(recording("first", calls), recording("second", calls)))
+			.sendAsync(HTTP_REQUEST, new Exchange("GitHub", "/user"))
+			.join();
+		assertThat(calls).containsExactly("first>", "second>", "transport", "<second", "<first");
+	}
+
+	@Test
+	public void interceptWhenAttributeSetThenVisibleToInnerInterceptors() {
+		Interceptor outer = (httpRequest, exchange, next) -> {
+			exchange.setAttribute(String.class, "outer");
+			return next.sendAsync(httpRequest, exchange);
+		};
+		var exchange = new Exchange("GitHub", "/user");
+		Transport transport = (httpRequest, ex) -> CompletableFuture.completedFuture(null);
+		Interceptor inner = (httpRequest, ex, next) -> {
+			assertThat(ex.getAttribute(String.class)).isEqualTo("outer");
+			return next.sendAsync(httpRequest, ex);
+		};
+		transport.intercept(List.of(outer, inner)).sendAsync(HTTP_REQUEST, exchange).join();
+		assertThat(exchange.getAttribute(String.class)).isEqualTo("outer");
+	}
+
+	@Test
+	public void interceptWhenRetriedThenRetriesCountedAndObserved() throws Exception {
+		try (var server = new MockWebServer()) {
+			server.enqueue(new MockResponse().setResponseCode(503));
+			server.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+			var metrics = new HttpClientMetrics();
+			var retryPolicy = RetryPolicy.builder().initialBackoff(Duration.ofMillis(1)).build();
+			var transport = Transport.of(HttpClient.newHttpClient())
+				.intercept(List.of(new ObservationInterceptor(metrics), retryPolicy));
+			var httpRequest = HttpRequest.newBuilder(server.url("/user").uri()).GET().build();
+			var exchange = new Exchange("GitHub", "/user");
+			var httpResponse = transport.sendAsync(httpRequest, exchange).join();
+			try (InputStream body = httpResponse.body()) {
+				body.transferTo(OutputStream.nullOutputStream());
+			}
+
+			assertThat(httpResponse.statusCode()).isEqualTo(200);
+			assertThat(exchange.getRetries()).isEqualTo(1);
+			assertThat(server.getRequestCount()).isEqualTo(2);
+			assertThat(metrics.endpoint("GitHub", "GET", "/user").getRequestCount()).isEqualTo(1);
+			assertThat(exchange.getAttribute(EndpointMetrics.class))
+				.isSameAs(metrics.endpoint("GitHub", "GET", "/user"));
+		}
+	}
+
+	private static Interceptor recording(String name, List<String> calls) {
+		return (httpRequest, exchange, next) -> {
+			calls.add(name + ">");
+			return next.sendAsync(httpRequest, exchange).whenComplete((httpResponse, ex) -> calls.add("<" + name));
+		};
+	}
+
+}
@@ -16,34 +16,36 @@
 
 package io.spring.api;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.spring.api.http.ApiClient;
+import io.spring.api.http.ContentEncoding;
+import io.spring.api.http.HttpClients;
+import io.spring.api.http.Json;
 
 /**
  * @author Steve Riesenberg
  */
-public class SaganApi {
+public class SaganApi extends ApiClient {
 
-	private final HttpClient httpClient;
+	private static final Pattern PROJECT_PATH_PATTERN = Pattern.compile("^/projects/[^/]+");
 
-	private final ObjectMapper objectMapper;
+	private static final Pattern RELEASE_PATH_PATTERN = Pattern.compile("/releases/[^/]+");
 
-	private final String baseUrl;
+	private static final Pattern GENERATION_PATH_PATTERN = Pattern.compile("/generations/[^/]+");
 
-	private final String username;
+	private final Supplier<CompletableFuture<String>> usernameSupplier;
+
+	private volatile CompletableFuture<String> username;
 
 	private final String accessToken;
 
@@ -52,136 +54,196 @@ public class SaganApi {
 	}
 
 	public SaganApi(String baseUrl, String username, String accessToken) {
-		this.httpClient = HttpClient.newHttpClient();
-		this.objectMapper = getObjectMapper();
-		this.baseUrl = baseUrl;
-		this.username = username;
-		this.accessToken = accessToken;
+		this(HttpClients.shared(), baseUrl, username, accessToken);
 	}
 
-	private static ObjectMapper getObjectMapper() {
-		ObjectMapper objectMapper = new ObjectMapper();
-		objectMapper.setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL);
-		objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		objectMapper.registerModule(new JavaTimeModule());
+	public SaganApi(HttpClient httpClient, String baseUrl, String username, String accessToken) {
+		this(httpClient, baseUrl, () -> CompletableFuture.completedFuture(username), accessToken);
+	}
+
+	/**
+	 * Create an instance that looks up the username only when the first authenticated
+	 * request is sent, e.g. to avoid resolving the GitHub login of an access token when
+	 * Sagan is never used. Requests wait for the lookup without blocking the caller.
+	 * @param username Starts looking up the username when it is first needed
+	 * @param accessToken The access token
+	 */
+	public SaganApi(Supplier<CompletableFuture<String>> username, String accessToken) {
+		this(HttpClients.shared(), "https://api.spring.io", username, accessToken);
+	}
 
-		return objectMapper;
+	/**
+	 * Create an instance that looks up the username only when the first authenticated
+	 * request is sent.
+	 * @param httpClient The HTTP client used to send requests
+	 * @param baseUrl The base URL of the Sagan API
+	 * @param username Starts looking up the username when it is first needed
+	 * @param accessToken The access token
+	 */
+	public SaganApi(HttpClient httpClient, String baseUrl, Supplier<CompletableFuture<String>> username,
+			String accessToken) {
+		super(httpClient, "Sagan", baseUrl);
+		this.usernameSupplier = username;
+		this.accessToken = accessToken;
 	}
 
 	public List<Project> getProjects() {
-		var httpRequest = requestBuilder("/projects").GET().build();
-		var wrapper = performRequest(httpRequest, EmbeddedProjectsWrapper.class);
-		return (wrapper._embedded != null) ? wrapper._embedded.projects : Collections.emptyList();
+		return await(getProjectsAsync());
+	}
+
+	public CompletableFuture<List<Project>> getProjectsAsync() {
+		return requestBuilder("/projects")
+			.thenCompose((builder) -> performRequestAsync(builder.GET().build(), EmbeddedProjectsWrapper.class))
+			.thenApply((wrapper) -> (wrapper._embedded != null) ? wrapper._embedded.projects : Collections.emptyList());
 	}
 
 	public Project getProject(String slug) {
+		return await(getProjectAsync(slug));
+	}
+
+	public CompletableFuture<Project> getProjectAsync(String slug) {
 		var uri = "/projects/%s".formatted(slug);
-		var httpRequest = requestBuilder(uri).GET().build();
-		return performRequest(httpRequest, Project.class);
+		return requestBuilder(uri).thenCompose((builder) -> performRequestAsync(builder.GET().build(), Project.class));
 	}
 
 	public List<Release> getReleases(String slug) {
+		return await(getReleasesAsync(slug));
+	}
+
+	public CompletableFuture<List<Release>> getReleasesAsync(String slug) {
 		var uri = "/projects/%s/releases".formatted(slug);
-		var httpRequest = requestBuilder(uri).GET().build();
-		var wrapper = performRequest(httpRequest, EmbeddedReleasesWrapper.class);
-		return (wrapper._embedded != null) ? wrapper._embedded.releases : Collections.emptyList();
+		return requestBuilder(uri)
+			.thenCompose((builder) -> performRequestAsync(builder.GET().build(), EmbeddedReleasesWrapper.class))
+			.thenApply((wrapper) -> (wrapper._embedded != null) ? wrapper._embedded.releases : Collections.emptyList());
 	}
 
 	public void createRelease(String slug, Release release) {
+		await(createReleaseAsync(slug, release));
+	}
+
+	public CompletableFuture<Void> createReleaseAsync(String slug, Release release) {
 		var uri = "/projects/%s/releases".formatted(slug);
-		// @formatter:off
-		var httpRequest = requestBuilder(uri)
-			.header("Content-Type", "application/json")
-			.POST(bodyValue(release))
-			.build();
-		// @formatter:on
-		performRequest(httpRequest, Void.class);
+		return requestBuilder(uri).thenCompose((builder) -> {
+			// @formatter:off
+			var httpRequest = builder
+				.header("Content-Type", "application/json")
+				.POST(Json.bodyPublisher(release))
+				.build();
+			// @formatter:on
+			return performRequestAsync(httpRequest, Void.class);
+		});
 	}
 
 	public Release getRelease(String slug, String version) {
+		return await(getReleaseAsync(slug, version));
+	}
+
+	public CompletableFuture<Release> getReleaseAsync(String slug, String version) {
 		var uri = "/projects/%s/releases/%s".formatted(slug, version);
-		var httpRequest = requestBuilder(uri).GET().build();
-		return performRequest(httpRequest, Release.class);
+		return requestBuilder(uri).thenCompose((builder) -> performRequestAsync(builder.GET().build(), Release.class));
 	}
 
 	public void deleteRelease(String slug, String version) {
+		await(deleteReleaseAsync(slug, version));
+	}
+
+	public CompletableFuture<Void> deleteReleaseAsync(String slug, String version) {
 		var uri = "/projects/%s/releases/%s".formatted(slug, version);
-		var httpRequest = requestBuilder(uri).DELETE().build();
-		performRequest(httpRequest, Void.class);
+		return requestBuilder(uri).thenCompose((builder) -> performRequestAsync(builder.DELETE().build(), Void.class));
 	}
 
 	public List<Generation> getGenerations(String slug) {
+		return await(getGenerationsAsync(slug));
+	}
+
+	public CompletableFuture<List<Generation>> getGenerationsAsync(String slug) {
 		var uri = "/projects/%s/generations".formatted(slug);
-		var httpRequest = requestBuilder(uri).GET().build();
-		var wrapper = performRequest(httpRequest, EmbeddedGenerationsWrapper.class);
-		return (wrapper._embedded != null) ? wrapper._embedded.generations : Collections.emptyList();
+		return requestBuilder(uri)
+			.thenCompose((builder) -> performRequestAsync(builder.GET().build(), EmbeddedGenerationsWrapper.class))
+			.thenApply((wrapper) -> (wrapper._embedded != null) ? wrapper._embedded.generations
+					: Collections.emptyList());
 	}
 
 	public Generation getGeneration(String slug, String name) {
+		return await(getGenerationAsync(slug, name));
+	}
+
+	public CompletableFuture<Generation> getGenerationAsync(String slug, String name) {
 		var uri = "/projects/%s/generations/%s".formatted(slug, name);
-		var httpRequest = requestBuilder(uri).GET().build();
-		return performRequest(httpRequest, Generation.class);
+		return requestBuilder(uri).thenCompose((builder) -> performRequestAsync(builder.GET().build(), Generation.class));
 	}
 
-	private HttpRequest.Builder requestBuilder(String uri) {
+	/**
+	 * Create a request, once the username is resolved if the request is authenticated.
+	 */
+	private CompletableFuture<HttpRequest.Builder> requestBuilder(String uri) {
 		// @formatter:off
 		HttpRequest.Builder builder = HttpRequest.newBuilder()
-			.uri(URI.create(this.baseUrl + uri).normalize());
+			.uri(URI.create(getBaseUrl() + uri).normalize())
+			.header("Accept-Encoding", ContentEncoding.ACCEPT_ENCODING);
 		// @formatter:on
-		if (this.username != null && this.accessToken != null) {
-			var credentials = "%s:%s".formatted(this.username, this.accessToken);
-			var basicAuth = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
-			builder.setHeader("Authorization", "Basic %s".formatted(basicAuth));
+		if (this.accessToken == null) {
+			return CompletableFuture.completedFuture(builder);
 		}
-		return builder;
+		return username().thenApply((username) -> {
+			var credentials = "%s:%s".formatted(username, this.accessToken);
+			var basicAuth = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+			return builder.setHeader("Authorization", "Basic %s".formatted(basicAuth));
+		});
 	}
 
-	private <T> T performRequest(HttpRequest httpRequest, Class<T> responseType) {
-		try {
-			var httpResponse = this.httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-			if (httpResponse.statusCode() >= 300) {
-				throw new HttpClientException(httpResponse.statusCode(), httpResponse.body());
+	/**
+	 * Return the username, starting to look it up on first use. A failed lookup is
+	 * started again by the next request.
+	 */
+	private CompletableFuture<String> username() {
+		var username = this.username;
+		if (username == null) {
+			synchronized (this.usernameSupplier) {
+				username = this.username;
+				if (username == null) {
+					username = this.usernameSupplier.get().thenApply((resolved) -> {
+						if (resolved == null) {
+							throw new IllegalStateException(
+									"Unable to resolve the username of the access token for the Sagan API");
+						}
+						return resolved;
+					});
+					this.username = username;
+					username.whenComplete((resolved, ex) -> {
+						if (ex != null) {
+							this.username = null;
+						}
+					});
+				}
 			}
-			String responseBody = Void.class.isAssignableFrom(responseType) ? "null" : httpResponse.body();
-			return this.objectMapper.readValue(responseBody, responseType);
-		}
-		catch (IOException | InterruptedException ex) {
-			throw new RuntimeException("Unable to perform request:", ex);
 		}
+		return username;
 	}
 
-	private <T> HttpRequest.BodyPublisher bodyValue(T body) {
-		try {
-			return HttpRequest.BodyPublishers.ofString(this.objectMapper.writeValueAsString(body));
-		}
-		catch (JsonProcessingException ex) {
-			throw new RuntimeException("Unable to serialize json:", ex);
-		}
+	/**
+	 * Return the URI template of the endpoint of a request, e.g.
+	 * {@code /projects/{slug}/releases/{version}}.
+	 */
+	@Override
+	protected String endpoint(HttpRequest httpRequest) {
+		var path = PROJECT_PATH_PATTERN.matcher(httpRequest.uri().getPath()).replaceFirst("/projects/{slug}");
+		path = RELEASE_PATH_PATTERN.matcher(path).replaceFirst("/releases/{version}");
+		return GENERATION_PATH_PATTERN.matcher(path).replaceFirst("/generations/{name}");
 	}
 
-	public static class HttpClientException extends RuntimeException {
-
-		private final int statusCode;
+	@Override
+	protected HttpClientException createException(int statusCode, String responseBody) {
+		return new HttpClientException(statusCode, responseBody);
+	}
 
-		private final String responseBody;
+	/**
+	 * Thrown when the Sagan API responds with an error status.
+	 */
+	public static class HttpClientException extends io.spring.api.http.HttpClientException {
 
 		private HttpClientException(int statusCode, String responseBody) {
-			super(statusCode + "[" + responseBody + "]");
-			this.statusCode = statusCode;
-			this.responseBody = responseBody;
-		}
-
-		public int getStatusCode() {
-			return this.statusCode;
-		}
-
-		public String getResponseBody() {
-			return this.responseBody;
-		}
-
-		@Override
-		public String toString() {
-			return this.statusCode + "[" + this.responseBody + "]";
+			super(statusCode, responseBody);
 		}
 
 	}
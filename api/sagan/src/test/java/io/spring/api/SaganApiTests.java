@@ -20,20 +20,38 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Base64;
 import java.util.Comparator;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DeflaterOutputStream;
 
 import com.jayway.jsonassert.JsonAssert;
 import io.spring.api.Release.ReleaseStatus;
+import io.spring.api.fixtures.ByteCountingServerSocketFactory;
+import io.spring.api.http.HttpClients;
+import io.spring.api.http.HttpRequestEvent;
+import io.spring.api.http.Json;
+import io.spring.api.http.RetryPolicy;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.hamcrest.CoreMatchers.is;
 
 /**
@@ -50,6 +68,9 @@ public class SaganApiTests {
 
 	private MockWebServer server;
 
+	@TempDir
+	private Path tempDir;
+
 	@BeforeEach
 	public void setUp() throws Exception {
 		this.server = new MockWebServer();
@@ -98,6 +119,53 @@ public class SaganApiTests {
 		assertThat(recordedRequest.getHeaders().names().contains("Authorization")).isFalse();
 	}
 
+	@Test
+	public void getProjectWhenUsernameSuppliedThenResolvedOnFirstRequestOnly() throws Exception {
+		var lookups = new AtomicInteger();
+		this.saganApi = new SaganApi(HttpClients.shared(), this.server.url("/").toString(), () -> {
+			lookups.incrementAndGet();
+			return CompletableFuture.completedFuture("user");
+		}, "personal-access-token");
+		assertThat(lookups).hasValue(0);
+		this.server.enqueue(json("ProjectResponse.json"));
+		this.server.enqueue(json("ProjectResponse.json"));
+
+		this.saganApi.getProject("spring-security");
+		this.saganApi.getProject("spring-security");
+		assertThat(lookups).hasValue(1);
+		assertThat(this.server.takeRequest().getHeader("Authorization")).isEqualTo("Basic %s".formatted(AUTH_TOKEN));
+		assertThat(this.server.takeRequest().getHeader("Authorization")).isEqualTo("Basic %s".formatted(AUTH_TOKEN));
+	}
+
+	@Test
+	public void getProjectWhenUsernameNotResolvedThenIllegalStateException() throws Exception {
+		this.saganApi = new SaganApi(HttpClients.shared(), this.server.url("/").toString(),
+				() -> CompletableFuture.completedFuture(null), "personal-access-token");
+
+		assertThatIllegalStateException().isThrownBy(() -> this.saganApi.getProject("spring-security"))
+			.withMessage("Unable to resolve the username of the access token for the Sagan API");
+		assertThat(this.saganApi.getProjectAsync("spring-security")).failsWithin(Duration.ofSeconds(1))
+			.withThrowableOfType(ExecutionException.class)
+			.withCauseInstanceOf(IllegalStateException.class);
+		assertThat(this.server.getRequestCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void getProjectAsyncWhenUsernameNotResolvedYetThenRequestSentOnceResolved() throws Exception {
+		var username = new CompletableFuture<String>();
+		this.saganApi = new SaganApi(HttpClients.shared(), this.server.url("/").toString(), () -> username,
+				"personal-access-token");
+		this.server.enqueue(json("ProjectResponse.json"));
+
+		var project = this.saganApi.getProjectAsync("spring-security");
+		assertThat(project).isNotDone();
+		assertThat(this.server.getRequestCount()).isEqualTo(0);
+
+		username.complete("user");
+		assertThat(project.get(1, TimeUnit.SECONDS).slug()).isEqualTo("spring-security");
+		assertThat(this.server.takeRequest().getHeader("Authorization")).isEqualTo("Basic %s".formatted(AUTH_TOKEN));
+	}
+
 	@Test
 	public void getProjectWhenExistsThenSuccess() throws Exception {
 		this.server.enqueue(json("ProjectResponse.json"));
@@ -113,6 +181,29 @@ public class SaganApiTests {
 		assertThat(recordedRequest.getHeader("Authorization")).isEqualTo("Basic %s".formatted(AUTH_TOKEN));
 	}
 
+	@Test
+	public void getProjectWhenServiceUnavailableThenRetried() throws Exception {
+		this.saganApi.setRetryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(10)).build());
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+		this.server.enqueue(json("ProjectResponse.json"));
+
+		var project = this.saganApi.getProject("spring-security");
+		assertThat(project.slug()).isEqualTo("spring-security");
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void createReleaseWhenServiceUnavailableThenNotRetried() throws Exception {
+		this.saganApi.setRetryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(10)).build());
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+
+		// @formatter:off
+		assertThatExceptionOfType(SaganApi.HttpClientException.class)
+			.isThrownBy(() -> this.saganApi.createRelease("spring-security", this.release));
+		// @formatter:on
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
 	@Test
 	public void getReleasesWhenExistsThenSuccess() throws Exception {
 		this.server.enqueue(json("ReleasesResponse.json"));
@@ -131,6 +222,47 @@ public class SaganApiTests {
 		assertThat(recordedRequest.getHeader("Authorization")).isEqualTo("Basic %s".formatted(AUTH_TOKEN));
 	}
 
+	@Test
+	public void getReleasesWhenDeflateEncodedThenFewerBytesTransferred() throws Exception {
+		var uncompressedSize = string("ReleasesResponse.json").getBytes(StandardCharsets.UTF_8).length;
+		var socketFactory = new ByteCountingServerSocketFactory();
+		try (var server = new MockWebServer()) {
+			server.setServerSocketFactory(socketFactory);
+			server.enqueue(deflateJson("ReleasesResponse.json"));
+
+			var saganApi = new SaganApi(server.url("/").toString(), "user", "personal-access-token");
+			var releases = saganApi.getReleases("spring-security");
+			assertThat(releases).hasSize(8);
+
+			var recordedRequest = server.takeRequest();
+			assertThat(recordedRequest.getHeader("Accept-Encoding")).isEqualTo("gzip, deflate");
+		}
+		// Read after shutdown, so that every byte written, including headers, is counted
+		assertThat(socketFactory.getBytesWritten()).isPositive().isLessThan(uncompressedSize / 2);
+	}
+
+	@Test
+	public void getReleasesWhenRecordingThenHttpRequestEventRecorded() throws Exception {
+		this.server.enqueue(json("ReleasesResponse.json"));
+
+		var recordingFile = this.tempDir.resolve("recording.jfr");
+		try (var recording = new Recording()) {
+			recording.enable(HttpRequestEvent.NAME).withoutThreshold();
+			recording.start();
+			assertThat(this.saganApi.getReleases("spring-security")).hasSize(8);
+			recording.stop();
+			recording.dump(recordingFile);
+		}
+
+		var events = RecordingFile.readAllEvents(recordingFile);
+		assertThat(events).singleElement().satisfies((event) -> {
+			assertThat(event.getString("api")).isEqualTo("Sagan");
+			assertThat(event.getString("endpoint")).isEqualTo("/projects/{slug}/releases");
+			assertThat(event.getInt("status")).isEqualTo(200);
+			assertThat(event.getInt("retries")).isEqualTo(0);
+		});
+	}
+
 	@Test
 	public void getReleasesWhenEndOfLifeThenEmpty() throws Exception {
 		this.server.enqueue(json("EmptyReleasesResponse.json"));
@@ -166,6 +298,26 @@ public class SaganApiTests {
 		json.assertThat("$.current", is(true));
 	}
 
+	@Test
+	public void createReleaseAsyncWhenErrorThenCompletesExceptionallyWithHttpClientException() throws Exception {
+		this.server.enqueue(new MockResponse().setResponseCode(400).setBody("error"));
+		var result = this.saganApi.createReleaseAsync("spring-security", this.release);
+
+		// @formatter:off
+		assertThatExceptionOfType(ExecutionException.class)
+			.isThrownBy(() -> result.get(1, TimeUnit.SECONDS))
+			.havingCause()
+			.isInstanceOfSatisfying(SaganApi.HttpClientException.class, (ex) -> {
+				assertThat(ex.getStatusCode()).isEqualTo(400);
+				assertThat(ex.getResponseBody()).isEqualTo("error");
+			});
+		// @formatter:on
+
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getMethod()).isEqualTo("POST");
+		assertThat(recordedRequest.getPath()).isEqualTo("/projects/spring-security/releases");
+	}
+
 	@Test
 	public void getReleaseWhenExistsThenSuccess() throws Exception {
 		this.server.enqueue(json("ReleaseResponse.json"));
@@ -251,6 +403,33 @@ public class SaganApiTests {
 		assertThat(recordedRequest.getHeader("Authorization")).isEqualTo("Basic %s".formatted(AUTH_TOKEN));
 	}
 
+	@Test
+	public void jsonWhenGenerationPayloadThenDatesReadAsLocalDates() throws Exception {
+		Generation generation = Json.reader(Generation.class).readValue(string("GenerationResponse.json"));
+		// Unknown properties (e.g. _links) are ignored, and ISO dates are read as LocalDate
+		assertThat(generation).isEqualTo(new Generation("6.1.x", LocalDate.of(2023, 5, 15), LocalDate.of(2024, 5, 15),
+				LocalDate.of(2025, 9, 15)));
+
+		var written = Json.writer(Generation.class).writeValueAsString(generation);
+		assertThat(Json.reader(Generation.class).<Generation>readValue(written)).isEqualTo(generation);
+	}
+
+	@Test
+	public void jsonWhenReleasePayloadThenWrittenInSaganFormat() throws Exception {
+		Release release = Json.reader(Release.class).readValue(string("ReleaseResponse.json"));
+		assertThat(release.version()).isEqualTo("6.1.0");
+		assertThat(release.status()).isEqualTo(ReleaseStatus.GENERAL_AVAILABILITY);
+
+		var written = Json.writer(Release.class).writeValueAsString(release);
+		var json = JsonAssert.with(written);
+		json.assertThat("$.version", is("6.1.0"));
+		json.assertThat("$.referenceDocUrl", is(release.referenceDocUrl()));
+		json.assertThat("$.status", is("GENERAL_AVAILABILITY"));
+		json.assertThat("$.current", is(true));
+		json.assertNotDefined("$._links");
+		assertThat(Json.reader(Release.class).<Release>readValue(written)).isEqualTo(release);
+	}
+
 	private static MockResponse json(String path) throws IOException {
 		// @formatter:off
 		return new MockResponse()
@@ -259,6 +438,19 @@ public class SaganApiTests {
 		// @formatter:on
 	}
 
+	private static MockResponse deflateJson(String path) throws IOException {
+		var body = new Buffer();
+		try (var outputStream = new DeflaterOutputStream(body.outputStream())) {
+			outputStream.write(string(path).getBytes(StandardCharsets.UTF_8));
+		}
+		// @formatter:off
+		return new MockResponse()
+				.addHeader("Content-Type", "application/json")
+				.addHeader("Content-Encoding", "deflate")
+				.setBody(body);
+		// @formatter:on
+	}
+
 	private static String string(String path) throws IOException {
 		var outputStream = new ByteArrayOutputStream();
 		try (var inputStream = ClassLoader.getSystemClassLoader().getResourceAsStream(path)) {
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.fixtures;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ServerSocketFactory;
+
+/**
+ * A {@link ServerSocketFactory} that counts the bytes written to accepted connections,
+ * i.e. the bytes a server sends on the wire, including headers and after any
+ * compression, and the number of connections accepted.
+ * <p>
+ * Example usage: <pre>
+ * var socketFactory = new ByteCountingServerSocketFactory();
+ * mockWebServer.setServerSocketFactory(socketFactory);
+ * ...
+ * mockWebServer.shutdown();
+ * var bytesWritten = socketFactory.getBytesWritten();
+ * </pre>
+ */
+public class ByteCountingServerSocketFactory extends ServerSocketFactory {
+
+	private final AtomicLong bytesWritten = new AtomicLong();
+
+	private final AtomicLong connectionsAccepted = new AtomicLong();
+
+	/**
+	 * Return the number of bytes written to all accepted connections.
+	 * @return The number of bytes
+	 */
+	public long getBytesWritten() {
+		return this.bytesWritten.get();
+	}
+
+	/**
+	 * Return the number of connections accepted, each of which would cost a TLS
+	 * handshake over HTTPS.
+	 * @return The number of connections
+	 */
+	public long getConnectionsAccepted() {
+		return this.connectionsAccepted.get();
+	}
+
+	@Override
+	public ServerSocket createServerSocket() throws IOException {
+		return new ByteCountingServerSocket();
+	}
+
+	@Override
+	public ServerSocket createServerSocket(int port) throws IOException {
+		return createServerSocket(port, 50, null);
+	}
+
+	@Override
+	public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+		return createServerSocket(port, backlog, null);
+	}
+
+	@Override
+	public ServerSocket createServerSocket(int port, int backlog, InetAddress bindAddress) throws IOException {
+		var serverSocket = new ByteCountingServerSocket();
+		serverSocket.bind(new InetSocketAddress(bindAddress, port), backlog);
+		return serverSocket;
+	}
+
+	private final class ByteCountingServerSocket extends ServerSocket {
+
+		private ByteCountingServerSocket() throws IOException {
+		}
+
+		@Override
+		public Socket accept() throws IOException {
+			var socket = new ByteCountingSocket();
+			implAccept(socket);
+			ByteCountingServerSocketFactory.this.connectionsAccepted.incrementAndGet();
+			return socket;
+		}
+
+	}
+
+	private final class ByteCountingSocket extends Socket {
+
+		@Override
+		public OutputStream getOutputStream() throws IOException {
+			return new FilterOutputStream(super.getOutputStream()) {
+
+				@Override
+				public void write(int b) throws IOException {
+					this.out.write(b);
+					ByteCountingServerSocketFactory.this.bytesWritten.incrementAndGet();
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					this.out.write(b, off, len);
+					ByteCountingServerSocketFactory.this.bytesWritten.addAndGet(len);
+				}
+
+			};
+		}
+
+	}
+
+}
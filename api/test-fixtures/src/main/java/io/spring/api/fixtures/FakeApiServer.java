@@ -0,0 +1,242 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.fixtures;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Base class for in-process stand-ins of the APIs used by the release tools, which keep
+ * state across requests instead of replaying canned responses.
+ * <p>
+ * Every response can be delayed by a configurable latency, and a configurable fraction of
+ * requests can be failed with an error status to exercise retries. The server is started
+ * lazily by {@link #getBaseUrl()} and stopped by {@link #close()}.
+ */
+public abstract class FakeApiServer implements Closeable {
+
+	private final MockWebServer server = new MockWebServer();
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final AtomicLong requestCount = new AtomicLong();
+
+	private final List<Instant> requestTimes = new ArrayList<>();
+
+	private final Random random = new Random();
+
+	private volatile Duration latency = Duration.ZERO;
+
+	private volatile double errorRate;
+
+	private volatile int errorStatus = 503;
+
+	private boolean started;
+
+	protected FakeApiServer() {
+		this.server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				return FakeApiServer.this.dispatch(request);
+			}
+		});
+	}
+
+	/**
+	 * Return the base URL of the server, starting it if needed.
+	 * @return The base URL, without a trailing slash
+	 */
+	public synchronized String getBaseUrl() {
+		if (!this.started) {
+			try {
+				this.server.start();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Unable to start server", ex);
+			}
+			this.started = true;
+		}
+		var url = this.server.url("/").toString();
+		return url.substring(0, url.length() - 1);
+	}
+
+	/**
+	 * Set the time each response is delayed before its headers are sent.
+	 * @param latency The latency (defaults to zero)
+	 */
+	public void setLatency(Duration latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * Set the fraction of requests that fail with the error status instead of being
+	 * processed.
+	 * @param errorRate A value between 0 (no errors, the default) and 1 (every request
+	 * fails)
+	 */
+	public void setErrorRate(double errorRate) {
+		if (errorRate < 0 || errorRate > 1) {
+			throw new IllegalArgumentException("errorRate must be between 0 and 1");
+		}
+		this.errorRate = errorRate;
+	}
+
+	/**
+	 * Set the status of injected errors.
+	 * @param errorStatus The status code (defaults to 503)
+	 */
+	public void setErrorStatus(int errorStatus) {
+		this.errorStatus = errorStatus;
+	}
+
+	/**
+	 * Set the seed used to decide which requests fail, to make a run repeatable.
+	 * @param seed The seed
+	 */
+	public void setSeed(long seed) {
+		synchronized (this.random) {
+			this.random.setSeed(seed);
+		}
+	}
+
+	/**
+	 * Return the number of requests received, including failed ones.
+	 * @return The request count
+	 */
+	public long getRequestCount() {
+		return this.requestCount.get();
+	}
+
+	/**
+	 * Return the times at which requests were received, including failed ones, e.g. to
+	 * determine if requests were sent concurrently.
+	 * @return The request times, in the order they were received
+	 */
+	public List<Instant> getRequestTimes() {
+		synchronized (this.requestTimes) {
+			return List.copyOf(this.requestTimes);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (this.started) {
+			this.server.shutdown();
+			this.started = false;
+		}
+	}
+
+	/**
+	 * Handle a request that was not failed by error injection.
+	 * @param request The request
+	 * @return The response
+	 */
+	protected abstract MockResponse handle(RecordedRequest request);
+
+	private MockResponse dispatch(RecordedRequest request) {
+		this.requestCount.incrementAndGet();
+		synchronized (this.requestTimes) {
+			this.requestTimes.add(Instant.now());
+		}
+		MockResponse response;
+		if (injectError()) {
+			response = json(this.errorStatus, Map.of("message", "Injected failure"));
+		}
+		else {
+			try {
+				response = handle(request);
+			}
+			catch (IllegalArgumentException ex) {
+				response = json(400, Map.of("message", String.valueOf(ex.getMessage())));
+			}
+			catch (RuntimeException ex) {
+				response = json(500, Map.of("message", String.valueOf(ex.getMessage())));
+			}
+		}
+		var latency = this.latency;
+		if (!latency.isZero()) {
+			response.setHeadersDelay(latency.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		return response;
+	}
+
+	private boolean injectError() {
+		var errorRate = this.errorRate;
+		if (errorRate == 0) {
+			return false;
+		}
+		synchronized (this.random) {
+			return this.random.nextDouble() < errorRate;
+		}
+	}
+
+	/**
+	 * Create a JSON response.
+	 * @param status The status code
+	 * @param body The value written as the body
+	 * @return The response
+	 */
+	protected MockResponse json(int status, Object body) {
+		try {
+			// @formatter:off
+			return new MockResponse()
+				.setResponseCode(status)
+				.setHeader("Content-Type", "application/json")
+				.setBody(this.objectMapper.writeValueAsString(body));
+			// @formatter:on
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Unable to write response", ex);
+		}
+	}
+
+	/**
+	 * Read the JSON body of a request.
+	 * @param request The request
+	 * @return The body, or an empty object if the request has no body
+	 */
+	protected JsonNode readBody(RecordedRequest request) {
+		var body = request.getBody().readUtf8();
+		if (body.isEmpty()) {
+			return this.objectMapper.createObjectNode();
+		}
+		try {
+			return this.objectMapper.readTree(body);
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalArgumentException("Unable to read request body", ex);
+		}
+	}
+
+}
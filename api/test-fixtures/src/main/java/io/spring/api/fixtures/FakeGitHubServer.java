@@ -0,0 +1,637 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.fixtures;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * A stateful stand-in for the GitHub REST and GraphQL APIs, implementing the endpoints
+ * used by {@code GitHubApi}.
+ * <p>
+ * Repositories, milestones and issues are kept in memory, so milestones created or closed
+ * by one request are visible to the next. Lists are paged with {@code per_page} and
+ * {@code page} and linked with a {@code Link} header, list responses carry an
+ * {@code ETag} and answer a matching {@code If-None-Match} with {@code 304}, and every
+ * response reports the rate limit with {@code X-RateLimit-*} headers. Once the rate limit
+ * is used up, requests are rejected with {@code 403} until it resets.
+ * <p>
+ * Large organizations can be generated with {@link #populate(String, int, int, int)},
+ * e.g. to load test bulk operations:
+ *
+ * <pre>
+ * try (var server = new FakeGitHubServer()) {
+ *     server.populate("spring-projects", 200, 50, 1);
+ *     server.setLatency(Duration.ofMillis(50));
+ *     var gitHubApi = new GitHubApi(server.getBaseUrl(), "token");
+ *     ...
+ * }
+ * </pre>
+ */
+public class FakeGitHubServer extends FakeApiServer {
+
+	private static final Pattern REPOSITORY_PATH_PATTERN = Pattern.compile("/repos/([^/]+)/([^/]+)(/.*)?");
+
+	private static final Pattern FIRST_PATTERN = Pattern.compile("milestones\\(first: (\\d+)");
+
+	private static final int DEFAULT_PAGE_SIZE = 30;
+
+	private static final int MAX_PAGE_SIZE = 100;
+
+	private static final Comparator<MilestoneState> DUE_ON_ORDER = Comparator
+		.comparing((MilestoneState milestone) -> milestone.dueOn, Comparator.nullsLast(Comparator.naturalOrder()))
+		.thenComparing((milestone) -> milestone.number);
+
+	private final Map<String, RepositoryState> repositories = new ConcurrentHashMap<>();
+
+	private volatile String login = "octocat";
+
+	private int rateLimit = 5000;
+
+	private Duration rateLimitWindow = Duration.ofHours(1);
+
+	private int rateLimitUsed;
+
+	private Instant rateLimitReset;
+
+	/**
+	 * Set the login of the authenticated user.
+	 * @param login The login (defaults to "octocat")
+	 */
+	public void setLogin(String login) {
+		this.login = login;
+	}
+
+	/**
+	 * Set the number of requests allowed in each rate limit window, and start a new
+	 * window.
+	 * @param rateLimit The number of requests (defaults to 5000)
+	 * @param rateLimitWindow The duration of a window (defaults to 1 hour)
+	 */
+	public synchronized void setRateLimit(int rateLimit, Duration rateLimitWindow) {
+		this.rateLimit = rateLimit;
+		this.rateLimitWindow = rateLimitWindow;
+		this.rateLimitUsed = 0;
+		this.rateLimitReset = null;
+	}
+
+	/**
+	 * Add a repository without milestones, if it does not exist.
+	 * @param owner The repository owner
+	 * @param name The repository name
+	 */
+	public void addRepository(String owner, String name) {
+		repository(owner, name);
+	}
+
+	/**
+	 * Add an open milestone, adding the repository if it does not exist.
+	 * @param owner The repository owner
+	 * @param name The repository name
+	 * @param title The milestone title
+	 * @param dueOn The due date, or null
+	 * @return The number of the milestone
+	 */
+	public long addMilestone(String owner, String name, String title, Instant dueOn) {
+		var repository = repository(owner, name);
+		synchronized (repository) {
+			return repository.addMilestone(title, dueOn).number;
+		}
+	}
+
+	/**
+	 * Add open issues to a milestone.
+	 * @param owner The repository owner
+	 * @param name The repository name
+	 * @param milestone The milestone number
+	 * @param count The number of issues to add
+	 */
+	public void addOpenIssues(String owner, String name, long milestone, int count) {
+		var repository = repository(owner, name);
+		synchronized (repository) {
+			if (!repository.milestones.containsKey(milestone)) {
+				throw new IllegalArgumentException("Milestone %s does not exist".formatted(milestone));
+			}
+			for (var i = 0; i < count; i++) {
+				repository.addIssue("Issue for milestone " + milestone, milestone);
+			}
+		}
+	}
+
+	/**
+	 * Generate repositories named {@code project-0}, {@code project-1}, etc. with weekly
+	 * milestones {@code 1.0.0}, {@code 1.1.0}, etc. due from today.
+	 * @param owner The owner of the repositories
+	 * @param repositoryCount The number of repositories
+	 * @param milestonesPerRepository The number of open milestones of each repository
+	 * @param openIssuesPerMilestone The number of open issues of each milestone
+	 */
+	public void populate(String owner, int repositoryCount, int milestonesPerRepository, int openIssuesPerMilestone) {
+		var firstDueOn = LocalDate.now(ZoneOffset.UTC).atTime(12, 0).toInstant(ZoneOffset.UTC);
+		for (var i = 0; i < repositoryCount; i++) {
+			var name = "project-" + i;
+			for (var j = 0; j < milestonesPerRepository; j++) {
+				var number = addMilestone(owner, name, "1.%s.0".formatted(j), firstDueOn.plus(Duration.ofDays(7L * j)));
+				addOpenIssues(owner, name, number, openIssuesPerMilestone);
+			}
+		}
+	}
+
+	/**
+	 * Return the titles of the open milestones of a repository.
+	 * @param owner The repository owner
+	 * @param name The repository name
+	 * @return The titles sorted by due date, or an empty list if the repository does not
+	 * exist
+	 */
+	public List<String> getMilestoneTitles(String owner, String name) {
+		var repository = this.repositories.get(owner + "/" + name);
+		if (repository == null) {
+			return List.of();
+		}
+		synchronized (repository) {
+			return repository.milestones(MilestoneState::isOpen).stream().map((milestone) -> milestone.title).toList();
+		}
+	}
+
+	/**
+	 * Return the tags of the releases of a repository.
+	 * @param owner The repository owner
+	 * @param name The repository name
+	 * @return The tags in the order the releases were created, or an empty list if the
+	 * repository does not exist
+	 */
+	public List<String> getReleaseTags(String owner, String name) {
+		var repository = this.repositories.get(owner + "/" + name);
+		if (repository == null) {
+			return List.of();
+		}
+		synchronized (repository) {
+			return new ArrayList<>(repository.releases.keySet());
+		}
+	}
+
+	@Override
+	protected MockResponse handle(RecordedRequest request) {
+		MockResponse response;
+		if (!reserveRateLimit()) {
+			// @formatter:off
+			response = json(403, Map.of(
+					"message", "API rate limit exceeded",
+					"documentation_url", "https://docs.github.com/rest/overview/rate-limits-for-the-rest-api"));
+			// @formatter:on
+		}
+		else {
+			response = route(request);
+			if (response.getStatus().contains(" 304 ")) {
+				// Conditional requests that are not modified do not count
+				releaseRateLimit();
+			}
+		}
+		return addRateLimitHeaders(response);
+	}
+
+	private MockResponse route(RecordedRequest request) {
+		var url = Objects.requireNonNull(request.getRequestUrl());
+		var method = request.getMethod();
+		var path = url.encodedPath();
+		if (path.equals("/user") && "GET".equals(method)) {
+			return json(200, user(trimSlash(String.valueOf(url.resolve("/")))));
+		}
+		if (path.equals("/graphql") && "POST".equals(method)) {
+			return graphQl(readBody(request));
+		}
+		var pathMatcher = REPOSITORY_PATH_PATTERN.matcher(path);
+		var baseUrl = trimSlash(String.valueOf(url.resolve("/")));
+		var repository = pathMatcher.matches()
+				? this.repositories.get(pathMatcher.group(1) + "/" + pathMatcher.group(2)) : null;
+		if (repository == null) {
+			return notFound();
+		}
+		var resource = Objects.requireNonNullElse(pathMatcher.group(3), "");
+		synchronized (repository) {
+			if (resource.equals("/milestones")) {
+				return switch (Objects.requireNonNull(method)) {
+					case "GET" -> getMilestones(request, baseUrl, repository);
+					case "POST" -> createMilestone(readBody(request), baseUrl, repository);
+					default -> notFound();
+				};
+			}
+			if (resource.startsWith("/milestones/")) {
+				var milestone = repository.milestones.get(parseNumber(resource.substring(12)));
+				if (milestone == null) {
+					return notFound();
+				}
+				return switch (Objects.requireNonNull(method)) {
+					case "GET" -> json(200, milestone(baseUrl, repository, milestone));
+					case "PATCH" -> updateMilestone(readBody(request), baseUrl, repository, milestone);
+					default -> notFound();
+				};
+			}
+			if (resource.equals("/issues")) {
+				return switch (Objects.requireNonNull(method)) {
+					case "GET" -> getIssues(request, baseUrl, repository);
+					case "POST" -> createIssue(readBody(request), baseUrl, repository);
+					default -> notFound();
+				};
+			}
+			if (resource.equals("/releases") && "POST".equals(method)) {
+				return createRelease(readBody(request), repository);
+			}
+			return notFound();
+		}
+	}
+
+	private MockResponse getMilestones(RecordedRequest request, String baseUrl, RepositoryState repository) {
+		var url = Objects.requireNonNull(request.getRequestUrl());
+		var state = Objects.requireNonNullElse(url.queryParameter("state"), "open");
+		var milestones = repository.milestones((milestone) -> state.equals("all") || state.equals(milestone.state));
+		return page(request, repository, milestones, (milestone) -> milestone(baseUrl, repository, milestone));
+	}
+
+	private MockResponse createMilestone(JsonNode body, String baseUrl, RepositoryState repository) {
+		var title = body.path("title").asText(null);
+		if (title == null) {
+			return unprocessable("Milestone", "title", "missing_field");
+		}
+		var exists = repository.milestones.values().stream().anyMatch((milestone) -> title.equals(milestone.title));
+		if (exists) {
+			return unprocessable("Milestone", "title", "already_exists");
+		}
+		var dueOn = body.path("due_on").isTextual() ? Instant.parse(body.get("due_on").asText()) : null;
+		var milestone = repository.addMilestone(title, dueOn);
+		milestone.description = body.path("description").asText(null);
+		return json(201, milestone(baseUrl, repository, milestone));
+	}
+
+	private MockResponse updateMilestone(JsonNode body, String baseUrl, RepositoryState repository,
+			MilestoneState milestone) {
+		if (body.has("title")) {
+			milestone.title = body.get("title").asText();
+		}
+		if (body.has("state")) {
+			milestone.state = body.get("state").asText();
+		}
+		if (body.has("due_on")) {
+			milestone.dueOn = body.get("due_on").isNull() ? null : Instant.parse(body.get("due_on").asText());
+		}
+		repository.version++;
+		return json(200, milestone(baseUrl, repository, milestone));
+	}
+
+	private MockResponse getIssues(RecordedRequest request, String baseUrl, RepositoryState repository) {
+		var url = Objects.requireNonNull(request.getRequestUrl());
+		var state = Objects.requireNonNullElse(url.queryParameter("state"), "open");
+		var milestoneFilter = Objects.requireNonNullElse(url.queryParameter("milestone"), "*");
+		Predicate<IssueState> milestoneMatches = switch (milestoneFilter) {
+			case "*" -> (issue) -> true;
+			case "none" -> (issue) -> issue.milestone == null;
+			default -> {
+				var milestone = parseNumber(milestoneFilter);
+				yield (issue) -> Objects.equals(issue.milestone, milestone);
+			}
+		};
+		// @formatter:off
+		var issues = repository.issues.values().stream()
+			.filter((issue) -> !state.equals("closed"))
+			.filter(milestoneMatches)
+			.toList();
+		// @formatter:on
+		return page(request, repository, issues, (issue) -> issue(baseUrl, repository, issue));
+	}
+
+	private MockResponse createIssue(JsonNode body, String baseUrl, RepositoryState repository) {
+		var title = body.path("title").asText(null);
+		if (title == null) {
+			return unprocessable("Issue", "title", "missing_field");
+		}
+		Long milestone = null;
+		if (body.path("milestone").isNumber()) {
+			milestone = body.get("milestone").asLong();
+			if (!repository.milestones.containsKey(milestone)) {
+				return unprocessable("Issue", "milestone", "invalid");
+			}
+		}
+		var issue = repository.addIssue(title, milestone);
+		issue.body = body.path("body").asText(null);
+		return json(201, issue(baseUrl, repository, issue));
+	}
+
+	private MockResponse createRelease(JsonNode body, RepositoryState repository) {
+		var tag = body.path("tag_name").asText(null);
+		if (tag == null) {
+			return unprocessable("Release", "tag_name", "missing_field");
+		}
+		if (repository.releases.containsKey(tag)) {
+			return unprocessable("Release", "tag_name", "already_exists");
+		}
+		var release = new LinkedHashMap<String, Object>();
+		release.put("id", repository.releases.size() + 1);
+		release.put("tag_name", tag);
+		release.put("target_commitish", body.path("target_commitish").asText("main"));
+		release.put("name", body.path("name").asText(null));
+		release.put("body", body.path("body").asText(null));
+		release.put("draft", body.path("draft").asBoolean());
+		release.put("prerelease", body.path("prerelease").asBoolean());
+		repository.releases.put(tag, release);
+		repository.version++;
+		return json(201, release);
+	}
+
+	private MockResponse graphQl(JsonNode body) {
+		var variables = body.path("variables");
+		var owner = variables.path("owner").asText();
+		var name = variables.path("name").asText();
+		var repository = this.repositories.get(owner + "/" + name);
+		if (repository == null) {
+			var message = "Could not resolve to a Repository with the name '%s/%s'.".formatted(owner, name);
+			var error = Map.of("type", "NOT_FOUND", "message", message);
+			var data = new LinkedHashMap<String, Object>();
+			data.put("repository", null);
+			return json(200, Map.of("data", data, "errors", List.of(error)));
+		}
+		var firstMatcher = FIRST_PATTERN.matcher(body.path("query").asText());
+		var first = firstMatcher.find() ? Integer.parseInt(firstMatcher.group(1)) : MAX_PAGE_SIZE;
+		var cursor = variables.path("cursor");
+		var offset = cursor.isTextual() ? decodeCursor(cursor.asText()) : 0;
+		synchronized (repository) {
+			var milestones = repository.milestones(MilestoneState::isOpen);
+			var end = Math.min(offset + first, milestones.size());
+			var nodes = new ArrayList<Map<String, Object>>();
+			for (var milestone : milestones.subList(Math.min(offset, end), end)) {
+				var node = new LinkedHashMap<String, Object>();
+				node.put("number", milestone.number);
+				node.put("title", milestone.title);
+				node.put("dueOn", (milestone.dueOn != null) ? milestone.dueOn.toString() : null);
+				node.put("openIssues", Map.of("totalCount", milestone.openIssues));
+				node.put("openPullRequests", Map.of("totalCount", 0));
+				nodes.add(node);
+			}
+			var pageInfo = Map.of("hasNextPage", end < milestones.size(), "endCursor", encodeCursor(end));
+			var connection = Map.of("nodes", nodes, "pageInfo", pageInfo);
+			return json(200, Map.of("data", Map.of("repository", Map.of("milestones", connection))));
+		}
+	}
+
+	private <T> MockResponse page(RecordedRequest request, RepositoryState repository, List<T> items,
+			Function<T, Object> mapper) {
+		var url = Objects.requireNonNull(request.getRequestUrl());
+		var etag = "W/\"%x-%x\"".formatted(repository.version,
+				url.encodedQuery() != null ? url.encodedQuery().hashCode() : 0);
+		if (etag.equals(request.getHeader("If-None-Match"))) {
+			return new MockResponse().setResponseCode(304).setHeader("ETag", etag);
+		}
+		var perPage = Math.min(parseInt(url.queryParameter("per_page"), DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+		var page = parseInt(url.queryParameter("page"), 1);
+		var lastPage = Math.max(1, (items.size() + perPage - 1) / perPage);
+		var from = Math.min((page - 1) * perPage, items.size());
+		var to = Math.min(from + perPage, items.size());
+		var response = json(200, items.subList(from, to).stream().map(mapper).toList()).setHeader("ETag", etag);
+		var links = new ArrayList<String>();
+		if (page < lastPage) {
+			links.add(link(url, page + 1, "next"));
+			links.add(link(url, lastPage, "last"));
+		}
+		if (page > 1) {
+			links.add(link(url, page - 1, "prev"));
+			links.add(link(url, 1, "first"));
+		}
+		if (!links.isEmpty()) {
+			response.setHeader("Link", String.join(", ", links));
+		}
+		return response;
+	}
+
+	private static String link(HttpUrl url, int page, String rel) {
+		return "<%s>; rel=\"%s\"".formatted(url.newBuilder().setQueryParameter("page", String.valueOf(page)).build(),
+				rel);
+	}
+
+	private Map<String, Object> user(String baseUrl) {
+		var user = new LinkedHashMap<String, Object>();
+		user.put("login", this.login);
+		user.put("name", this.login);
+		user.put("url", baseUrl + "/users/" + this.login);
+		return user;
+	}
+
+	private Map<String, Object> milestone(String baseUrl, RepositoryState repository, MilestoneState milestone) {
+		var result = new LinkedHashMap<String, Object>();
+		result.put("url", "%s/repos/%s/milestones/%s".formatted(baseUrl, repository.fullName, milestone.number));
+		result.put("number", milestone.number);
+		result.put("title", milestone.title);
+		result.put("description", milestone.description);
+		result.put("state", milestone.state);
+		result.put("open_issues", milestone.openIssues);
+		result.put("closed_issues", 0);
+		result.put("due_on", (milestone.dueOn != null) ? milestone.dueOn.toString() : null);
+		return result;
+	}
+
+	private Map<String, Object> issue(String baseUrl, RepositoryState repository, IssueState issue) {
+		var result = new LinkedHashMap<String, Object>();
+		result.put("url", "%s/repos/%s/issues/%s".formatted(baseUrl, repository.fullName, issue.number));
+		result.put("number", issue.number);
+		result.put("title", issue.title);
+		result.put("body", issue.body);
+		result.put("state", "open");
+		result.put("milestone", issue.milestone);
+		result.put("user", Map.of("login", this.login));
+		return result;
+	}
+
+	private MockResponse notFound() {
+		return json(404, Map.of("message", "Not Found"));
+	}
+
+	private MockResponse unprocessable(String resource, String field, String code) {
+		var error = Map.of("resource", resource, "field", field, "code", code);
+		return json(422, Map.of("message", "Validation Failed", "errors", List.of(error)));
+	}
+
+	private synchronized boolean reserveRateLimit() {
+		var now = Instant.now();
+		if (this.rateLimitReset == null || !now.isBefore(this.rateLimitReset)) {
+			this.rateLimitReset = now.plus(this.rateLimitWindow);
+			this.rateLimitUsed = 0;
+		}
+		if (this.rateLimitUsed >= this.rateLimit) {
+			return false;
+		}
+		this.rateLimitUsed++;
+		return true;
+	}
+
+	private synchronized void releaseRateLimit() {
+		this.rateLimitUsed--;
+	}
+
+	private synchronized MockResponse addRateLimitHeaders(MockResponse response) {
+		// @formatter:off
+		return response
+			.setHeader("X-RateLimit-Limit", this.rateLimit)
+			.setHeader("X-RateLimit-Remaining", Math.max(this.rateLimit - this.rateLimitUsed, 0))
+			.setHeader("X-RateLimit-Reset", this.rateLimitReset.getEpochSecond())
+			.setHeader("X-RateLimit-Used", this.rateLimitUsed)
+			.setHeader("X-RateLimit-Resource", "core");
+		// @formatter:on
+	}
+
+	private RepositoryState repository(String owner, String name) {
+		return this.repositories.computeIfAbsent(owner + "/" + name, RepositoryState::new);
+	}
+
+	private static long parseNumber(String value) {
+		try {
+			return Long.parseLong(value);
+		}
+		catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("Invalid number: " + value);
+		}
+	}
+
+	private static int parseInt(String value, int defaultValue) {
+		return (value != null) ? Math.max((int) parseNumber(value), 1) : defaultValue;
+	}
+
+	private static String encodeCursor(int offset) {
+		return Base64.getEncoder().encodeToString(("cursor:" + offset).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static int decodeCursor(String cursor) {
+		var decoded = new String(Base64.getDecoder().decode(cursor), StandardCharsets.UTF_8);
+		return (int) parseNumber(decoded.substring(decoded.indexOf(':') + 1));
+	}
+
+	private static String trimSlash(String baseUrl) {
+		return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+	}
+
+	/**
+	 * The state of a repository, guarded by its monitor.
+	 */
+	private static final class RepositoryState {
+
+		private final String fullName;
+
+		private final Map<Long, MilestoneState> milestones = new TreeMap<>();
+
+		private final Map<Long, IssueState> issues = new TreeMap<>();
+
+		private final Map<String, Map<String, Object>> releases = new LinkedHashMap<>();
+
+		private long nextMilestoneNumber = 1;
+
+		private long nextIssueNumber = 1;
+
+		/**
+		 * Incremented on every change, to derive the ETag of lists.
+		 */
+		private long version;
+
+		private RepositoryState(String fullName) {
+			this.fullName = fullName;
+		}
+
+		private MilestoneState addMilestone(String title, Instant dueOn) {
+			var milestone = new MilestoneState(this.nextMilestoneNumber++, title, dueOn);
+			this.milestones.put(milestone.number, milestone);
+			this.version++;
+			return milestone;
+		}
+
+		private IssueState addIssue(String title, Long milestone) {
+			var issue = new IssueState(this.nextIssueNumber++, title, milestone);
+			this.issues.put(issue.number, issue);
+			if (milestone != null) {
+				this.milestones.get(milestone).openIssues++;
+			}
+			this.version++;
+			return issue;
+		}
+
+		private List<MilestoneState> milestones(Predicate<MilestoneState> filter) {
+			return this.milestones.values().stream().filter(filter).sorted(DUE_ON_ORDER).toList();
+		}
+
+	}
+
+	private static final class MilestoneState {
+
+		private final long number;
+
+		private String title;
+
+		private String description;
+
+		private Instant dueOn;
+
+		private String state = "open";
+
+		private int openIssues;
+
+		private MilestoneState(long number, String title, Instant dueOn) {
+			this.number = number;
+			this.title = title;
+			this.dueOn = dueOn;
+		}
+
+		private boolean isOpen() {
+			return this.state.equals("open");
+		}
+
+	}
+
+	private static final class IssueState {
+
+		private final long number;
+
+		private final String title;
+
+		private final Long milestone;
+
+		private String body;
+
+		private IssueState(long number, String title, Long milestone) {
+			this.number = number;
+			this.title = title;
+			this.milestone = milestone;
+		}
+
+	}
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.fixtures;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * A stateful stand-in for the Sagan API of spring.io, implementing the endpoints used by
+ * {@code SaganApi}.
+ * <p>
+ * Projects, releases and generations are kept in memory and returned in the HAL format of
+ * the real API, so a release created by one request can be read or deleted by the next.
+ * Large numbers of projects can be generated with {@link #populate(int, int)}.
+ */
+public class FakeSaganServer extends FakeApiServer {
+
+	private static final Pattern PROJECT_PATH_PATTERN = Pattern
+		.compile("/projects/([^/]+)(?:/(releases|generations)(?:/([^/]+))?)?");
+
+	private static final Pattern PRERELEASE_PATTERN = Pattern.compile("[A-Za-z0-9.\\-]+?(M|RC)\\d+");
+
+	private final Map<String, ProjectState> projects = new LinkedHashMap<>();
+
+	/**
+	 * Add an active project, if it does not exist.
+	 * @param slug The project slug, e.g. {@code spring-security}
+	 * @param name The project name, e.g. {@code Spring Security}
+	 */
+	public synchronized void addProject(String slug, String name) {
+		this.projects.computeIfAbsent(slug, (key) -> new ProjectState(slug, name));
+	}
+
+	/**
+	 * Add a release to a project, adding the project if it does not exist.
+	 * @param slug The project slug
+	 * @param version The version of the release
+	 */
+	public synchronized void addRelease(String slug, String version) {
+		project(slug).releases.put(version, release(version, null, null, false));
+	}
+
+	/**
+	 * Add a generation to a project, adding the project if it does not exist.
+	 * @param slug The project slug
+	 * @param name The name of the generation, e.g. {@code 6.2.x}
+	 * @param initialReleaseDate The date of the first release of the generation
+	 */
+	public synchronized void addGeneration(String slug, String name, LocalDate initialReleaseDate) {
+		var generation = new LinkedHashMap<String, Object>();
+		generation.put("name", name);
+		generation.put("initialReleaseDate", initialReleaseDate.toString());
+		generation.put("ossSupportEndDate", initialReleaseDate.plusYears(1).toString());
+		generation.put("commercialSupportEndDate", initialReleaseDate.plusYears(2).plusMonths(4).toString());
+		project(slug).generations.put(name, generation);
+	}
+
+	/**
+	 * Generate projects named {@code project-0}, {@code project-1}, etc. with releases
+	 * {@code 1.0.0}, {@code 1.1.0}, etc. and a generation for each release.
+	 * @param projectCount The number of projects
+	 * @param releasesPerProject The number of releases of each project
+	 */
+	public synchronized void populate(int projectCount, int releasesPerProject) {
+		var initialReleaseDate = LocalDate.now().minusMonths(releasesPerProject);
+		for (var i = 0; i < projectCount; i++) {
+			var slug = "project-" + i;
+			addProject(slug, "Project " + i);
+			for (var j = 0; j < releasesPerProject; j++) {
+				addRelease(slug, "1.%s.0".formatted(j));
+				addGeneration(slug, "1.%s.x".formatted(j), initialReleaseDate.plusMonths(j));
+			}
+		}
+	}
+
+	/**
+	 * Return the versions of the releases of a project.
+	 * @param slug The project slug
+	 * @return The versions in the order the releases were created, or an empty list if
+	 * the project does not exist
+	 */
+	public synchronized List<String> getReleaseVersions(String slug) {
+		var project = this.projects.get(slug);
+		return (project != null) ? new ArrayList<>(project.releases.keySet()) : List.of();
+	}
+
+	@Override
+	protected synchronized MockResponse handle(RecordedRequest request) {
+		var url = Objects.requireNonNull(request.getRequestUrl());
+		var rootUrl = String.valueOf(url.resolve("/"));
+		var baseUrl = rootUrl.substring(0, rootUrl.length() - 1);
+		var method = Objects.requireNonNull(request.getMethod());
+		var path = url.encodedPath();
+		if (path.equals("/projects")) {
+			return method.equals("GET") ? getProjects(baseUrl) : notFound();
+		}
+		var pathMatcher = PROJECT_PATH_PATTERN.matcher(path);
+		var project = pathMatcher.matches() ? this.projects.get(pathMatcher.group(1)) : null;
+		if (project == null) {
+			return notFound();
+		}
+		var collection = pathMatcher.group(2);
+		var name = pathMatcher.group(3);
+		if (collection == null) {
+			return method.equals("GET") ? json(200, project(baseUrl, project)) : notFound();
+		}
+		if (collection.equals("generations")) {
+			if (!method.equals("GET")) {
+				return notFound();
+			}
+			if (name == null) {
+				return json(200,
+						embedded("generations",
+								project.generations.values()
+									.stream()
+									.map((generation) -> generation(baseUrl, project, generation))
+									.toList()));
+			}
+			var generation = project.generations.get(name);
+			return (generation != null) ? json(200, generation(baseUrl, project, generation)) : notFound();
+		}
+		if (name == null) {
+			return switch (method) {
+				case "GET" -> json(200,
+						embedded("releases",
+								project.releases.values()
+									.stream()
+									.map((release) -> release(baseUrl, project, release))
+									.toList()));
+				case "POST" -> createRelease(readBody(request), project);
+				default -> notFound();
+			};
+		}
+		var release = project.releases.get(name);
+		if (release == null) {
+			return notFound();
+		}
+		return switch (method) {
+			case "GET" -> json(200, release(baseUrl, project, release));
+			case "DELETE" -> {
+				project.releases.remove(name);
+				yield new MockResponse().setResponseCode(204);
+			}
+			default -> notFound();
+		};
+	}
+
+	private MockResponse getProjects(String baseUrl) {
+		var projects = this.projects.values().stream().map((project) -> project(baseUrl, project)).toList();
+		return json(200, embedded("projects", projects));
+	}
+
+	private MockResponse createRelease(JsonNode body, ProjectState project) {
+		var version = body.path("version").asText(null);
+		if (version == null) {
+			return json(400, Map.of("message", "Release version is required"));
+		}
+		if (project.releases.containsKey(version)) {
+			return json(400, Map.of("message", "Release '%s' already present".formatted(version)));
+		}
+		project.releases.put(version, release(version, body.path("referenceDocUrl").asText(null),
+				body.path("apiDocUrl").asText(null), body.path("current").asBoolean()));
+		return new MockResponse().setResponseCode(201);
+	}
+
+	private ProjectState project(String slug) {
+		return this.projects.computeIfAbsent(slug, (key) -> new ProjectState(slug, slug));
+	}
+
+	private static Map<String, Object> release(String version, String referenceDocUrl, String apiDocUrl,
+			boolean current) {
+		var status = version.endsWith("SNAPSHOT") ? "SNAPSHOT"
+				: PRERELEASE_PATTERN.matcher(version).matches() ? "PRERELEASE" : "GENERAL_AVAILABILITY";
+		var release = new LinkedHashMap<String, Object>();
+		release.put("version", version);
+		release.put("apiDocUrl", apiDocUrl);
+		release.put("referenceDocUrl", referenceDocUrl);
+		release.put("status", status);
+		release.put("current", current);
+		return release;
+	}
+
+	private static Map<String, Object> project(String baseUrl, ProjectState project) {
+		var self = "%s/projects/%s".formatted(baseUrl, project.slug);
+		var result = new LinkedHashMap<String, Object>();
+		result.put("name", project.name);
+		result.put("slug", project.slug);
+		result.put("repositoryUrl", "https://github.com/spring-projects/" + project.slug);
+		result.put("status", "ACTIVE");
+		result.put("_links", Map.of("releases", link(self + "/releases"), "generations", link(self + "/generations"),
+				"self", link(self)));
+		return result;
+	}
+
+	private static Map<String, Object> release(String baseUrl, ProjectState project, Map<String, Object> release) {
+		var self = "%s/projects/%s/releases/%s".formatted(baseUrl, project.slug, release.get("version"));
+		return withLinks(release, Map.of("self", link(self)));
+	}
+
+	private static Map<String, Object> generation(String baseUrl, ProjectState project,
+			Map<String, Object> generation) {
+		var projectUrl = "%s/projects/%s".formatted(baseUrl, project.slug);
+		var self = "%s/generations/%s".formatted(projectUrl, generation.get("name"));
+		return withLinks(generation, Map.of("self", link(self), "project", link(projectUrl)));
+	}
+
+	private static Map<String, Object> withLinks(Map<String, Object> resource, Map<String, Object> links) {
+		var result = new LinkedHashMap<>(resource);
+		result.put("_links", links);
+		return result;
+	}
+
+	private static Map<String, Object> embedded(String name, List<?> resources) {
+		return Map.of("_embedded", Map.of(name, resources));
+	}
+
+	private static Map<String, Object> link(String href) {
+		return Map.of("href", href);
+	}
+
+	private MockResponse notFound() {
+		return json(404, Map.of("message", "Not Found"));
+	}
+
+	/**
+	 * The state of a project, guarded by the monitor of the server.
+	 */
+	private static final class ProjectState {
+
+		private final String slug;
+
+		private final String name;
+
+		private final Map<String, Map<String, Object>> releases = new LinkedHashMap<>();
+
+		private final Map<String, Map<String, Object>> generations = new LinkedHashMap<>();
+
+		private ProjectState(String slug, String name) {
+			this.slug = slug;
+			this.name = name;
+		}
+
+	}
+
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.fixtures;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+
+import com.github.api.GitHubApi;
+import com.github.api.GitHubGraphQlApi;
+import com.github.api.Milestone;
+import com.github.api.Release;
+import com.github.api.Repository;
+import io.spring.api.http.RetryPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FakeGitHubServerTests {
+
+	private static final String OWNER = "spring-projects";
+
+	private static final Repository REPOSITORY = new Repository(OWNER, "project-0");
+
+	private FakeGitHubServer server;
+
+	private HttpClient httpClient;
+
+	private GitHubApi gitHubApi;
+
+	@BeforeEach
+	public void setUp() {
+		this.server = new FakeGitHubServer();
+		this.httpClient = HttpClient.newHttpClient();
+		this.gitHubApi = gitHubApi();
+	}
+
+	@AfterEach
+	public void cleanUp() throws IOException {
+		this.server.close();
+	}
+
+	@Test
+	public void getMilestonesWhenManyPagesThenAllMilestonesInDueOrder() {
+		this.server.populate(OWNER, 1, 250, 0);
+		var milestones = this.gitHubApi.getMilestones(REPOSITORY);
+		assertThat(milestones).hasSize(250);
+		assertThat(milestones.get(0).title()).isEqualTo("1.0.0");
+		assertThat(milestones.get(249).title()).isEqualTo("1.249.0");
+		assertThat(this.server.getRequestCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void createMilestoneWhenCreatedThenVisibleToNextRequest() {
+		this.server.addRepository(OWNER, "project-0");
+		var dueOn = Instant.parse("2024-01-15T12:00:00Z");
+		var created = this.gitHubApi.createMilestone(REPOSITORY, new Milestone("1.0.0", null, dueOn));
+		assertThat(created.number()).isEqualTo(1L);
+		assertThat(created.dueOn()).isEqualTo(dueOn);
+		assertThat(gitHubApi().getMilestone(REPOSITORY, "1.0.0")).isEqualTo(created);
+	}
+
+	@Test
+	public void createMilestoneWhenExistsThenUnprocessable() {
+		this.server.addMilestone(OWNER, "project-0", "1.0.0", null);
+		var created = this.gitHubApi.createMilestone(REPOSITORY, new Milestone("1.0.0", null, null));
+		assertThat(created).isNull();
+		assertThat(this.server.getMilestoneTitles(OWNER, "project-0")).containsExactly("1.0.0");
+	}
+
+	@Test
+	public void closeMilestoneWhenOpenThenNoLongerListed() {
+		var number = this.server.addMilestone(OWNER, "project-0", "1.0.0", null);
+		this.server.addMilestone(OWNER, "project-0", "1.1.0", null);
+		this.gitHubApi.closeMilestone(REPOSITORY, number);
+		assertThat(this.server.getMilestoneTitles(OWNER, "project-0")).containsExactly("1.1.0");
+	}
+
+	@Test
+	public void hasOpenIssuesWhenIssuesAddedThenTrue() {
+		var number = this.server.addMilestone(OWNER, "project-0", "1.0.0", null);
+		assertThat(this.gitHubApi.hasOpenIssues(REPOSITORY, number)).isFalse();
+		var milestone = this.gitHubApi.getMilestone(REPOSITORY, "1.0.0");
+		this.gitHubApi.createReleaseIssue(REPOSITORY, milestone);
+		assertThat(gitHubApi().hasOpenIssues(REPOSITORY, number)).isTrue();
+	}
+
+	@Test
+	public void getMilestoneWhenGraphQlThenOpenIssuesCounted() {
+		this.server.populate(OWNER, 1, 150, 2);
+		var gitHubApi = new GitHubGraphQlApi(this.server.getBaseUrl(), "mock-token");
+		var milestone = gitHubApi.getMilestone(REPOSITORY, "1.149.0");
+		assertThat(milestone.number()).isEqualTo(150L);
+		assertThat(gitHubApi.hasOpenIssues(REPOSITORY, milestone.number())).isTrue();
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void createReleaseWhenCreatedThenRecorded() {
+		this.server.addRepository(OWNER, "project-0");
+		this.gitHubApi.createRelease(REPOSITORY, Release.tag("1.0.0").build());
+		assertThat(this.server.getReleaseTags(OWNER, "project-0")).containsExactly("1.0.0");
+	}
+
+	@Test
+	public void getUserWhenLoginSetThenLogin() {
+		this.server.setLogin("rwinch");
+		assertThat(this.gitHubApi.getUser().login()).isEqualTo("rwinch");
+	}
+
+	@Test
+	public void sendWhenRateLimitUsedThenForbidden() throws Exception {
+		this.server.setRateLimit(2, Duration.ofHours(1));
+		assertThat(send("/user").headers().firstValue("X-RateLimit-Remaining")).hasValue("1");
+		assertThat(send("/user").headers().firstValue("X-RateLimit-Remaining")).hasValue("0");
+		var httpResponse = send("/user");
+		assertThat(httpResponse.statusCode()).isEqualTo(403);
+		assertThat(httpResponse.headers().firstValue("X-RateLimit-Remaining")).hasValue("0");
+		assertThat(httpResponse.body()).contains("API rate limit exceeded");
+	}
+
+	@Test
+	public void sendWhenETagMatchesThenNotModifiedAndNotCounted() throws Exception {
+		this.server.populate(OWNER, 1, 5, 0);
+		var uri = "/repos/spring-projects/project-0/milestones?per_page=2";
+		var httpResponse = send(uri);
+		var etag = httpResponse.headers().firstValue("ETag").orElseThrow();
+		assertThat(httpResponse.headers().firstValue("Link")).hasValueSatisfying(
+				(link) -> assertThat(link).contains("page=2>; rel=\"next\"").contains("page=3>; rel=\"last\""));
+		var notModified = send(HttpRequest.newBuilder(URI.create(this.server.getBaseUrl() + uri))
+			.header("If-None-Match", etag)
+			.build());
+		assertThat(notModified.statusCode()).isEqualTo(304);
+		assertThat(notModified.headers().firstValue("X-RateLimit-Used")).hasValue("1");
+
+		this.server.addMilestone(OWNER, "project-0", "2.0.0", null);
+		var modified = send(HttpRequest.newBuilder(URI.create(this.server.getBaseUrl() + uri))
+			.header("If-None-Match", etag)
+			.build());
+		assertThat(modified.statusCode()).isEqualTo(200);
+	}
+
+	@Test
+	public void sendWhenRepositoryMissingThenNotFound() throws Exception {
+		assertThat(send("/repos/spring-projects/missing/milestones").statusCode()).isEqualTo(404);
+	}
+
+	@Test
+	public void sendWhenErrorRateThenInjectedErrorsRetried() {
+		this.server.populate(OWNER, 1, 1, 0);
+		this.server.setErrorRate(0.5);
+		this.server.setSeed(1);
+		for (var i = 0; i < 10; i++) {
+			// A new instance for each request, since milestones are indexed once
+			assertThat(gitHubApi().getMilestones(REPOSITORY)).hasSize(1);
+		}
+		assertThat(this.server.getRequestCount()).isGreaterThan(10);
+	}
+
+	@Test
+	public void sendWhenLatencyThenDelayed() throws Exception {
+		this.server.setLatency(Duration.ofMillis(200));
+		var start = System.nanoTime();
+		send("/user");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+	}
+
+	private GitHubApi gitHubApi() {
+		var gitHubApi = new GitHubApi(this.server.getBaseUrl(), "mock-token");
+		gitHubApi.setRetryPolicy(RetryPolicy.builder().maxAttempts(10).initialBackoff(Duration.ofMillis(1)).build());
+		return gitHubApi;
+	}
+
+	private HttpResponse<String> send(String path) throws Exception {
+		return send(HttpRequest.newBuilder(URI.create(this.server.getBaseUrl() + path)).build());
+	}
+
+	private HttpResponse<String> send(HttpRequest httpRequest) throws Exception {
+		return this.httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.api.fixtures;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import io.spring.api.Release;
+import io.spring.api.SaganApi;
+import io.spring.api.SaganApi.HttpClientException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class FakeSaganServerTests {
+
+	private FakeSaganServer server;
+
+	private SaganApi saganApi;
+
+	@BeforeEach
+	public void setUp() {
+		this.server = new FakeSaganServer();
+		this.saganApi = new SaganApi(this.server.getBaseUrl(), "user", "mock-token");
+	}
+
+	@AfterEach
+	public void cleanUp() throws IOException {
+		this.server.close();
+	}
+
+	@Test
+	public void getProjectsWhenPopulatedThenAllProjects() {
+		this.server.populate(100, 3);
+		var projects = this.saganApi.getProjects();
+		assertThat(projects).hasSize(100);
+		assertThat(projects.get(0).slug()).isEqualTo("project-0");
+		assertThat(this.saganApi.getReleases("project-99")).extracting(Release::version)
+			.containsExactly("1.0.0", "1.1.0", "1.2.0");
+		assertThat(this.saganApi.getGenerations("project-99")).hasSize(3);
+	}
+
+	@Test
+	public void createReleaseWhenCreatedThenVisibleToNextRequest() {
+		this.server.addProject("spring-security", "Spring Security");
+		var release = new Release("6.3.0-RC1", "https://docs.spring.io/{version}/index.html",
+				"https://docs.spring.io/{version}/api/", Release.ReleaseStatus.PRERELEASE, false);
+		this.saganApi.createRelease("spring-security", release);
+		assertThat(this.saganApi.getRelease("spring-security", "6.3.0-RC1")).isEqualTo(release);
+		assertThat(this.server.getReleaseVersions("spring-security")).containsExactly("6.3.0-RC1");
+	}
+
+	@Test
+	public void createReleaseWhenExistsThenBadRequest() {
+		this.server.addRelease("spring-security", "6.3.0");
+		var release = new Release("6.3.0", null, null, Release.ReleaseStatus.GENERAL_AVAILABILITY, false);
+		assertThatExceptionOfType(HttpClientException.class)
+			.isThrownBy(() -> this.saganApi.createRelease("spring-security", release))
+			.satisfies((ex) -> assertThat(ex.getStatusCode()).isEqualTo(400));
+	}
+
+	@Test
+	public void deleteReleaseWhenExistsThenRemoved() {
+		this.server.addRelease("spring-security", "6.3.0-SNAPSHOT");
+		this.server.addRelease("spring-security", "6.2.5");
+		this.saganApi.deleteRelease("spring-security", "6.3.0-SNAPSHOT");
+		assertThat(this.server.getReleaseVersions("spring-security")).containsExactly("6.2.5");
+	}
+
+	@Test
+	public void getGenerationWhenAddedThenSupportDates() {
+		this.server.addGeneration("spring-security", "6.2.x", LocalDate.parse("2023-11-20"));
+		var generation = this.saganApi.getGeneration("spring-security", "6.2.x");
+		assertThat(generation.initialReleaseDate()).isEqualTo(LocalDate.parse("2023-11-20"));
+		assertThat(generation.ossSupportEndDate()).isEqualTo(LocalDate.parse("2024-11-20"));
+	}
+
+	@Test
+	public void getProjectWhenMissingThenNotFound() {
+		assertThatExceptionOfType(HttpClientException.class).isThrownBy(() -> this.saganApi.getProject("missing"))
+			.satisfies((ex) -> assertThat(ex.getStatusCode()).isEqualTo(404));
+	}
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.release;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.github.api.Repository;
+
+/**
+ * Perform the operations of {@link SpringReleases} across many repositories at once.
+ * <p>
+ * Repositories are processed in parallel by at most {@code maxConcurrency} threads. All
+ * operations go through a single {@link SpringReleases} instance, so they share one HTTP
+ * client, one GitHub rate limit budget and one response cache. A failure in one
+ * repository does not stop the others; results and failures are collected in a
+ * {@link Report}.
+ */
+public class BulkSpringReleases {
+
+	private static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+	private final SpringReleases springReleases;
+
+	private final int maxConcurrency;
+
+	/**
+	 * Create a new instance using a GitHub personal access token.
+	 * @param accessToken A GitHub personal access token, or null for anonymous access
+	 * @param cacheDirectory The directory used to cache GitHub API responses, or null to
+	 * disable caching
+	 */
+	public BulkSpringReleases(String accessToken, Path cacheDirectory) {
+		this(new SpringReleases(accessToken, cacheDirectory), DEFAULT_MAX_CONCURRENCY);
+	}
+
+	/**
+	 * Create a new instance.
+	 * @param springReleases The SpringReleases instance used for every repository
+	 * @param maxConcurrency The maximum number of repositories processed at the same time
+	 */
+	public BulkSpringReleases(SpringReleases springReleases, int maxConcurrency) {
+		if (maxConcurrency < 1) {
+			throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+		}
+		this.springReleases = springReleases;
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * Finds or calculates the next release version of each repository.
+	 * @param versions The current version of each repository
+	 * @return A report with the version number of the next release milestone of each
+	 * repository
+	 * @see SpringReleases#getNextReleaseMilestone(String, String, String)
+	 */
+	public Report<String> getNextReleaseMilestones(Map<Repository, String> versions) {
+		return execute(versions.keySet(), (repository) -> this.springReleases
+			.getNextReleaseMilestone(repository.owner(), repository.name(), versions.get(repository)));
+	}
+
+	/**
+	 * Checks if there are open issues for the next release milestone of each repository.
+	 * @param versions The version of each repository used to check for open issues
+	 * @return A report with true for each repository with open issues, or false otherwise
+	 * @see SpringReleases#hasOpenIssues(String, String, String)
+	 */
+	public Report<Boolean> hasOpenIssues(Map<Repository, String> versions) {
+		return execute(versions.keySet(), (repository) -> this.springReleases.hasOpenIssues(repository.owner(),
+				repository.name(), versions.get(repository)));
+	}
+
+	/**
+	 * Checks if the given version of each repository is due today (or past due).
+	 * @param versions The version of each repository used to check the due date
+	 * @return A report with true for each repository with a release due today (or past
+	 * due), or false otherwise
+	 * @see SpringReleases#isDueToday(String, String, String)
+	 */
+	public Report<Boolean> isDueToday(Map<Repository, String> versions) {
+		return execute(versions.keySet(), (repository) -> this.springReleases.isDueToday(repository.owner(),
+				repository.name(), versions.get(repository)));
+	}
+
+	/**
+	 * Schedule the next release or release train of each repository.
+	 * @param versions The version of each repository used to schedule the next release
+	 * milestone (or release train)
+	 * @param weekOfMonth The week of the month when releases are scheduled (1-3) where 1
+	 * is the first week with a Monday
+	 * @param dayOfWeek The day of the week when releases are scheduled (1-5) where 1 is
+	 * Monday and 5 is Friday
+	 * @return A report with a null result for each repository that was processed
+	 * @see SpringReleases#scheduleReleaseIfNotExists(String, String, String, int, int)
+	 */
+	public Report<Void> scheduleReleasesIfNotExists(Map<Repository, String> versions, int weekOfMonth, int dayOfWeek) {
+		return execute(versions.keySet(), (repository) -> {
+			this.springReleases.scheduleReleaseIfNotExists(repository.owner(), repository.name(),
+					versions.get(repository), weekOfMonth, dayOfWeek);
+			return null;
+		});
+	}
+
+	/**
+	 * Perform an operation for each repository in parallel.
+	 * @param repositories The repositories
+	 * @param operation The operation to perform for each repository
+	 * @param <T> The result type of the operation
+	 * @return A report with the result or failure of each repository, in the order of the
+	 * given repositories
+	 */
+	public <T> Report<T> execute(Collection<Repository> repositories, Function<Repository, T> operation) {
+		if (repositories.isEmpty()) {
+			return new Report<>(Map.of(), Map.of());
+		}
+		var threadNumber = new AtomicInteger();
+		var executor = Executors.newFixedThreadPool(Math.min(this.maxConcurrency, repositories.size()), (task) -> {
+			var thread = new Thread(task, "bulk-spring-releases-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			var futures = new LinkedHashMap<Repository, CompletableFuture<T>>();
+			for (var repository : repositories) {
+				futures.put(repository, CompletableFuture.supplyAsync(() -> operation.apply(repository), executor));
+			}
+			var results = new LinkedHashMap<Repository, T>();
+			var failures = new LinkedHashMap<Repository, RuntimeException>();
+			futures.forEach((repository, future) -> {
+				try {
+					results.put(repository, future.join());
+				}
+				catch (CompletionException ex) {
+					failures.put(repository,
+							(ex.getCause() instanceof RuntimeException runtimeException) ? runtimeException : ex);
+				}
+			});
+			return new Report<>(results, failures);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * The outcome of an operation performed across many repositories.
+	 *
+	 * @param results The result of each repository that succeeded
+	 * @param failures The failure of each repository that did not succeed
+	 * @param <T> The result type of the operation
+	 */
+	public record Report<T>(Map<Repository, T> results, Map<Repository, RuntimeException> failures) {
+
+		public Report {
+			// Results may be null (e.g. for operations without a result)
+			results = Collections.unmodifiableMap(new LinkedHashMap<>(results));
+			failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+		}
+
+		/**
+		 * Determine if the operation succeeded for all repositories.
+		 * @return true if there are no failures, or false otherwise
+		 */
+		public boolean isSuccessful() {
+			return this.failures.isEmpty();
+		}
+
+	}
+
+}
@@ -16,20 +16,29 @@
 
 package io.spring.release;
 
+import java.net.http.HttpClient;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
-import java.util.Comparator;
-import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.github.api.GitHubApi;
+import com.github.api.GitHubGraphQlApi;
+import com.github.api.HttpResponseCache;
+import com.github.api.LoginCache;
 import com.github.api.Milestone;
 import com.github.api.Repository;
 import io.spring.api.SaganApi;
+import io.spring.api.http.HttpCassette;
+import io.spring.api.http.HttpClients;
 
 /**
  * Perform automated releases of Spring projects using the GitHub and Sagan APIs.
@@ -44,23 +53,109 @@ public class SpringReleases {
 
 	private final SaganApi saganApi;
 
+	private final Supplier<CompletableFuture<String>> loginLookup;
+
+	private volatile CompletableFuture<String> login;
+
 	/**
 	 * Create a new instance using a GitHub personal access token.
 	 * <p>
-	 * This constructor will immediately use the provided access token to look up the
-	 * GitHub username of the user, which is required for the Sagan API.
+	 * The GitHub username of the user, which is required for the Sagan API, is looked up
+	 * with the provided access token when the Sagan API is first used.
 	 * @param accessToken A GitHub personal access token, or null for anonymous access
 	 * @see <a href=
 	 * "https://docs.github.com/en/authentication/keeping-your-account-and-data-secure/managing-your-personal-access-tokens">
 	 * Managing your personal access tokens</a>
 	 */
 	public SpringReleases(String accessToken) {
-		this.gitHubApi = new GitHubApi(accessToken);
+		this(accessToken, null);
+	}
+
+	/**
+	 * Create a new instance using a GitHub personal access token and a directory used to
+	 * cache GitHub API responses.
+	 * <p>
+	 * The GitHub username of the user, which is required for the Sagan API, is looked up
+	 * with the provided access token when the Sagan API is first used, and cached in the
+	 * {@code logins} subdirectory keyed by a hash of the token. Cached responses are
+	 * revalidated with {@code If-None-Match}, so unmodified resources do not count
+	 * against the GitHub rate limit.
+	 * @param accessToken A GitHub personal access token, or null for anonymous access
+	 * @param cacheDirectory The directory used to cache GitHub API responses, or null to
+	 * disable caching
+	 */
+	public SpringReleases(String accessToken, Path cacheDirectory) {
+		this(accessToken, cacheDirectory, "https://api.github.com", "https://api.spring.io");
+	}
+
+	/**
+	 * Create a new instance using a GitHub personal access token, a directory used to
+	 * cache GitHub API responses, and the base URLs of the GitHub and Sagan APIs (e.g. to
+	 * use a GitHub Enterprise server, or fake servers for testing).
+	 * @param accessToken A GitHub personal access token, or null for anonymous access
+	 * @param cacheDirectory The directory used to cache GitHub API responses, or null to
+	 * disable caching
+	 * @param gitHubBaseUrl The base URL of the GitHub API
+	 * @param saganBaseUrl The base URL of the Sagan API
+	 * @see #SpringReleases(String, Path)
+	 */
+	public SpringReleases(String accessToken, Path cacheDirectory, String gitHubBaseUrl, String saganBaseUrl) {
+		this(accessToken, cacheDirectory, gitHubBaseUrl, saganBaseUrl, false);
+	}
+
+	/**
+	 * Create a new instance using a GitHub personal access token, a directory used to
+	 * cache GitHub API responses, the base URLs of the GitHub and Sagan APIs, and
+	 * optionally the GitHub GraphQL API.
+	 * <p>
+	 * When {@code gitHubGraphQl} is true and an access token is provided, the open
+	 * milestones of a repository are read once with a single GraphQL query (see
+	 * {@link GitHubGraphQlApi}) and reused to answer subsequent questions about them for
+	 * the lifetime of this instance, so milestones created or closed by others in the
+	 * meantime are not seen. Otherwise, every question is answered by the REST API.
+	 * @param accessToken A GitHub personal access token, or null for anonymous access
+	 * @param cacheDirectory The directory used to cache GitHub API responses, or null to
+	 * disable caching
+	 * @param gitHubBaseUrl The base URL of the GitHub REST API
+	 * @param saganBaseUrl The base URL of the Sagan API
+	 * @param gitHubGraphQl Whether to read milestones with the GitHub GraphQL API
+	 * @see #SpringReleases(String, Path, String, String)
+	 */
+	public SpringReleases(String accessToken, Path cacheDirectory, String gitHubBaseUrl, String saganBaseUrl,
+			boolean gitHubGraphQl) {
+		this(HttpClients.shared(), accessToken, cacheDirectory, gitHubBaseUrl, saganBaseUrl, gitHubGraphQl);
+	}
+
+	/**
+	 * Create a new instance that sends the requests of the GitHub and Sagan APIs with the
+	 * given client, e.g. one that records them to, or replays them from, an
+	 * {@link HttpCassette}.
+	 * @param httpClient The HTTP client used to send requests
+	 * @param accessToken A GitHub personal access token, or null for anonymous access
+	 * @param cacheDirectory The directory used to cache GitHub API responses, or null to
+	 * disable caching
+	 * @param gitHubBaseUrl The base URL of the GitHub REST API
+	 * @param saganBaseUrl The base URL of the Sagan API
+	 * @param gitHubGraphQl Whether to read milestones with the GitHub GraphQL API
+	 * @see #SpringReleases(String, Path, String, String, boolean)
+	 */
+	public SpringReleases(HttpClient httpClient, String accessToken, Path cacheDirectory, String gitHubBaseUrl,
+			String saganBaseUrl, boolean gitHubGraphQl) {
+		this.gitHubApi = (accessToken != null && gitHubGraphQl)
+				? new GitHubGraphQlApi(httpClient, gitHubBaseUrl, accessToken)
+				: new GitHubApi(httpClient, gitHubBaseUrl, accessToken);
+		if (cacheDirectory != null) {
+			this.gitHubApi.setResponseCache(new HttpResponseCache(cacheDirectory));
+		}
+		var gitHubApi = this.gitHubApi;
+		var loginCache = (cacheDirectory != null) ? new LoginCache(cacheDirectory.resolve("logins")) : null;
+		this.loginLookup = () -> (loginCache != null) ? loginCache.getLoginAsync(gitHubApi, accessToken)
+				: lookUpLogin(gitHubApi);
 		if (accessToken != null) {
-			this.saganApi = new SaganApi(this.gitHubApi.getUser().login(), accessToken);
+			this.saganApi = new SaganApi(httpClient, saganBaseUrl, this::getLoginAsync, accessToken);
 		}
 		else {
-			this.saganApi = new SaganApi("anonymous", "invalid");
+			this.saganApi = new SaganApi(httpClient, saganBaseUrl, "anonymous", "invalid");
 		}
 	}
 
@@ -72,6 +167,51 @@ public class SpringReleases {
 	public SpringReleases(GitHubApi gitHubApi, SaganApi saganApi) {
 		this.gitHubApi = gitHubApi;
 		this.saganApi = saganApi;
+		this.loginLookup = () -> lookUpLogin(gitHubApi);
+	}
+
+	/**
+	 * Return the GitHub login of the user of the access token, which is also the
+	 * username used for the Sagan API. The login is looked up on first use, and shared
+	 * with the Sagan API.
+	 * @return The login of the user, or null if it cannot be retrieved
+	 */
+	public String getLogin() {
+		try {
+			return getLoginAsync().join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Return the GitHub login of the user of the access token without blocking.
+	 * @return A future that completes with the login of the user, or null if it cannot
+	 * be retrieved
+	 * @see #getLogin()
+	 */
+	public CompletableFuture<String> getLoginAsync() {
+		var login = this.login;
+		if (login == null) {
+			synchronized (this.loginLookup) {
+				login = this.login;
+				if (login == null) {
+					login = this.loginLookup.get();
+					this.login = login;
+					// Look the login up again on next use if it cannot be retrieved
+					login.whenComplete((result, ex) -> {
+						if (result == null) {
+							this.login = null;
+						}
+					});
+				}
+			}
+		}
+		return login;
 	}
 
 	/**
@@ -79,8 +219,9 @@ public class SpringReleases {
 	 * <p>
 	 * If the current version is a "SNAPSHOT" with a patch version of "0", the GitHub API
 	 * is used to find the next milestone (sorted by due date) that matches the base
-	 * version number. If no milestone exists, the base version is used instead. In all
-	 * other cases, the base version is chosen automatically.
+	 * version number, fetching only as many pages of milestones as necessary. If no
+	 * milestone exists, the base version is used instead. In all other cases, the base
+	 * version is chosen automatically.
 	 * @param owner The GitHub user or organization name
 	 * @param repo The GitHub repository name
 	 * @param version The current version used to find the next release version
@@ -97,10 +238,11 @@ public class SpringReleases {
 		var patch = versionMatcher.group(3);
 		var baseVersion = "%s.%s.%s".formatted(major, minor, patch);
 		if (patch.equals("0")) {
-			var milestones = this.gitHubApi.getMilestones(new Repository(owner, repo));
-			var nextPreRelease = getNextPreRelease(baseVersion, milestones);
-			if (nextPreRelease != null) {
-				return nextPreRelease;
+			try (var milestones = this.gitHubApi.streamMilestones(new Repository(owner, repo))) {
+				var nextPreRelease = getNextPreRelease(baseVersion, milestones);
+				if (nextPreRelease != null) {
+					return nextPreRelease;
+				}
 			}
 		}
 
@@ -404,12 +546,17 @@ public class SpringReleases {
 		return "%s.%s.%s-SNAPSHOT".formatted(major, minor, patch);
 	}
 
-	private static String getNextPreRelease(String baseVersion, List<Milestone> milestones) {
+	private static CompletableFuture<String> lookUpLogin(GitHubApi gitHubApi) {
+		return gitHubApi.getUserAsync().thenApply((user) -> (user != null) ? user.login() : null);
+	}
+
+	private static String getNextPreRelease(String baseVersion, Stream<Milestone> milestones) {
 		var versionPrefix = baseVersion + "-";
+		// Milestones are already sorted by due date, so the first match is the next
+		// pre-release and no further pages need to be fetched
 		// @formatter:off
-		return milestones.stream()
+		return milestones
 				.filter((milestone) -> milestone.title().startsWith(versionPrefix))
-				.sorted(Comparator.comparing(Milestone::dueOn))
 				.map(Milestone::title)
 				.findFirst()
 				.orElse(null);
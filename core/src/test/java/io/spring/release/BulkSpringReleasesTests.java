@@ -0,0 +1,153 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.release;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.github.api.GitHubApi;
+import com.github.api.Milestone;
+import com.github.api.Repository;
+import io.spring.api.SaganApi;
+import io.spring.api.fixtures.FakeGitHubServer;
+import io.spring.api.http.RetryPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BulkSpringReleasesTests {
+
+	private static final String OWNER = "spring-projects";
+
+	private GitHubApi gitHubApi;
+
+	private SpringReleases springReleases;
+
+	@BeforeEach
+	public void setUp() {
+		this.gitHubApi = mock(GitHubApi.class);
+		this.springReleases = new SpringReleases(this.gitHubApi, mock(SaganApi.class));
+	}
+
+	@Test
+	public void getNextReleaseMilestonesWhenValidThenResultPerRepository() {
+		var security = new Repository(OWNER, "spring-security");
+		var session = new Repository(OWNER, "spring-session");
+		var milestone = new Milestone("6.3.0-M1", 1L, Instant.parse("2024-01-15T12:00:00Z"));
+		when(this.gitHubApi.streamMilestones(security)).thenReturn(Stream.of(milestone));
+
+		var versions = new LinkedHashMap<Repository, String>();
+		versions.put(security, "6.3.0-SNAPSHOT");
+		versions.put(session, "3.2.1-SNAPSHOT");
+		var bulkSpringReleases = new BulkSpringReleases(this.springReleases, 2);
+		var report = bulkSpringReleases.getNextReleaseMilestones(versions);
+
+		assertThat(report.isSuccessful()).isTrue();
+		assertThat(report.results()).containsExactly(entry(security, "6.3.0-M1"), entry(session, "3.2.1"));
+	}
+
+	@Test
+	public void hasOpenIssuesWhenRepositoryFailsThenOtherRepositoriesReported() {
+		var security = new Repository(OWNER, "spring-security");
+		var session = new Repository(OWNER, "spring-session");
+		var milestone = new Milestone("6.3.0", 1L, null);
+		when(this.gitHubApi.getMilestone(security, "6.3.0")).thenReturn(milestone);
+		when(this.gitHubApi.hasOpenIssues(eq(security), anyLong())).thenReturn(true);
+		when(this.gitHubApi.getMilestone(session, "3.3.0"))
+			.thenThrow(new RuntimeException("Unable to perform request"));
+
+		var versions = new LinkedHashMap<Repository, String>();
+		versions.put(security, "6.3.0");
+		versions.put(session, "3.3.0");
+		var bulkSpringReleases = new BulkSpringReleases(this.springReleases, 2);
+		var report = bulkSpringReleases.hasOpenIssues(versions);
+
+		assertThat(report.isSuccessful()).isFalse();
+		assertThat(report.results()).containsExactly(entry(security, true));
+		assertThat(report.failures()).containsOnlyKeys(session);
+		assertThat(report.failures().get(session)).hasMessage("Unable to perform request");
+	}
+
+	@Test
+	public void executeWhenManyRepositoriesThenConcurrencyBounded() {
+		var repositories = IntStream.range(0, 16).mapToObj((i) -> new Repository(OWNER, "project-" + i)).toList();
+		var running = new AtomicInteger();
+		var maxRunning = new AtomicInteger();
+		var bulkSpringReleases = new BulkSpringReleases(this.springReleases, 3);
+		var report = bulkSpringReleases.execute(repositories, (repository) -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(20);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			running.decrementAndGet();
+			return repository.name();
+		});
+
+		assertThat(report.results().keySet()).containsExactlyElementsOf(repositories);
+		assertThat(maxRunning.get()).isBetween(1, 3);
+	}
+
+	@Test
+	public void scheduleReleasesIfNotExistsWhenManyRepositoriesThenMilestonesCreated() throws Exception {
+		try (var server = new FakeGitHubServer()) {
+			server.populate(OWNER, 50, 20, 1);
+			server.setLatency(Duration.ofMillis(5));
+			var gitHubApi = new GitHubApi(server.getBaseUrl(), "mock-token");
+			gitHubApi.setRetryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(1)).build());
+			var versions = new LinkedHashMap<Repository, String>();
+			IntStream.range(0, 50)
+				.forEach((i) -> versions.put(new Repository(OWNER, "project-" + i), "1.0.1-SNAPSHOT"));
+			var springReleases = new SpringReleases(gitHubApi, mock(SaganApi.class));
+			var bulkSpringReleases = new BulkSpringReleases(springReleases, 8);
+			var report = bulkSpringReleases.scheduleReleasesIfNotExists(versions, 3, 1);
+
+			assertThat(report.isSuccessful()).isTrue();
+			assertThat(report.results()).hasSize(50);
+			assertThat(server.getMilestoneTitles(OWNER, "project-49")).hasSize(21).contains("1.0.1");
+		}
+	}
+
+	@Test
+	public void executeWhenNoRepositoriesThenEmptyReport() {
+		var bulkSpringReleases = new BulkSpringReleases(this.springReleases, 2);
+		var report = bulkSpringReleases.execute(List.of(), Repository::name);
+		assertThat(report.isSuccessful()).isTrue();
+		assertThat(report.results()).isEmpty();
+	}
+
+	@Test
+	public void constructorWhenMaxConcurrencyZeroThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new BulkSpringReleases(this.springReleases, 0))
+			.withMessage("maxConcurrency must be greater than 0");
+	}
+
+}
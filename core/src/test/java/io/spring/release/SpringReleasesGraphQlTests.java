@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.release;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import com.github.api.GitHubGraphQlApi;
+import io.spring.api.SaganApi;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link SpringReleases} backed by {@link GitHubGraphQlApi}.
+ */
+public class SpringReleasesGraphQlTests {
+
+	private static final String OWNER = "spring-projects";
+
+	private static final String REPO = "spring-security";
+
+	private MockWebServer server;
+
+	private SpringReleases springReleases;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		this.server = new MockWebServer();
+		this.server.start();
+		var gitHubApi = new GitHubGraphQlApi(this.server.url("/").toString(), "personal-access-token");
+		this.springReleases = new SpringReleases(gitHubApi, mock(SaganApi.class));
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void releaseChecksWhenSameRepositoryThenSingleQuery() throws Exception {
+		this.server.enqueue(json("GraphQlMilestonesResponse.json"));
+
+		var version = this.springReleases.getNextReleaseMilestone(OWNER, REPO, "6.1.0-SNAPSHOT");
+		assertThat(version).isEqualTo("6.1.0-M1");
+		assertThat(this.springReleases.hasOpenIssues(OWNER, REPO, version)).isTrue();
+		assertThat(this.springReleases.isDueToday(OWNER, REPO, version)).isTrue();
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getMethod()).isEqualTo("POST");
+		assertThat(recordedRequest.getPath()).isEqualTo("/graphql");
+	}
+
+	@Test
+	public void closeMilestoneWhenAlreadyQueriedThenOnlyUpdateRequested() throws Exception {
+		this.server.enqueue(json("GraphQlMilestonesResponse.json"));
+		this.server.enqueue(new MockResponse().setBody("{}"));
+
+		var version = this.springReleases.getNextReleaseMilestone(OWNER, REPO, "6.1.0-SNAPSHOT");
+		this.springReleases.closeMilestone(OWNER, REPO, version);
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+
+		this.server.takeRequest();
+		var recordedRequest = this.server.takeRequest();
+		assertThat(recordedRequest.getMethod()).isEqualTo("PATCH");
+		assertThat(recordedRequest.getPath()).isEqualTo("/repos/spring-projects/spring-security/milestones/1");
+	}
+
+	private static MockResponse json(String path) throws IOException {
+		return new MockResponse().addHeader("Content-Type", "application/json").setBody(string(path));
+	}
+
+	private static String string(String path) throws IOException {
+		var outputStream = new ByteArrayOutputStream();
+		try (var inputStream = ClassLoader.getSystemClassLoader().getResourceAsStream(path)) {
+			Objects.requireNonNull(inputStream).transferTo(outputStream);
+			return outputStream.toString(StandardCharsets.UTF_8);
+		}
+	}
+
+}
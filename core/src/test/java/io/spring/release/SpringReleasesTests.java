@@ -22,11 +22,15 @@ import java.time.LocalTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import com.github.api.GitHubApi;
 import com.github.api.Milestone;
 import com.github.api.Repository;
+import com.github.api.User;
 import io.spring.api.Generation;
 import io.spring.api.Release;
 import io.spring.api.Release.ReleaseStatus;
@@ -35,11 +39,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.ArgumentCaptor.forClass;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -105,14 +111,14 @@ public class SpringReleasesTests {
 
 	@Test
 	public void getNextReleaseMilestoneWhenSnapshotVersionThenNextPreRelease() {
-		when(this.gitHubApi.getMilestones(any(Repository.class))).thenReturn(MILESTONES);
+		when(this.gitHubApi.streamMilestones(any(Repository.class))).thenReturn(sortedByDueOn(MILESTONES));
 
 		var version = "6.1.0-SNAPSHOT";
 		var nextReleaseMilestone = this.springReleases.getNextReleaseMilestone(OWNER, REPO, version);
 		assertThat(nextReleaseMilestone).isEqualTo("6.1.0-M1");
 
 		var repositoryCaptor = forClass(Repository.class);
-		verify(this.gitHubApi).getMilestones(repositoryCaptor.capture());
+		verify(this.gitHubApi).streamMilestones(repositoryCaptor.capture());
 		verifyNoMoreInteractions(this.gitHubApi);
 
 		var repository = repositoryCaptor.getValue();
@@ -123,14 +129,14 @@ public class SpringReleasesTests {
 	@Test
 	public void getNextReleaseMilestoneWhenMilestoneDoesNotExistThenBaseVersion() {
 		var milestone = new Milestone("6.0.4", 6L, toInstant("2023-06-19"));
-		when(this.gitHubApi.getMilestones(any(Repository.class))).thenReturn(List.of(milestone));
+		when(this.gitHubApi.streamMilestones(any(Repository.class))).thenReturn(Stream.of(milestone));
 
 		var version = "6.1.0-SNAPSHOT";
 		var nextReleaseMilestone = this.springReleases.getNextReleaseMilestone(OWNER, REPO, version);
 		assertThat(nextReleaseMilestone).isEqualTo("6.1.0");
 
 		var repositoryCaptor = forClass(Repository.class);
-		verify(this.gitHubApi).getMilestones(repositoryCaptor.capture());
+		verify(this.gitHubApi).streamMilestones(repositoryCaptor.capture());
 		verifyNoMoreInteractions(this.gitHubApi);
 
 		var repository = repositoryCaptor.getValue();
@@ -431,6 +437,31 @@ public class SpringReleasesTests {
 		assertThat(saganRelease.current()).isFalse();
 	}
 
+	@Test
+	public void createReleaseWhenGitHubFailsThenSaganReleaseNotCreated() {
+		doThrow(new IllegalStateException("github")).when(this.gitHubApi)
+			.createRelease(any(Repository.class), any(com.github.api.Release.class));
+		// @formatter:off
+		assertThatIllegalStateException()
+			.isThrownBy(() -> this.springReleases.createRelease(OWNER, REPO, "6.1.0", "main", "notes", "ref", "api"))
+			.withMessage("github");
+		// @formatter:on
+
+		verify(this.gitHubApi).createRelease(any(Repository.class), any(com.github.api.Release.class));
+		verifyNoInteractions(this.saganApi);
+	}
+
+	@Test
+	public void getLoginWhenCalledAgainThenLookedUpOnce() {
+		when(this.gitHubApi.getUserAsync())
+			.thenReturn(CompletableFuture.completedFuture(new User("octocat", "The Octocat", null)));
+		assertThat(this.springReleases.getLogin()).isEqualTo("octocat");
+		assertThat(this.springReleases.getLogin()).isEqualTo("octocat");
+
+		verify(this.gitHubApi).getUserAsync();
+		verifyNoMoreInteractions(this.gitHubApi);
+	}
+
 	@Test
 	public void deleteReleaseWhenValidParametersThenSuccess() {
 		var version = "6.1.0";
@@ -621,6 +652,11 @@ public class SpringReleasesTests {
 		verify(this.gitHubApi).createReleaseIssue(eq(repository), any());
 	}
 
+	private static Stream<Milestone> sortedByDueOn(List<Milestone> milestones) {
+		return milestones.stream()
+			.sorted(Comparator.comparing(Milestone::dueOn, Comparator.nullsLast(Comparator.naturalOrder())));
+	}
+
 	private static Instant toInstant(String date) {
 		return LocalDate.parse(date).atStartOfDay().toInstant(ZoneOffset.UTC);
 	}
@@ -24,6 +24,7 @@ import org.gradle.api.Task;
 import org.gradle.api.UnknownTaskException;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.TaskProvider;
 
 /**
  * @author Steve Riesenberg
@@ -44,17 +45,26 @@ public final class ProjectUtils {
 
 	public static <T extends Task> Provider<String> getProperty(Project project, Class<T> taskType,
 			Function<T, RegularFileProperty> function) {
-		var task = findTaskByType(project, taskType);
-		return function.apply(task).map(RegularFileUtils::readString);
+		return findTaskByType(project, taskType).flatMap(function::apply).map(RegularFileUtils::readString);
 	}
 
-	public static <T extends Task> T findTaskByType(Project project, Class<T> taskType) {
-		return project.getTasks()
-			.withType(taskType)
+	/**
+	 * Find the first task of the given type without realizing it, or any other task of
+	 * the project. The task is only configured when the returned provider is queried,
+	 * e.g. because it is part of the task graph.
+	 * @param project The project containing the task
+	 * @param taskType The type of the task
+	 * @param <T> The type of the task
+	 * @return A provider of the task
+	 * @throws UnknownTaskException if the project has no task of the given type
+	 */
+	public static <T extends Task> TaskProvider<T> findTaskByType(Project project, Class<T> taskType) {
+		var tasks = project.getTasks().withType(taskType);
+		var taskName = tasks.getNames()
 			.stream()
 			.findFirst()
-			.map(taskType::cast)
 			.orElseThrow(() -> new UnknownTaskException("Unable to find task of type [%s]".formatted(taskType)));
+		return tasks.named(taskName);
 	}
 
 }
@@ -18,15 +18,19 @@ package io.spring.gradle.plugin.release;
 
 import java.util.Objects;
 
+import javax.inject.Inject;
+
 import com.github.api.Repository;
 import io.spring.gradle.plugin.core.ProjectUtils;
-import io.spring.release.SpringReleases;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
 import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkerExecutor;
 
 /**
  * @author Steve Riesenberg
@@ -45,15 +49,20 @@ public abstract class CheckBranchHasCommercialSupportTask extends DefaultTask {
 	@Optional
 	public abstract Property<String> getGitHubAccessToken();
 
+	@ServiceReference(SpringReleasesService.SERVICE_NAME)
+	public abstract Property<SpringReleasesService> getSpringReleasesService();
+
+	@Inject
+	protected abstract WorkerExecutor getWorkerExecutor();
+
 	@TaskAction
 	public void checkMilestoneHasNoOpenIssues() {
-		var gitHubAccessToken = getGitHubAccessToken().getOrNull();
-		var repository = getRepository().get();
-		var branch = getBranch().get();
-
-		var springReleases = new SpringReleases(gitHubAccessToken);
-		var hasCommercialSupport = springReleases.hasCommercialSupport(repository.name(), branch);
-		System.out.println(hasCommercialSupport);
+		getWorkerExecutor().noIsolation().submit(CheckBranchHasCommercialSupport.class, (parameters) -> {
+			parameters.getRepository().set(getRepository());
+			parameters.getBranch().set(getBranch());
+			parameters.getGitHubAccessToken().set(getGitHubAccessToken());
+			parameters.getSpringReleasesService().set(getSpringReleasesService());
+		});
 	}
 
 	public static void register(Project project) {
@@ -65,13 +74,34 @@ public abstract class CheckBranchHasCommercialSupportTask extends DefaultTask {
 			task.setDescription("Checks if the specified branch has commercial support and outputs true or false");
 			task.doNotTrackState("API call to api.spring.io needs to check every time");
 
-			var owner = springRelease.getRepositoryOwner().get();
-			var name = springRelease.getRepositoryName().get();
-			task.getRepository().set(new Repository(owner, name));
+			var repositoryProvider = springRelease.getRepositoryOwner()
+				.zip(springRelease.getRepositoryName(), Repository::new);
+			task.getRepository().set(repositoryProvider);
 			task.getBranch().set(ProjectUtils.getProperty(project, SpringReleasePlugin.BRANCH_PROPERTY));
 			task.getGitHubAccessToken()
 				.set(ProjectUtils.getProperty(project, SpringReleasePlugin.GITHUB_ACCESS_TOKEN_PROPERTY));
 		});
 	}
 
+	public abstract static class CheckBranchHasCommercialSupport
+			implements WorkAction<CheckBranchHasCommercialSupport.Params> {
+
+		@Override
+		public void execute() {
+			var repository = getParameters().getRepository().get();
+			var branch = getParameters().getBranch().get();
+
+			var springReleases = getParameters().getSpringReleases();
+			var hasCommercialSupport = springReleases.hasCommercialSupport(repository.name(), branch);
+			System.out.println(hasCommercialSupport);
+		}
+
+		public interface Params extends SpringReleasesWorkParameters {
+
+			Property<String> getBranch();
+
+		}
+
+	}
+
 }
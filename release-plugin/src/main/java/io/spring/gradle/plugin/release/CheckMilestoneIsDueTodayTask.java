@@ -18,16 +18,20 @@ package io.spring.gradle.plugin.release;
 
 import java.util.Objects;
 
+import javax.inject.Inject;
+
 import com.github.api.Repository;
 import io.spring.gradle.plugin.core.ProjectUtils;
 import io.spring.gradle.plugin.core.RegularFileUtils;
-import io.spring.release.SpringReleases;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
 import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkerExecutor;
 
 /**
  * @author Steve Riesenberg
@@ -46,15 +50,20 @@ public abstract class CheckMilestoneIsDueTodayTask extends DefaultTask {
 	@Optional
 	public abstract Property<String> getGitHubAccessToken();
 
+	@ServiceReference(SpringReleasesService.SERVICE_NAME)
+	public abstract Property<SpringReleasesService> getSpringReleasesService();
+
+	@Inject
+	protected abstract WorkerExecutor getWorkerExecutor();
+
 	@TaskAction
 	public void checkMilestoneIsDueToday() {
-		var gitHubAccessToken = getGitHubAccessToken().getOrNull();
-		var repository = getRepository().get();
-		var version = getVersion().get();
-
-		var springReleases = new SpringReleases(gitHubAccessToken);
-		var milestoneDueToday = springReleases.isDueToday(repository.owner(), repository.name(), version);
-		System.out.println(milestoneDueToday);
+		getWorkerExecutor().noIsolation().submit(CheckMilestoneIsDueToday.class, (parameters) -> {
+			parameters.getRepository().set(getRepository());
+			parameters.getVersion().set(getVersion());
+			parameters.getGitHubAccessToken().set(getGitHubAccessToken());
+			parameters.getSpringReleasesService().set(getSpringReleasesService());
+		});
 	}
 
 	public static void register(Project project) {
@@ -69,17 +78,37 @@ public abstract class CheckMilestoneIsDueTodayTask extends DefaultTask {
 			// @formatter:off
 			var versionProvider = ProjectUtils.getProperty(project, SpringReleasePlugin.NEXT_VERSION_PROPERTY)
 					.orElse(ProjectUtils.findTaskByType(project, GetNextReleaseMilestoneTask.class)
-							.getNextReleaseMilestoneFile()
+							.flatMap(GetNextReleaseMilestoneTask::getNextReleaseMilestoneFile)
 							.map(RegularFileUtils::readString));
 			// @formatter:on
 
-			var owner = springRelease.getRepositoryOwner().get();
-			var name = springRelease.getRepositoryName().get();
-			task.getRepository().set(new Repository(owner, name));
+			var repositoryProvider = springRelease.getRepositoryOwner()
+				.zip(springRelease.getRepositoryName(), Repository::new);
+			task.getRepository().set(repositoryProvider);
 			task.getVersion().set(versionProvider);
 			task.getGitHubAccessToken()
 				.set(ProjectUtils.getProperty(project, SpringReleasePlugin.GITHUB_ACCESS_TOKEN_PROPERTY));
 		});
 	}
 
+	public abstract static class CheckMilestoneIsDueToday implements WorkAction<CheckMilestoneIsDueToday.Params> {
+
+		@Override
+		public void execute() {
+			var repository = getParameters().getRepository().get();
+			var version = getParameters().getVersion().get();
+
+			var springReleases = getParameters().getSpringReleases();
+			var milestoneDueToday = springReleases.isDueToday(repository.owner(), repository.name(), version);
+			System.out.println(milestoneDueToday);
+		}
+
+		public interface Params extends SpringReleasesWorkParameters {
+
+			Property<String> getVersion();
+
+		}
+
+	}
+
 }
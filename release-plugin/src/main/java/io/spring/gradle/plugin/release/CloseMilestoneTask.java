@@ -21,10 +21,10 @@ import java.util.Objects;
 import com.github.api.Repository;
 import io.spring.gradle.plugin.core.ProjectUtils;
 import io.spring.gradle.plugin.core.RegularFileUtils;
-import io.spring.release.SpringReleases;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
 import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.TaskAction;
 
@@ -41,13 +41,16 @@ public abstract class CloseMilestoneTask extends DefaultTask {
 	@Input
 	public abstract Property<String> getVersion();
 
+	@ServiceReference(SpringReleasesService.SERVICE_NAME)
+	public abstract Property<SpringReleasesService> getSpringReleasesService();
+
 	@TaskAction
 	public void deleteRelease() {
 		var gitHubAccessToken = getGitHubAccessToken().getOrNull();
 		var repository = getRepository().get();
 		var version = getVersion().get();
 
-		var springReleases = new SpringReleases(gitHubAccessToken);
+		var springReleases = getSpringReleasesService().get().getSpringReleases(gitHubAccessToken);
 		springReleases.closeMilestone(repository.owner(), repository.name(), version);
 	}
 
@@ -63,13 +66,13 @@ public abstract class CloseMilestoneTask extends DefaultTask {
 			// @formatter:off
 			var versionProvider = ProjectUtils.getProperty(project, SpringReleasePlugin.NEXT_VERSION_PROPERTY)
 					.orElse(ProjectUtils.findTaskByType(project, GetNextReleaseMilestoneTask.class)
-							.getNextReleaseMilestoneFile()
+							.flatMap(GetNextReleaseMilestoneTask::getNextReleaseMilestoneFile)
 							.map(RegularFileUtils::readString));
 			// @formatter:on
 
-			var owner = springRelease.getRepositoryOwner().get();
-			var name = springRelease.getRepositoryName().get();
-			task.getRepository().set(new Repository(owner, name));
+			var repositoryProvider = springRelease.getRepositoryOwner()
+				.zip(springRelease.getRepositoryName(), Repository::new);
+			task.getRepository().set(repositoryProvider);
 			task.getVersion().set(versionProvider);
 			task.getGitHubAccessToken()
 				.set(ProjectUtils.getProperty(project, SpringReleasePlugin.GITHUB_ACCESS_TOKEN_PROPERTY));
@@ -22,10 +22,10 @@ import com.github.api.Repository;
 import groovy.lang.MissingPropertyException;
 import io.spring.gradle.plugin.core.ProjectUtils;
 import io.spring.gradle.plugin.core.RegularFileUtils;
-import io.spring.release.SpringReleases;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
 import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
@@ -61,6 +61,9 @@ public abstract class CreateGitHubReleaseTask extends DefaultTask {
 	@Optional
 	public abstract Property<String> getGitHubAccessToken();
 
+	@ServiceReference(SpringReleasesService.SERVICE_NAME)
+	public abstract Property<SpringReleasesService> getSpringReleasesService();
+
 	@TaskAction
 	public void createGitHubRelease() {
 		var gitHubAccessToken = getGitHubAccessToken().getOrNull();
@@ -88,7 +91,7 @@ public abstract class CreateGitHubReleaseTask extends DefaultTask {
 		System.out.printf("%nRelease Notes:%n%n----%n%s%n----%n%n", body.trim());
 
 		if (createRelease) {
-			var springReleases = new SpringReleases(gitHubAccessToken);
+			var springReleases = getSpringReleasesService().get().getSpringReleases(gitHubAccessToken);
 			springReleases.createGitHubRelease(repository.owner(), repository.name(), versionPrefix + version, branch,
 					body);
 		}
@@ -106,21 +109,20 @@ public abstract class CreateGitHubReleaseTask extends DefaultTask {
 			// @formatter:off
 			var versionProvider = ProjectUtils.getProperty(project, SpringReleasePlugin.NEXT_VERSION_PROPERTY)
 					.orElse(ProjectUtils.findTaskByType(project, GetNextReleaseMilestoneTask.class)
-							.getNextReleaseMilestoneFile()
+							.flatMap(GetNextReleaseMilestoneTask::getNextReleaseMilestoneFile)
 							.map(RegularFileUtils::readString));
 			var releaseNotesProvider = ProjectUtils.findTaskByType(project, GenerateChangelogTask.class)
-					.getReleaseNotesFile()
+					.flatMap(GenerateChangelogTask::getReleaseNotesFile)
 					.map(RegularFileUtils::readString);
 			var createReleaseProvider = ProjectUtils.getProperty(project, SpringReleasePlugin.CREATE_RELEASE_PROPERTY)
 					.map(Boolean::valueOf);
 			// @formatter:on
 
-			var owner = springRelease.getRepositoryOwner().get();
-			var name = springRelease.getRepositoryName().get();
-			var releaseVersionPrefix = springRelease.getReleaseVersionPrefix().get();
-			task.getRepository().set(new Repository(owner, name));
+			var repositoryProvider = springRelease.getRepositoryOwner()
+				.zip(springRelease.getRepositoryName(), Repository::new);
+			task.getRepository().set(repositoryProvider);
 			task.getVersion().set(versionProvider);
-			task.getVersionPrefix().set(releaseVersionPrefix);
+			task.getVersionPrefix().set(springRelease.getReleaseVersionPrefix());
 			task.getReleaseNotes().set(releaseNotesProvider);
 			task.getBranch().set(ProjectUtils.getProperty(project, SpringReleasePlugin.BRANCH_PROPERTY).orElse("main"));
 			task.getCreateRelease().set(createReleaseProvider.orElse(false));
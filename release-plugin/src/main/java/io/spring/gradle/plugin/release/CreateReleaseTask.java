@@ -26,6 +26,7 @@ import io.spring.release.SpringReleases;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
 import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
@@ -70,6 +71,9 @@ public abstract class CreateReleaseTask extends DefaultTask {
 	@Optional
 	public abstract Property<String> getGitHubAccessToken();
 
+	@ServiceReference(SpringReleasesService.SERVICE_NAME)
+	public abstract Property<SpringReleasesService> getSpringReleasesService();
+
 	@TaskAction
 	public void createRelease() {
 		var gitHubAccessToken = getGitHubAccessToken().getOrNull();
@@ -112,7 +116,7 @@ public abstract class CreateReleaseTask extends DefaultTask {
 		System.out.printf("%nreferenceDocUrl=%s%napiDocUrl=%s%n", referenceDocUrl, apiDocUrl);
 
 		if (createRelease) {
-			var springReleases = new SpringReleases(gitHubAccessToken);
+			var springReleases = getSpringReleasesService().get().getSpringReleases(gitHubAccessToken);
 			springReleases.createRelease(repository.owner(), repository.name(), version, branch, body, referenceDocUrl,
 					apiDocUrl);
 		}
@@ -130,18 +134,18 @@ public abstract class CreateReleaseTask extends DefaultTask {
 			// @formatter:off
 			var versionProvider = ProjectUtils.getProperty(project, SpringReleasePlugin.NEXT_VERSION_PROPERTY)
 					.orElse(ProjectUtils.findTaskByType(project, GetNextReleaseMilestoneTask.class)
-							.getNextReleaseMilestoneFile()
+							.flatMap(GetNextReleaseMilestoneTask::getNextReleaseMilestoneFile)
 							.map(RegularFileUtils::readString));
 			var releaseNotesProvider = ProjectUtils.findTaskByType(project, GenerateChangelogTask.class)
-					.getReleaseNotesFile()
+					.flatMap(GenerateChangelogTask::getReleaseNotesFile)
 					.map(RegularFileUtils::readString);
 			var createReleaseProvider = ProjectUtils.getProperty(project, SpringReleasePlugin.CREATE_RELEASE_PROPERTY)
 					.map(Boolean::valueOf);
 			// @formatter:on
 
-			var owner = springRelease.getRepositoryOwner().get();
 			var name = project.getRootProject().getName();
-			task.getRepository().set(new Repository(owner, name));
+			var repositoryProvider = springRelease.getRepositoryOwner().map((owner) -> new Repository(owner, name));
+			task.getRepository().set(repositoryProvider);
 			task.getVersion().set(versionProvider);
 			task.getReleaseNotes().set(releaseNotesProvider);
 			task.getBranch().set(ProjectUtils.getProperty(project, SpringReleasePlugin.BRANCH_PROPERTY).orElse("main"));
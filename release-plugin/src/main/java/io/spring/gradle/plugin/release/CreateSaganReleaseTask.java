@@ -24,6 +24,7 @@ import io.spring.release.SpringReleases;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
 import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
@@ -58,6 +59,9 @@ public abstract class CreateSaganReleaseTask extends DefaultTask {
 	@Input
 	public abstract Property<Boolean> getReplaceVersionInReferenceDocUrl();
 
+	@ServiceReference(SpringReleasesService.SERVICE_NAME)
+	public abstract Property<SpringReleasesService> getSpringReleasesService();
+
 	@TaskAction
 	public void createSaganRelease() {
 		var gitHubAccessToken = getGitHubAccessToken().get();
@@ -88,7 +92,7 @@ public abstract class CreateSaganReleaseTask extends DefaultTask {
 			referenceDocUrl = referenceDocUrl.replace("{version}", majorMinorVersion);
 		}
 
-		var springReleases = new SpringReleases(gitHubAccessToken);
+		var springReleases = getSpringReleasesService().get().getSpringReleases(gitHubAccessToken);
 		springReleases.createSaganRelease(repository.name(), version, referenceDocUrl, apiDocUrl);
 	}
 
@@ -103,14 +107,14 @@ public abstract class CreateSaganReleaseTask extends DefaultTask {
 
 			// @formatter:off
 			var versionProvider = ProjectUtils.getProperty(project, SpringReleasePlugin.NEXT_VERSION_PROPERTY)
-					.orElse(project.getRootProject().getVersion().toString());
+					.orElse(project.provider(() -> project.getRootProject().getVersion().toString()));
 			// @formatter:on
 
-			var owner = springRelease.getRepositoryOwner().get();
-			var name = springRelease.getRepositoryName().get();
+			var repositoryProvider = springRelease.getRepositoryOwner()
+				.zip(springRelease.getRepositoryName(), Repository::new);
 			task.getGitHubAccessToken()
 				.set(ProjectUtils.getProperty(project, SpringReleasePlugin.GITHUB_ACCESS_TOKEN_PROPERTY));
-			task.getRepository().set(new Repository(owner, name));
+			task.getRepository().set(repositoryProvider);
 			task.getVersion().set(versionProvider);
 			task.getReferenceDocUrl().set(springRelease.getReferenceDocUrl());
 			task.getApiDocUrl().set(springRelease.getApiDocUrl());
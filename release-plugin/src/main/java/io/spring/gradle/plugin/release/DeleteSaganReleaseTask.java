@@ -20,10 +20,10 @@ import java.util.Objects;
 
 import io.spring.gradle.plugin.core.ProjectUtils;
 import io.spring.gradle.plugin.core.RegularFileUtils;
-import io.spring.release.SpringReleases;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
 import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
@@ -42,6 +42,9 @@ public abstract class DeleteSaganReleaseTask extends DefaultTask {
 	@Optional
 	public abstract Property<String> getVersion();
 
+	@ServiceReference(SpringReleasesService.SERVICE_NAME)
+	public abstract Property<SpringReleasesService> getSpringReleasesService();
+
 	@TaskAction
 	public void deleteRelease() {
 		var version = getVersion().getOrNull();
@@ -52,7 +55,7 @@ public abstract class DeleteSaganReleaseTask extends DefaultTask {
 
 		var gitHubAccessToken = getGitHubAccessToken().get();
 		var projectName = getProjectName().get();
-		var springReleases = new SpringReleases(gitHubAccessToken);
+		var springReleases = getSpringReleasesService().get().getSpringReleases(gitHubAccessToken);
 		springReleases.deleteRelease(projectName, version);
 	}
 
@@ -68,14 +71,13 @@ public abstract class DeleteSaganReleaseTask extends DefaultTask {
 			// @formatter:off
 			var versionProvider = ProjectUtils.getProperty(project, SpringReleasePlugin.PREVIOUS_VERSION_PROPERTY)
 					.orElse(ProjectUtils.findTaskByType(project, GetPreviousReleaseMilestoneTask.class)
-							.getPreviousReleaseMilestoneFile()
+							.flatMap(GetPreviousReleaseMilestoneTask::getPreviousReleaseMilestoneFile)
 							.map(RegularFileUtils::readString));
 			// @formatter:on
 
-			var name = springRelease.getRepositoryName().get();
 			task.getGitHubAccessToken()
 				.set(ProjectUtils.getProperty(project, SpringReleasePlugin.GITHUB_ACCESS_TOKEN_PROPERTY));
-			task.getProjectName().set(name);
+			task.getProjectName().set(springRelease.getRepositoryName());
 			task.getVersion().set(versionProvider);
 		});
 	}
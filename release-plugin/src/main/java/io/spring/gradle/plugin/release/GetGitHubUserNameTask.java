@@ -16,13 +16,13 @@
 
 package io.spring.gradle.plugin.release;
 
-import com.github.api.GitHubApi;
 import io.spring.gradle.plugin.core.ProjectUtils;
 import io.spring.gradle.plugin.core.RegularFileUtils;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.OutputFile;
 import org.gradle.api.tasks.TaskAction;
@@ -40,19 +40,22 @@ public abstract class GetGitHubUserNameTask extends DefaultTask {
 	@OutputFile
 	public abstract RegularFileProperty getUsernameFile();
 
+	@ServiceReference(SpringReleasesService.SERVICE_NAME)
+	public abstract Property<SpringReleasesService> getSpringReleasesService();
+
 	@TaskAction
 	public void getGitHubUsername() {
 		var gitHubAccessToken = getGitHubAccessToken().get();
 
-		var github = new GitHubApi(gitHubAccessToken);
-		var user = github.getUser();
-		if (user == null) {
+		// Shares the logins looked up by other release tasks
+		var login = getSpringReleasesService().get().getLogin(gitHubAccessToken);
+		if (login == null) {
 			throw new IllegalStateException(
 					"Unable to retrieve GitHub username. Please check the personal access token and try again.");
 		}
 
-		RegularFileUtils.writeString(getUsernameFile().get(), user.login());
-		System.out.println(user.login());
+		RegularFileUtils.writeString(getUsernameFile().get(), login);
+		System.out.println(login);
 	}
 
 	public static void register(Project project) {
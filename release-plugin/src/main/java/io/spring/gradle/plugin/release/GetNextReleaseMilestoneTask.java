@@ -21,11 +21,11 @@ import java.util.Objects;
 import com.github.api.Repository;
 import io.spring.gradle.plugin.core.ProjectUtils;
 import io.spring.gradle.plugin.core.RegularFileUtils;
-import io.spring.release.SpringReleases;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputFile;
@@ -53,12 +53,15 @@ public abstract class GetNextReleaseMilestoneTask extends DefaultTask {
 	@OutputFile
 	public abstract RegularFileProperty getNextReleaseMilestoneFile();
 
+	@ServiceReference(SpringReleasesService.SERVICE_NAME)
+	public abstract Property<SpringReleasesService> getSpringReleasesService();
+
 	@TaskAction
 	public void getNextReleaseMilestone() {
 		var gitHubAccessToken = getGitHubAccessToken().getOrNull();
 		var repository = getRepository().get();
 		var version = getVersion().get();
-		var springReleases = new SpringReleases(gitHubAccessToken);
+		var springReleases = getSpringReleasesService().get().getSpringReleases(gitHubAccessToken);
 		var nextReleaseMilestone = springReleases.getNextReleaseMilestone(repository.owner(), repository.name(),
 				version);
 
@@ -78,11 +81,11 @@ public abstract class GetNextReleaseMilestoneTask extends DefaultTask {
 			task.doNotTrackState("API call to GitHub needs to check for new milestones every time");
 
 			var versionProvider = ProjectUtils.getProperty(project, SpringReleasePlugin.CURRENT_VERSION_PROPERTY)
-				.orElse(project.getRootProject().getVersion().toString());
+				.orElse(project.provider(() -> project.getRootProject().getVersion().toString()));
 
-			var owner = springRelease.getRepositoryOwner().get();
-			var name = springRelease.getRepositoryName().get();
-			task.getRepository().set(new Repository(owner, name));
+			var repositoryProvider = springRelease.getRepositoryOwner()
+				.zip(springRelease.getRepositoryName(), Repository::new);
+			task.getRepository().set(repositoryProvider);
 			task.getVersion().set(versionProvider);
 			task.getGitHubAccessToken()
 				.set(ProjectUtils.getProperty(project, SpringReleasePlugin.GITHUB_ACCESS_TOKEN_PROPERTY));
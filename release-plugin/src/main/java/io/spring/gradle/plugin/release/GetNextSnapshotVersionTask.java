@@ -58,7 +58,7 @@ public abstract class GetNextSnapshotVersionTask extends DefaultTask {
 			task.doNotTrackState("API call to GitHub needs to check for new milestones every time");
 
 			var versionProvider = ProjectUtils.getProperty(project, SpringReleasePlugin.CURRENT_VERSION_PROPERTY)
-				.orElse(project.getRootProject().getVersion().toString());
+				.orElse(project.provider(() -> project.getRootProject().getVersion().toString()));
 
 			task.getVersion().set(versionProvider);
 			task.getNextSnapshotVersionFile().set(project.getLayout().getBuildDirectory().file(OUTPUT_VERSION_PATH));
@@ -20,11 +20,11 @@ import java.util.Objects;
 
 import io.spring.gradle.plugin.core.ProjectUtils;
 import io.spring.gradle.plugin.core.RegularFileUtils;
-import io.spring.release.SpringReleases;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.OutputFile;
 import org.gradle.api.tasks.TaskAction;
@@ -50,6 +50,9 @@ public abstract class GetPreviousReleaseMilestoneTask extends DefaultTask {
 	@OutputFile
 	public abstract RegularFileProperty getPreviousReleaseMilestoneFile();
 
+	@ServiceReference(SpringReleasesService.SERVICE_NAME)
+	public abstract Property<SpringReleasesService> getSpringReleasesService();
+
 	@TaskAction
 	public void getPreviousReleaseMilestone() {
 		var gitHubAccessToken = getGitHubAccessToken().get();
@@ -57,7 +60,7 @@ public abstract class GetPreviousReleaseMilestoneTask extends DefaultTask {
 		var version = getVersion().get();
 		var outputFile = getPreviousReleaseMilestoneFile().get();
 
-		var springReleases = new SpringReleases(gitHubAccessToken);
+		var springReleases = getSpringReleasesService().get().getSpringReleases(gitHubAccessToken);
 		var previousReleaseMilestone = springReleases.getPreviousReleaseMilestone(projectName, version);
 		if (previousReleaseMilestone != null) {
 			RegularFileUtils.writeString(outputFile, previousReleaseMilestone);
@@ -81,12 +84,11 @@ public abstract class GetPreviousReleaseMilestoneTask extends DefaultTask {
 			task.doNotTrackState("API call to api.spring.io needs to check for releases every time");
 
 			var versionProvider = ProjectUtils.getProperty(project, SpringReleasePlugin.CURRENT_VERSION_PROPERTY)
-				.orElse(project.getRootProject().getVersion().toString());
+				.orElse(project.provider(() -> project.getRootProject().getVersion().toString()));
 
-			var name = springRelease.getRepositoryName().get();
 			task.getGitHubAccessToken()
 				.set(ProjectUtils.getProperty(project, SpringReleasePlugin.GITHUB_ACCESS_TOKEN_PROPERTY));
-			task.getProjectName().set(name);
+			task.getProjectName().set(springRelease.getRepositoryName());
 			task.getVersion().set(versionProvider);
 			task.getPreviousReleaseMilestoneFile()
 				.set(project.getLayout().getBuildDirectory().file(OUTPUT_VERSION_PATH));
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.plugin.release;
+
+import java.io.IOException;
+
+import io.spring.api.http.HttpClientMetrics;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
+
+/**
+ * Writes the metrics of the GitHub and Sagan API requests made during a build as JSON
+ * when the build finishes, and resets them for the next build in the same daemon.
+ * <p>
+ * The service listens to task completion only so that it lives for the whole build and is
+ * closed at its end.
+ */
+public abstract class HttpMetricsReportService
+		implements BuildService<HttpMetricsReportService.Params>, OperationCompletionListener, AutoCloseable {
+
+	static final String SERVICE_NAME = "springReleaseHttpMetricsReport";
+
+	private static final Logger LOGGER = Logging.getLogger(HttpMetricsReportService.class);
+
+	@Override
+	public void onFinish(FinishEvent event) {
+	}
+
+	@Override
+	public void close() {
+		var metrics = HttpClientMetrics.shared();
+		if (metrics.isEmpty()) {
+			return;
+		}
+		var reportFile = getParameters().getReportFile().get().getAsFile().toPath();
+		try {
+			metrics.writeJson(reportFile);
+			LOGGER.info("Wrote API request metrics to {}", reportFile);
+		}
+		catch (IOException ex) {
+			LOGGER.warn("Unable to write API request metrics to {}: {}", reportFile, ex.getMessage());
+		}
+		finally {
+			metrics.reset();
+		}
+	}
+
+	public interface Params extends BuildServiceParameters {
+
+		RegularFileProperty getReportFile();
+
+	}
+
+}
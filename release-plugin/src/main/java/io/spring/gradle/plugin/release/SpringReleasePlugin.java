@@ -16,13 +16,17 @@
 
 package io.spring.gradle.plugin.release;
 
+import javax.inject.Inject;
+
+import io.spring.gradle.plugin.core.ProjectUtils;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.build.event.BuildEventsListenerRegistry;
 
 /**
  * @author Steve Riesenberg
  */
-public class SpringReleasePlugin implements Plugin<Project> {
+public abstract class SpringReleasePlugin implements Plugin<Project> {
 
 	static final String TASK_GROUP = "Release";
 	static final String EXTENSION_NAME = "springRelease";
@@ -34,6 +38,22 @@ public class SpringReleasePlugin implements Plugin<Project> {
 	static final String CURRENT_VERSION_PROPERTY = "currentVersion";
 	static final String CREATE_RELEASE_PROPERTY = "createRelease";
 	static final String BRANCH_PROPERTY = "branch";
+	static final String GITHUB_API_URL_PROPERTY = "gitHubApiUrl";
+	static final String SAGAN_API_URL_PROPERTY = "saganApiUrl";
+	static final String GITHUB_GRAPHQL_PROPERTY = "gitHubGraphQl";
+	static final String RECORD_HTTP_CASSETTE_PROPERTY = "recordHttpCassette";
+	static final String REPLAY_HTTP_CASSETTE_PROPERTY = "replayHttpCassette";
+
+	static final String GITHUB_API_URL = "https://api.github.com";
+
+	static final String SAGAN_API_URL = "https://api.spring.io";
+
+	static final String HTTP_CACHE_PATH = "spring-release/http-cache";
+
+	static final String HTTP_METRICS_PATH = "spring-release/http-metrics.json";
+
+	@Inject
+	protected abstract BuildEventsListenerRegistry getBuildEventsListenerRegistry();
 
 	@Override
 	public void apply(Project project) {
@@ -44,6 +64,43 @@ public class SpringReleasePlugin implements Plugin<Project> {
 		springRelease.getReplaceVersionInReferenceDocUrl().convention(false);
 		springRelease.getReleaseVersionPrefix().convention("");
 
+		// Write metrics of API requests at the end of the build
+		var httpMetricsReport = project.getGradle()
+			.getSharedServices()
+			.registerIfAbsent(HttpMetricsReportService.SERVICE_NAME, HttpMetricsReportService.class,
+					(spec) -> spec.getParameters()
+						.getReportFile()
+						.set(project.getRootProject().getLayout().getBuildDirectory().file(HTTP_METRICS_PATH)));
+		getBuildEventsListenerRegistry().onTaskCompletion(httpMetricsReport);
+
+		// Share one set of API clients between the release tasks of the build
+		project.getGradle()
+			.getSharedServices()
+			.registerIfAbsent(SpringReleasesService.SERVICE_NAME, SpringReleasesService.class, (spec) -> {
+				spec.getMaxParallelUsages().set(SpringReleasesService.MAX_PARALLEL_USAGES);
+				spec.getParameters()
+					.getHttpCacheDirectory()
+					.set(project.getRootProject().getLayout().getBuildDirectory().dir(HTTP_CACHE_PATH));
+				spec.getParameters()
+					.getGitHubApiUrl()
+					.set(ProjectUtils.getProperty(project, GITHUB_API_URL_PROPERTY).orElse(GITHUB_API_URL));
+				spec.getParameters()
+					.getSaganApiUrl()
+					.set(ProjectUtils.getProperty(project, SAGAN_API_URL_PROPERTY).orElse(SAGAN_API_URL));
+				spec.getParameters()
+					.getGitHubGraphQl()
+					.set(ProjectUtils.getProperty(project, GITHUB_GRAPHQL_PROPERTY)
+						.map(Boolean::parseBoolean)
+						.orElse(false));
+				var rootDirectory = project.getRootProject().getLayout().getProjectDirectory();
+				spec.getParameters()
+					.getRecordHttpCassette()
+					.set(rootDirectory.file(ProjectUtils.getProperty(project, RECORD_HTTP_CASSETTE_PROPERTY)));
+				spec.getParameters()
+					.getReplayHttpCassette()
+					.set(rootDirectory.file(ProjectUtils.getProperty(project, REPLAY_HTTP_CASSETTE_PROPERTY)));
+			});
+
 		// Calculate the GitHub username for the provided access token
 		GetGitHubUserNameTask.register(project);
 
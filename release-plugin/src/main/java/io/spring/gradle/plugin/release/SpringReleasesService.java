@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.plugin.release;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.spring.api.http.HttpCassette;
+import io.spring.api.http.HttpClients;
+import io.spring.release.SpringReleases;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * Holds the {@link SpringReleases} instances used by the release tasks of a build, so
+ * that tasks using the same access token share their clients, response cache and rate
+ * limit state instead of creating their own.
+ * <p>
+ * Tasks obtain the service through a {@link org.gradle.api.services.ServiceReference}
+ * property, which also lets Gradle enforce the maximum number of parallel usages. The
+ * instances are released when the service is closed at the end of the build.
+ * <p>
+ * When a cassette file is configured, the requests of all instances are recorded to it,
+ * or answered from it without a network (see {@link HttpCassette}).
+ */
+public abstract class SpringReleasesService implements BuildService<SpringReleasesService.Params>, AutoCloseable {
+
+	static final String SERVICE_NAME = "springReleases";
+
+	static final int MAX_PARALLEL_USAGES = 4;
+
+	private static final String ANONYMOUS = "";
+
+	private final Map<String, SpringReleases> springReleases = new ConcurrentHashMap<>();
+
+	private HttpClient httpClient;
+
+	/**
+	 * Return the instance for an access token, creating it on first use.
+	 * @param accessToken A GitHub personal access token, or null for anonymous access
+	 * @return The shared instance
+	 */
+	public SpringReleases getSpringReleases(String accessToken) {
+		var key = (accessToken != null) ? accessToken : ANONYMOUS;
+		return this.springReleases.computeIfAbsent(key,
+				(token) -> new SpringReleases(getHttpClient(), accessToken, getHttpCacheDirectory(),
+						getParameters().getGitHubApiUrl().get(), getParameters().getSaganApiUrl().get(),
+						getParameters().getGitHubGraphQl().get()));
+	}
+
+	/**
+	 * Return the GitHub login of the user of an access token, looked up through the
+	 * instance returned by {@link #getSpringReleases(String)}.
+	 * @param accessToken A GitHub personal access token
+	 * @return The login of the user, or null if it cannot be retrieved
+	 */
+	public String getLogin(String accessToken) {
+		return getSpringReleases(accessToken).getLogin();
+	}
+
+	@Override
+	public void close() {
+		this.springReleases.clear();
+	}
+
+	/**
+	 * Return the client shared by all instances, so that a cassette is recorded or
+	 * replayed once for the build.
+	 */
+	private synchronized HttpClient getHttpClient() {
+		if (this.httpClient == null) {
+			var parameters = getParameters();
+			if (parameters.getReplayHttpCassette().isPresent()) {
+				this.httpClient = HttpCassette.replay(parameters.getReplayHttpCassette().get().getAsFile().toPath());
+			}
+			else if (parameters.getRecordHttpCassette().isPresent()) {
+				this.httpClient = HttpCassette.record(parameters.getRecordHttpCassette().get().getAsFile().toPath(),
+						HttpClients.shared());
+			}
+			else {
+				this.httpClient = HttpClients.shared();
+			}
+		}
+		return this.httpClient;
+	}
+
+	private Path getHttpCacheDirectory() {
+		return getParameters().getHttpCacheDirectory().get().getAsFile().toPath();
+	}
+
+	public interface Params extends BuildServiceParameters {
+
+		DirectoryProperty getHttpCacheDirectory();
+
+		Property<String> getGitHubApiUrl();
+
+		Property<String> getSaganApiUrl();
+
+		Property<Boolean> getGitHubGraphQl();
+
+		RegularFileProperty getRecordHttpCassette();
+
+		RegularFileProperty getReplayHttpCassette();
+
+	}
+
+}
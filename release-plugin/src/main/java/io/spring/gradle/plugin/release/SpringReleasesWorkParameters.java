@@ -0,0 +1,44 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.plugin.release;
+
+import com.github.api.Repository;
+import io.spring.release.SpringReleases;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkParameters;
+
+/**
+ * Parameters shared by the work actions that call the GitHub and Sagan APIs through the
+ * {@link SpringReleasesService}.
+ */
+public interface SpringReleasesWorkParameters extends WorkParameters {
+
+	Property<Repository> getRepository();
+
+	Property<String> getGitHubAccessToken();
+
+	Property<SpringReleasesService> getSpringReleasesService();
+
+	/**
+	 * Return the instance of the service for the access token.
+	 * @return The shared instance
+	 */
+	default SpringReleases getSpringReleases() {
+		return getSpringReleasesService().get().getSpringReleases(getGitHubAccessToken().getOrNull());
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.plugin.core;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Project;
+import org.gradle.api.UnknownTaskException;
+import org.gradle.api.tasks.Copy;
+import org.gradle.api.tasks.Delete;
+import org.gradle.api.tasks.Sync;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ProjectUtilsTests {
+
+	@TempDir
+	private File projectDir;
+
+	private Project project;
+
+	private final ArrayList<String> realizedTasks = new ArrayList<>();
+
+	@BeforeEach
+	public void setUp() {
+		this.project = ProjectBuilder.builder().withProjectDir(this.projectDir).build();
+		this.project.getTasks().register("copy", Copy.class);
+		this.project.getTasks().register("delete", Delete.class);
+		this.project.getTasks().register("other", DefaultTask.class);
+		this.project.getTasks().configureEach((task) -> this.realizedTasks.add(task.getName()));
+	}
+
+	@Test
+	public void findTaskByTypeWhenTaskRegisteredThenNoTaskRealized() {
+		var task = ProjectUtils.findTaskByType(this.project, Delete.class);
+		assertThat(task.getName()).isEqualTo("delete");
+		assertThat(this.realizedTasks).isEmpty();
+	}
+
+	@Test
+	public void findTaskByTypeWhenQueriedThenOnlyFoundTaskRealized() {
+		var task = ProjectUtils.findTaskByType(this.project, Delete.class).get();
+		assertThat(task).isInstanceOf(Delete.class);
+		assertThat(this.realizedTasks).containsExactly("delete");
+	}
+
+	@Test
+	public void findTaskByTypeWhenNoTaskOfTypeThenException() {
+		assertThatExceptionOfType(UnknownTaskException.class)
+			.isThrownBy(() -> ProjectUtils.findTaskByType(this.project, Sync.class));
+		assertThat(this.realizedTasks).isEmpty();
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.plugin.release;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import io.spring.api.fixtures.FakeGitHubServer;
+import io.spring.api.fixtures.FakeSaganServer;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpringReleasePluginCheckTasksTests {
+
+	private static final String REPOSITORY_OWNER = "spring-projects";
+
+	private static final String REPOSITORY_NAME = "spring-security";
+
+	@TempDir
+	private File projectDir;
+
+	private FakeGitHubServer gitHubServer;
+
+	private FakeSaganServer saganServer;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		this.gitHubServer = new FakeGitHubServer();
+		this.saganServer = new FakeSaganServer();
+		Files.writeString(this.projectDir.toPath().resolve("settings.gradle"), """
+				rootProject.name = "spring-security"
+				""");
+		Files.writeString(this.projectDir.toPath().resolve("build.gradle"), """
+				plugins {
+					id "io.spring.security.release"
+				}
+
+				version = "1.0.0-SNAPSHOT"
+
+				springRelease {
+					repositoryOwner = "spring-projects"
+				}
+				""");
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		this.gitHubServer.close();
+		this.saganServer.close();
+	}
+
+	@Test
+	public void checkTasksWhenRunTogetherThenBothOutputsPrinted() {
+		var milestone = this.gitHubServer.addMilestone(REPOSITORY_OWNER, REPOSITORY_NAME, "1.0.0", null);
+		this.gitHubServer.addOpenIssues(REPOSITORY_OWNER, REPOSITORY_NAME, milestone, 2);
+		this.saganServer.addGeneration(REPOSITORY_NAME, "1.0.x", LocalDate.now().minusMonths(1));
+
+		// @formatter:off
+		var result = GradleRunner.create()
+			.withProjectDir(this.projectDir)
+			.withPluginClasspath()
+			.withArguments(CheckMilestoneHasOpenIssuesTask.TASK_NAME, CheckBranchHasCommercialSupportTask.TASK_NAME,
+					"-PnextVersion=1.0.0", "-Pbranch=1.0.x", "-PgitHubAccessToken=personal-access-token",
+					"-PgitHubApiUrl=" + this.gitHubServer.getBaseUrl(),
+					"-PsaganApiUrl=" + this.saganServer.getBaseUrl())
+			.build();
+		// @formatter:on
+		assertThat(result.task(":" + CheckMilestoneHasOpenIssuesTask.TASK_NAME).getOutcome())
+			.isEqualTo(TaskOutcome.SUCCESS);
+		assertThat(result.task(":" + CheckBranchHasCommercialSupportTask.TASK_NAME).getOutcome())
+			.isEqualTo(TaskOutcome.SUCCESS);
+		// The milestone has open issues, and the generation is in the OSS support window
+		assertThat(result.getOutput().lines()).contains("true", "false");
+	}
+
+	@Test
+	public void checkTasksWhenRunTogetherThenRequestsOverlap() {
+		var milestone = this.gitHubServer.addMilestone(REPOSITORY_OWNER, REPOSITORY_NAME, "1.0.0", null);
+		this.gitHubServer.addOpenIssues(REPOSITORY_OWNER, REPOSITORY_NAME, milestone, 2);
+		this.saganServer.addGeneration(REPOSITORY_NAME, "1.0.x", LocalDate.now().minusMonths(1));
+		var latency = Duration.ofSeconds(2);
+		this.gitHubServer.setLatency(latency);
+		this.saganServer.setLatency(latency);
+
+		var result = runCheckTasks(this.gitHubServer.getBaseUrl(), this.saganServer.getBaseUrl());
+		assertThat(result.getOutput().lines()).contains("true", "false");
+
+		// Sent one after the other, each request would start after the previous response
+		var requestTimes = Stream.concat(this.gitHubServer.getRequestTimes().stream(),
+				this.saganServer.getRequestTimes().stream())
+			.sorted()
+			.toList();
+		var totalLatency = latency.multipliedBy(requestTimes.size());
+		var elapsed = Duration.between(requestTimes.get(0), requestTimes.get(requestTimes.size() - 1)).plus(latency);
+		assertThat(elapsed).isLessThan(totalLatency.minus(latency.dividedBy(2)));
+	}
+
+	@Test
+	public void checkTasksWhenReplayedFromCassetteThenSameOutputsWithoutServers() throws IOException {
+		var milestone = this.gitHubServer.addMilestone(REPOSITORY_OWNER, REPOSITORY_NAME, "1.0.0", null);
+		this.gitHubServer.addOpenIssues(REPOSITORY_OWNER, REPOSITORY_NAME, milestone, 2);
+		this.saganServer.addGeneration(REPOSITORY_NAME, "1.0.x", LocalDate.now().minusMonths(1));
+		var gitHubApiUrl = this.gitHubServer.getBaseUrl();
+		var saganApiUrl = this.saganServer.getBaseUrl();
+		var recorded = runCheckTasks(gitHubApiUrl, saganApiUrl, "-PrecordHttpCassette=release.cassette");
+		assertThat(recorded.getOutput().lines()).contains("true", "false");
+		this.gitHubServer.close();
+		this.saganServer.close();
+
+		var replayed = runCheckTasks(gitHubApiUrl, saganApiUrl, "-PreplayHttpCassette=release.cassette");
+		assertThat(replayed.task(":" + CheckMilestoneHasOpenIssuesTask.TASK_NAME).getOutcome())
+			.isEqualTo(TaskOutcome.SUCCESS);
+		assertThat(replayed.getOutput().lines()).contains("true", "false");
+	}
+
+	private BuildResult runCheckTasks(String gitHubApiUrl, String saganApiUrl, String... arguments) {
+		var allArguments = new ArrayList<>(List.of(CheckMilestoneHasOpenIssuesTask.TASK_NAME,
+				CheckBranchHasCommercialSupportTask.TASK_NAME, "-PnextVersion=1.0.0", "-Pbranch=1.0.x",
+				"-PgitHubAccessToken=personal-access-token", "-PgitHubApiUrl=" + gitHubApiUrl,
+				"-PsaganApiUrl=" + saganApiUrl));
+		allArguments.addAll(List.of(arguments));
+		// @formatter:off
+		return GradleRunner.create()
+			.withProjectDir(this.projectDir)
+			.withPluginClasspath()
+			.withArguments(allArguments)
+			.build();
+		// @formatter:on
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.plugin.release;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.spring.api.fixtures.FakeGitHubServer;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpringReleasePluginConfigurationCacheTests {
+
+	@TempDir
+	private File projectDir;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		Files.writeString(this.projectDir.toPath().resolve("settings.gradle"), """
+				rootProject.name = "spring-security"
+				""");
+		Files.writeString(this.projectDir.toPath().resolve("build.gradle"), """
+				plugins {
+					id "io.spring.security.release"
+				}
+
+				version = "1.0.0"
+
+				springRelease {
+					repositoryOwner = "spring-projects"
+				}
+				""");
+	}
+
+	@Test
+	public void getNextSnapshotVersionWhenRunTwiceThenConfigurationCacheReused() {
+		var first = gradleRunner(GetNextSnapshotVersionTask.TASK_NAME).build();
+		assertThat(first.task(":" + GetNextSnapshotVersionTask.TASK_NAME).getOutcome())
+			.isEqualTo(TaskOutcome.SUCCESS);
+		assertThat(first.getOutput()).contains("1.0.1-SNAPSHOT").contains("Configuration cache entry stored");
+
+		var second = gradleRunner(GetNextSnapshotVersionTask.TASK_NAME).build();
+		assertThat(second.task(":" + GetNextSnapshotVersionTask.TASK_NAME).getOutcome())
+			.isEqualTo(TaskOutcome.SUCCESS);
+		assertThat(second.getOutput()).contains("1.0.1-SNAPSHOT").contains("Reusing configuration cache");
+	}
+
+	@Test
+	public void checkMilestoneHasOpenIssuesWhenRunTwiceThenConfigurationCacheReused() throws IOException {
+		try (var gitHubServer = new FakeGitHubServer()) {
+			var milestone = gitHubServer.addMilestone("spring-projects", "spring-security", "1.0.0", null);
+			gitHubServer.addOpenIssues("spring-projects", "spring-security", milestone, 1);
+			var arguments = new String[] { CheckMilestoneHasOpenIssuesTask.TASK_NAME,
+					"-PgitHubAccessToken=personal-access-token", "-PgitHubApiUrl=" + gitHubServer.getBaseUrl() };
+
+			// The version is read from the output of getNextReleaseMilestone, and the
+			// milestone from the API through the SpringReleasesService
+			var first = gradleRunner(arguments).build();
+			assertThat(first.task(":" + GetNextReleaseMilestoneTask.TASK_NAME).getOutcome())
+				.isEqualTo(TaskOutcome.SUCCESS);
+			assertThat(first.task(":" + CheckMilestoneHasOpenIssuesTask.TASK_NAME).getOutcome())
+				.isEqualTo(TaskOutcome.SUCCESS);
+			assertThat(first.getOutput().lines()).contains("true");
+			assertThat(first.getOutput()).contains("Configuration cache entry stored");
+
+			var second = gradleRunner(arguments).build();
+			assertThat(second.task(":" + CheckMilestoneHasOpenIssuesTask.TASK_NAME).getOutcome())
+				.isEqualTo(TaskOutcome.SUCCESS);
+			assertThat(second.getOutput().lines()).contains("true");
+			assertThat(second.getOutput()).contains("Reusing configuration cache");
+		}
+	}
+
+	private GradleRunner gradleRunner(String... arguments) {
+		var argumentList = new ArrayList<>(List.of(arguments));
+		argumentList.add("--configuration-cache");
+		// @formatter:off
+		return GradleRunner.create()
+			.withProjectDir(this.projectDir)
+			.withPluginClasspath()
+			.withArguments(argumentList);
+		// @formatter:on
+	}
+
+}
@@ -17,6 +17,7 @@
 package io.spring.gradle.plugin.release;
 
 import java.io.File;
+import java.util.ArrayList;
 
 import io.spring.gradle.plugin.core.ProjectUtils;
 import io.spring.gradle.plugin.core.RegularFileUtils;
@@ -61,7 +62,7 @@ public class SpringReleasePluginFunctionalTests {
 
 	@Test
 	public void getNextReleaseMilestoneTaskWhenPluginAppliedThenConfigured() {
-		var task = ProjectUtils.findTaskByType(this.project, GetNextReleaseMilestoneTask.class);
+		var task = ProjectUtils.findTaskByType(this.project, GetNextReleaseMilestoneTask.class).get();
 		assertThat(task.getVersion().get()).isEqualTo(this.project.getVersion());
 
 		var repository = task.getRepository().get();
@@ -76,7 +77,7 @@ public class SpringReleasePluginFunctionalTests {
 	public void getNextReleaseMilestoneTaskWhenConfiguredThenSuccess() {
 		RegularFileUtils.mkdirs(this.project.getLayout().getBuildDirectory());
 
-		var task = ProjectUtils.findTaskByType(this.project, GetNextReleaseMilestoneTask.class);
+		var task = ProjectUtils.findTaskByType(this.project, GetNextReleaseMilestoneTask.class).get();
 		task.getNextReleaseMilestone();
 
 		var nextReleaseMilestone = RegularFileUtils.readString(task.getNextReleaseMilestoneFile().get());
@@ -87,7 +88,7 @@ public class SpringReleasePluginFunctionalTests {
 	public void getNextReleaseMilestoneTaskWhenNameIsSetThenOverridden() {
 		this.springRelease.getRepositoryName().set("my-project");
 
-		var task = ProjectUtils.findTaskByType(this.project, GetNextReleaseMilestoneTask.class);
+		var task = ProjectUtils.findTaskByType(this.project, GetNextReleaseMilestoneTask.class).get();
 		assertThat(task.getVersion().get()).isEqualTo("1.0.0-SNAPSHOT");
 
 		var repository = task.getRepository().get();
@@ -97,7 +98,7 @@ public class SpringReleasePluginFunctionalTests {
 
 	@Test
 	public void getNextSnapshotVersionTaskWhenPluginAppliedThenConfigured() {
-		var task = ProjectUtils.findTaskByType(this.project, GetNextSnapshotVersionTask.class);
+		var task = ProjectUtils.findTaskByType(this.project, GetNextSnapshotVersionTask.class).get();
 		assertThat(task.getVersion().get()).isEqualTo(this.project.getVersion());
 
 		var outputFile = task.getNextSnapshotVersionFile().get();
@@ -109,7 +110,7 @@ public class SpringReleasePluginFunctionalTests {
 		this.project.setVersion("1.0.0");
 		RegularFileUtils.mkdirs(this.project.getLayout().getBuildDirectory());
 
-		var task = ProjectUtils.findTaskByType(this.project, GetNextSnapshotVersionTask.class);
+		var task = ProjectUtils.findTaskByType(this.project, GetNextSnapshotVersionTask.class).get();
 		task.getNextSnapshotVersion();
 
 		var outputFile = task.getNextSnapshotVersionFile().get();
@@ -207,6 +208,38 @@ public class SpringReleasePluginFunctionalTests {
 		assertThat(task).isNotNull();
 	}
 
+	@Test
+	public void closeMilestoneTaskWhenConfiguredThenGetNextReleaseMilestoneTaskNotRealized() {
+		var realizedTasks = new ArrayList<String>();
+		this.project.getTasks().configureEach((task) -> realizedTasks.add(task.getName()));
+
+		this.project.getTasks().named(CloseMilestoneTask.TASK_NAME).get();
+		assertThat(realizedTasks).containsExactly(CloseMilestoneTask.TASK_NAME);
+	}
+
+	@Test
+	public void springReleasesServiceWhenPluginAppliedThenSharedByTasks() {
+		var getNextReleaseMilestone = ProjectUtils.findTaskByType(this.project, GetNextReleaseMilestoneTask.class).get();
+		var closeMilestone = ProjectUtils.findTaskByType(this.project, CloseMilestoneTask.class).get();
+
+		var springReleasesService = getNextReleaseMilestone.getSpringReleasesService().get();
+		assertThat(closeMilestone.getSpringReleasesService().get()).isSameAs(springReleasesService);
+		assertThat(springReleasesService.getSpringReleases("personal-access-token"))
+			.isSameAs(springReleasesService.getSpringReleases("personal-access-token"));
+		assertThat(springReleasesService.getSpringReleases(null)).isSameAs(springReleasesService.getSpringReleases(null))
+			.isNotSameAs(springReleasesService.getSpringReleases("personal-access-token"));
+	}
+
+	@Test
+	public void springReleasesServiceWhenClosedThenInstancesReleased() {
+		var getGitHubUserName = ProjectUtils.findTaskByType(this.project, GetGitHubUserNameTask.class).get();
+		var springReleasesService = getGitHubUserName.getSpringReleasesService().get();
+		var springReleases = springReleasesService.getSpringReleases("personal-access-token");
+
+		springReleasesService.close();
+		assertThat(springReleasesService.getSpringReleases("personal-access-token")).isNotSameAs(springReleases);
+	}
+
 	@Test
 	public void springReleasePluginExtensionWhenPluginAppliedThenExists() {
 		var springRelease = this.project.getExtensions().findByType(SpringReleasePluginExtension.class);